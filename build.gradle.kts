@@ -2,6 +2,7 @@ plugins {
     `java-library`
     `maven-publish`
     signing
+    id("me.champeau.jmh") version "0.7.1"
 }
 
 group = "dev.slesh"
@@ -24,6 +25,13 @@ dependencies {
     testImplementation("com.aerospike:aerospike-client:6.0.0")
     testImplementation("org.junit.jupiter:junit-jupiter:5.8.1")
     testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine:5.8.1")
+    jmh("io.vertx:vertx-core:4.3.8")
+    jmh("com.aerospike:aerospike-client:6.0.0")
+}
+
+jmh {
+    jmhVersion.set("1.36")
+    profilers.add("gc")
 }
 
 publishing {
@@ -0,0 +1,138 @@
+package dev.slesh.vertx.aerospike.benchmark;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.Bin;
+import com.aerospike.client.IAerospikeClient;
+import com.aerospike.client.Key;
+import com.aerospike.client.Record;
+import com.aerospike.client.async.NettyEventLoops;
+import com.aerospike.client.listener.RecordListener;
+import dev.slesh.vertx.aerospike.client.VertxAerospikeClient;
+import dev.slesh.vertx.aerospike.eventloop.ContextEventLoop;
+import dev.slesh.vertx.aerospike.future.ContextPromiseSelector;
+import io.vertx.core.impl.ContextInternal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per operation overhead of {@link VertxAerospikeClient} over the raw callback API.
+ * Both variants run on vert.x event loop contexts against the same {@link StubAerospikeClient}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClientBenchmark {
+    static final int BATCH = 10_000;
+
+    @Param({"1", "4"})
+    int eventLoops;
+
+    @Param({"IMMEDIATE", "EVENT_LOOP"})
+    StubAerospikeClient.Completion completion;
+
+    private EventLoopContexts contexts;
+    private NettyEventLoops nettyEventLoops;
+    private IAerospikeClient stub;
+    private VertxAerospikeClient client;
+    private final Key key = new Key("ns", "set", "key");
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        contexts = new EventLoopContexts(eventLoops);
+        nettyEventLoops = new NettyEventLoops(contexts.vertx.nettyEventLoopGroup());
+        stub = StubAerospikeClient.create(completion);
+        client = new VertxAerospikeClient(stub, new ContextEventLoop(nettyEventLoops), new ContextPromiseSelector());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        contexts.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void callbackGet() {
+        contexts.run(done -> {
+            final int operations = BATCH / eventLoops;
+            final var eventLoop = nettyEventLoops.get(ContextInternal.current().nettyEventLoop());
+            final var listener = new CountingListener(operations, done);
+            for (int i = 0; i < operations; i++) {
+                stub.get(eventLoop, listener, null, key);
+            }
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void vertxClientGet() {
+        contexts.run(done -> {
+            final int operations = BATCH / eventLoops;
+            final int[] completed = {0};
+            for (int i = 0; i < operations; i++) {
+                client.get(key).onComplete(ignored -> {
+                    if (++completed[0] == operations) {
+                        done.complete(null);
+                    }
+                });
+            }
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void vertxClientPut() {
+        final Bin bin = new Bin("age", 10);
+        contexts.run(done -> {
+            final int operations = BATCH / eventLoops;
+            final int[] completed = {0};
+            for (int i = 0; i < operations; i++) {
+                client.put(key, bin).onComplete(ignored -> {
+                    if (++completed[0] == operations) {
+                        done.complete(null);
+                    }
+                });
+            }
+        });
+    }
+
+    private static final class CountingListener implements RecordListener {
+        private final int operations;
+        private final CompletableFuture<Void> done;
+        private int completed;
+
+        private CountingListener(final int operations, final CompletableFuture<Void> done) {
+            this.operations = operations;
+            this.done = done;
+        }
+
+        @Override
+        public void onSuccess(final Key key, final Record record) {
+            if (++completed == operations) {
+                done.complete(null);
+            }
+        }
+
+        @Override
+        public void onFailure(final AerospikeException exception) {
+            done.completeExceptionally(exception);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package dev.slesh.vertx.aerospike.benchmark;
+
+import com.aerospike.client.Key;
+import com.aerospike.client.async.NettyEventLoops;
+import dev.slesh.vertx.aerospike.client.VertxAerospikeClient;
+import dev.slesh.vertx.aerospike.eventloop.ContextEventLoop;
+import dev.slesh.vertx.aerospike.eventloop.NextEventLoopSelector;
+import dev.slesh.vertx.aerospike.future.ContextPromiseSelector;
+import dev.slesh.vertx.aerospike.future.NewPromiseSelector;
+import io.vertx.core.impl.ContextInternal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of handing completions over to the caller's event loop.
+ * <p>
+ * {@code sameLoop} runs commands on the caller's event loop, so promises complete inline.
+ * {@code crossLoopBatched} runs them on other event loops and completions are handed over in batches, while
+ * {@code crossLoopPerCompletion} emulates one task submission per completion.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompletionBenchmark {
+    static final int BATCH = 10_000;
+
+    @Param({"2", "4"})
+    int eventLoops;
+
+    private EventLoopContexts contexts;
+    private VertxAerospikeClient sameLoop;
+    private VertxAerospikeClient crossLoopBatched;
+    private VertxAerospikeClient crossLoopPerCompletion;
+    private final Key key = new Key("ns", "set", "key");
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        contexts = new EventLoopContexts(eventLoops);
+        final var nettyEventLoops = new NettyEventLoops(contexts.vertx.nettyEventLoopGroup());
+        final var stub = StubAerospikeClient.create(StubAerospikeClient.Completion.EVENT_LOOP);
+        sameLoop = new VertxAerospikeClient(stub, new ContextEventLoop(nettyEventLoops), new ContextPromiseSelector());
+        crossLoopBatched = new VertxAerospikeClient(stub, new NextEventLoopSelector(nettyEventLoops),
+                new ContextPromiseSelector());
+        crossLoopPerCompletion = new VertxAerospikeClient(stub, new NextEventLoopSelector(nettyEventLoops),
+                new NewPromiseSelector());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        contexts.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void sameLoop() {
+        get(sameLoop, false);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void crossLoopBatched() {
+        get(crossLoopBatched, false);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void crossLoopPerCompletion() {
+        get(crossLoopPerCompletion, true);
+    }
+
+    private void get(final VertxAerospikeClient client, final boolean hop) {
+        contexts.run(done -> {
+            final var ctx = ContextInternal.current();
+            final int operations = BATCH / eventLoops;
+            final int[] completed = {0};
+            for (int i = 0; i < operations; i++) {
+                client.get(key).onComplete(ignored -> {
+                    if (hop) {
+                        ctx.runOnContext(v -> {
+                            if (++completed[0] == operations) {
+                                done.complete(null);
+                            }
+                        });
+                    } else if (++completed[0] == operations) {
+                        done.complete(null);
+                    }
+                });
+            }
+        });
+    }
+}
@@ -0,0 +1,45 @@
+package dev.slesh.vertx.aerospike.benchmark;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.impl.ContextInternal;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Runs benchmark batches on vert.x event loop contexts, one context per event loop,
+ * since the context aware selectors take their fast path only there.
+ */
+final class EventLoopContexts {
+    final Vertx vertx;
+    final ContextInternal[] contexts;
+
+    EventLoopContexts(final int eventLoops) {
+        this.vertx = Vertx.vertx(new VertxOptions().setEventLoopPoolSize(eventLoops));
+        this.contexts = new ContextInternal[eventLoops];
+        for (int i = 0; i < eventLoops; i++) {
+            // contexts created outside of vert.x are assigned to the event loops round-robin
+            contexts[i] = (ContextInternal) vertx.getOrCreateContext();
+        }
+    }
+
+    /**
+     * Runs the batch on every context at the same time and waits until all of them signal completion.
+     *
+     * @param batch runs on the context and completes the future once all its operations have completed
+     */
+    void run(final Consumer<CompletableFuture<Void>> batch) {
+        final var done = new CompletableFuture<?>[contexts.length];
+        for (int i = 0; i < contexts.length; i++) {
+            final var future = new CompletableFuture<Void>();
+            done[i] = future;
+            contexts[i].runOnContext(v -> batch.accept(future));
+        }
+        CompletableFuture.allOf(done).join();
+    }
+
+    void close() {
+        vertx.close().toCompletionStage().toCompletableFuture().join();
+    }
+}
@@ -0,0 +1,120 @@
+package dev.slesh.vertx.aerospike.benchmark;
+
+import com.aerospike.client.async.NettyEventLoops;
+import dev.slesh.vertx.aerospike.eventloop.ContextEventLoop;
+import dev.slesh.vertx.aerospike.eventloop.EventLoopSelector;
+import dev.slesh.vertx.aerospike.eventloop.NextEventLoopSelector;
+import dev.slesh.vertx.aerospike.future.ContextPromiseSelector;
+import dev.slesh.vertx.aerospike.future.NewPromiseSelector;
+import dev.slesh.vertx.aerospike.future.PromiseSelector;
+import io.vertx.core.Promise;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the event loop and promise selectors when they are called from vert.x event loops.
+ * A batch of selections is run on every event loop at once, so with several loops the shared state
+ * of the selectors (e.g. the round-robin counter) is contended.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SelectorBenchmark {
+    static final int BATCH = 100_000;
+
+    @Param({"1", "4"})
+    int eventLoops;
+
+    private EventLoopContexts contexts;
+    private EventLoopSelector contextEventLoop;
+    private EventLoopSelector nextEventLoop;
+    private PromiseSelector contextPromise;
+    private PromiseSelector newPromise;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        contexts = new EventLoopContexts(eventLoops);
+        final var nettyEventLoops = new NettyEventLoops(contexts.vertx.nettyEventLoopGroup());
+        contextEventLoop = new ContextEventLoop(nettyEventLoops);
+        nextEventLoop = new NextEventLoopSelector(nettyEventLoops);
+        contextPromise = new ContextPromiseSelector();
+        newPromise = new NewPromiseSelector();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        contexts.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void contextEventLoop() {
+        select(contextEventLoop);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void nextEventLoop() {
+        select(nextEventLoop);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void contextPromise() {
+        completePromises(contextPromise);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void newPromise() {
+        completePromises(newPromise);
+    }
+
+    private void select(final EventLoopSelector selector) {
+        contexts.run(done -> {
+            long indexes = 0;
+            for (int i = BATCH / eventLoops; i > 0; i--) {
+                indexes += selector.select().getIndex();
+            }
+            done.complete(null);
+            // keeps the loop from being eliminated
+            if (indexes == Long.MIN_VALUE) {
+                throw new IllegalStateException();
+            }
+        });
+    }
+
+    private void completePromises(final PromiseSelector selector) {
+        contexts.run(done -> {
+            long completed = 0;
+            for (int i = BATCH / eventLoops; i > 0; i--) {
+                final Promise<Integer> promise = selector.select();
+                promise.complete(i);
+                if (promise.future().succeeded()) {
+                    completed++;
+                }
+            }
+            done.complete(null);
+            if (completed == Long.MIN_VALUE) {
+                throw new IllegalStateException();
+            }
+        });
+    }
+}
@@ -0,0 +1,87 @@
+package dev.slesh.vertx.aerospike.benchmark;
+
+import com.aerospike.client.IAerospikeClient;
+import com.aerospike.client.Key;
+import com.aerospike.client.Record;
+import com.aerospike.client.async.EventLoop;
+import com.aerospike.client.listener.DeleteListener;
+import com.aerospike.client.listener.ExistsListener;
+import com.aerospike.client.listener.RecordArrayListener;
+import com.aerospike.client.listener.RecordListener;
+import com.aerospike.client.listener.WriteListener;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * {@link IAerospikeClient} which answers async commands without a server.
+ * <p>
+ * It's a dynamic proxy, so every call pays for reflection and the boxed argument array. The cost is the same
+ * for the raw callback API and for the wrappers, so it cancels out when the benchmarks are compared.
+ */
+public final class StubAerospikeClient {
+    static final Record RECORD = new Record(Map.<String, Object>of("age", 10L), 1, 0);
+
+    private StubAerospikeClient() {
+    }
+
+    public enum Completion {
+        /**
+         * The listener is called before the command method returns.
+         */
+        IMMEDIATE,
+        /**
+         * The listener is called from a task submitted to the event loop of the command, like a real response.
+         */
+        EVENT_LOOP
+    }
+
+    static IAerospikeClient create(final Completion completion) {
+        return (IAerospikeClient) Proxy.newProxyInstance(
+                IAerospikeClient.class.getClassLoader(),
+                new Class<?>[]{IAerospikeClient.class},
+                (proxy, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class) {
+                        return switch (method.getName()) {
+                            case "hashCode" -> System.identityHashCode(proxy);
+                            case "equals" -> proxy == args[0];
+                            default -> "StubAerospikeClient";
+                        };
+                    }
+                    if (method.getName().equals("getCluster")) {
+                        // no event loops to size the per event loop state by
+                        return null;
+                    }
+                    if (args == null || args.length < 2 || !(args[0] instanceof EventLoop eventLoop)) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    if (completion == Completion.IMMEDIATE) {
+                        respond(method.getName(), args);
+                    } else {
+                        eventLoop.execute(() -> respond(method.getName(), args));
+                    }
+                    return null;
+                });
+    }
+
+    private static void respond(final String method, final Object[] args) {
+        final Object listener = args[1];
+        if (listener instanceof WriteListener writeListener) {
+            writeListener.onSuccess((Key) args[3]);
+        } else if (listener instanceof RecordListener recordListener) {
+            recordListener.onSuccess((Key) args[3], RECORD);
+        } else if (listener instanceof RecordArrayListener recordArrayListener) {
+            final Key[] keys = (Key[]) args[3];
+            final Record[] records = new Record[keys.length];
+            Arrays.fill(records, RECORD);
+            recordArrayListener.onSuccess(keys, records);
+        } else if (listener instanceof DeleteListener deleteListener) {
+            deleteListener.onSuccess((Key) args[3], true);
+        } else if (listener instanceof ExistsListener existsListener) {
+            existsListener.onSuccess((Key) args[3], true);
+        } else {
+            throw new UnsupportedOperationException(method + " with " + listener.getClass());
+        }
+    }
+}
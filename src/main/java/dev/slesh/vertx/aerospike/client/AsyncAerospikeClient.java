@@ -7,6 +7,7 @@ import com.aerospike.client.Bin;
 import com.aerospike.client.IAerospikeClient;
 import com.aerospike.client.Key;
 import com.aerospike.client.Operation;
+import com.aerospike.client.Record;
 import com.aerospike.client.Value;
 import com.aerospike.client.async.AsyncIndexTask;
 import com.aerospike.client.cluster.Node;
@@ -16,24 +17,72 @@ import com.aerospike.client.policy.BatchUDFPolicy;
 import com.aerospike.client.policy.BatchWritePolicy;
 import com.aerospike.client.policy.InfoPolicy;
 import com.aerospike.client.policy.Policy;
+import com.aerospike.client.policy.QueryPolicy;
+import com.aerospike.client.policy.ScanPolicy;
 import com.aerospike.client.policy.WritePolicy;
 import com.aerospike.client.query.IndexCollectionType;
 import com.aerospike.client.query.IndexType;
+import com.aerospike.client.query.KeyRecord;
+import com.aerospike.client.query.Statement;
+import dev.slesh.vertx.aerospike.client.codec.RecordCodec;
 import dev.slesh.vertx.aerospike.client.result.*;
 import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.streams.ReadStream;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeoutException;
 
 public interface AsyncAerospikeClient {
     IAerospikeClient delegate();
 
+    /**
+     * Stops accepting commands, the following ones fail with {@link ClientClosedException}.
+     * Decorators buffering commands send what they hold first.
+     *
+     * @return completed once the commands in flight are answered
+     */
+    Future<Void> drain();
+
+    /**
+     * Drains the client and closes the aerospike client, even if the commands didn't drain in time.
+     *
+     * @return failed with {@link TimeoutException} if commands were still in flight after the timeout
+     */
+    default Future<Void> shutdown(final Vertx vertx, final Duration timeout) {
+        final Promise<Void> drained = Promise.promise();
+        final long timer = vertx.setTimer(Math.max(1, timeout.toMillis()), ignored -> drained.tryFail(
+                new TimeoutException("Commands in flight didn't drain in " + timeout)));
+        drain().onComplete(ignored -> {
+            vertx.cancelTimer(timer);
+            drained.tryComplete();
+        });
+        return drained.future().transform(result -> vertx.<Void>executeBlocking(promise -> {
+            delegate().close();
+            promise.complete();
+        }, false).compose(closed -> result.succeeded()
+                ? Future.<Void>succeededFuture()
+                : Future.<Void>failedFuture(result.cause())));
+    }
+
     default Future<Key> put(Key key, Bin... bins) throws AerospikeException {
         return put(null, key, bins);
     }
 
     Future<Key> put(WritePolicy policy, Key key, Bin... bins) throws AerospikeException;
 
+    default <T> Future<Key> put(Key key, T value, RecordCodec<T> codec) throws AerospikeException {
+        return put(null, key, value, codec);
+    }
+
+    default <T> Future<Key> put(WritePolicy policy, Key key, T value, RecordCodec<T> codec) throws AerospikeException {
+        return put(policy, key, codec.encode(value));
+    }
+
     default Future<Key> append(Key key, Bin... bins) throws AerospikeException {
         return append(null, key, bins);
     }
@@ -94,6 +143,19 @@ public interface AsyncAerospikeClient {
 
     Future<ReadValue> get(Policy policy, Key key, String... binNames) throws AerospikeException;
 
+    default <T> Future<T> get(Key key, RecordCodec<T> codec) throws AerospikeException {
+        return get(null, key, codec);
+    }
+
+    /**
+     * @return completed with {@code null} if the record doesn't exist
+     */
+    default <T> Future<T> get(Policy policy, Key key, RecordCodec<T> codec) throws AerospikeException {
+        final String[] binNames = codec.binNames();
+        return (binNames == null ? get(policy, key) : get(policy, key, binNames))
+                .map(value -> value.record() != null ? codec.decode(value.record()) : null);
+    }
+
     default Future<ReadValue> getHeader(Key key) throws AerospikeException {
         return getHeader(null, key);
     }
@@ -118,6 +180,24 @@ public interface AsyncAerospikeClient {
 
     Future<RecordArrayValue> get(BatchPolicy policy, Key[] keys, String... binNames) throws AerospikeException;
 
+    default <T> Future<List<T>> get(Key[] keys, RecordCodec<T> codec) throws AerospikeException {
+        return get(null, keys, codec);
+    }
+
+    /**
+     * @return the decoded records in the order of the keys, {@code null} for the records which don't exist
+     */
+    default <T> Future<List<T>> get(BatchPolicy policy, Key[] keys, RecordCodec<T> codec) throws AerospikeException {
+        final String[] binNames = codec.binNames();
+        return (binNames == null ? get(policy, keys) : get(policy, keys, binNames)).map(value -> {
+            final List<T> decoded = new ArrayList<>(value.records().length);
+            for (final Record record : value.records()) {
+                decoded.add(record != null ? codec.decode(record) : null);
+            }
+            return decoded;
+        });
+    }
+
     default Future<RecordArrayValue> get(Key[] keys, Operation... ops) throws AerospikeException {
         return get(null, keys, ops);
     }
@@ -160,6 +240,42 @@ public interface AsyncAerospikeClient {
 
     Future<BatchRecordArrayValue> execute(BatchPolicy batchPolicy, BatchUDFPolicy udfPolicy, Key[] keys, String packageName, String functionName, Value... args) throws AerospikeException;
 
+    default ReadStream<KeyRecord> queryStream(Statement statement) throws AerospikeException {
+        return queryStream(null, statement);
+    }
+
+    ReadStream<KeyRecord> queryStream(QueryPolicy policy, Statement statement) throws AerospikeException;
+
+    default ReadStream<KeyRecord> scanStream(String namespace, String setName, String... binNames) throws AerospikeException {
+        return scanStream(null, namespace, setName, binNames);
+    }
+
+    ReadStream<KeyRecord> scanStream(ScanPolicy policy, String namespace, String setName, String... binNames) throws AerospikeException;
+
+    default ReadStream<KeyRecord> getStream(Key[] keys) throws AerospikeException {
+        return getStream(null, keys);
+    }
+
+    ReadStream<KeyRecord> getStream(BatchPolicy policy, Key[] keys) throws AerospikeException;
+
+    default ReadStream<KeyRecord> getStream(Key[] keys, String... binNames) throws AerospikeException {
+        return getStream(null, keys, binNames);
+    }
+
+    ReadStream<KeyRecord> getStream(BatchPolicy policy, Key[] keys, String... binNames) throws AerospikeException;
+
+    default ReadStream<BatchRead> getStream(List<BatchRead> records) throws AerospikeException {
+        return getStream(null, records);
+    }
+
+    ReadStream<BatchRead> getStream(BatchPolicy policy, List<BatchRead> records) throws AerospikeException;
+
+    default ReadStream<BatchRecord> operateStream(List<BatchRecord> records) throws AerospikeException {
+        return operateStream(null, records);
+    }
+
+    ReadStream<BatchRecord> operateStream(BatchPolicy policy, List<BatchRecord> records) throws AerospikeException;
+
     default Future<AsyncIndexTask> createIndex(String namespace, String setName, String indexName, String binName, IndexType indexType, IndexCollectionType indexCollectionType) throws AerospikeException {
         return createIndex(null, namespace, setName, indexName, binName, indexType, indexCollectionType);
     }
@@ -0,0 +1,13 @@
+package dev.slesh.vertx.aerospike.client;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.ResultCode;
+
+/**
+ * Fails a command which was submitted after {@link AsyncAerospikeClient#drain()}.
+ */
+public class ClientClosedException extends AerospikeException {
+    public ClientClosedException() {
+        super(ResultCode.CLIENT_ERROR, "Client is draining or closed");
+    }
+}
@@ -0,0 +1,347 @@
+package dev.slesh.vertx.aerospike.client;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.BatchRead;
+import com.aerospike.client.BatchRecord;
+import com.aerospike.client.Key;
+import com.aerospike.client.Record;
+import com.aerospike.client.ResultCode;
+import com.aerospike.client.async.AsyncIndexTask;
+import com.aerospike.client.async.EventLoop;
+import com.aerospike.client.listener.BatchListListener;
+import com.aerospike.client.listener.BatchOperateListListener;
+import com.aerospike.client.listener.BatchRecordArrayListener;
+import com.aerospike.client.listener.DeleteListener;
+import com.aerospike.client.listener.ExecuteListener;
+import com.aerospike.client.listener.ExistsArrayListener;
+import com.aerospike.client.listener.ExistsListener;
+import com.aerospike.client.listener.IndexListener;
+import com.aerospike.client.listener.InfoListener;
+import com.aerospike.client.listener.RecordArrayListener;
+import com.aerospike.client.listener.RecordListener;
+import com.aerospike.client.listener.WriteListener;
+import dev.slesh.vertx.aerospike.client.result.BatchOperateListValue;
+import dev.slesh.vertx.aerospike.client.result.BatchRecordArrayValue;
+import dev.slesh.vertx.aerospike.client.result.DeleteValue;
+import dev.slesh.vertx.aerospike.client.result.ExecuteValue;
+import dev.slesh.vertx.aerospike.client.result.ExistsArrayValue;
+import dev.slesh.vertx.aerospike.client.result.ReadValue;
+import dev.slesh.vertx.aerospike.client.result.RecordArrayValue;
+import dev.slesh.vertx.aerospike.limiter.CommandLimiter;
+import dev.slesh.vertx.aerospike.limiter.LimitedCommand;
+import dev.slesh.vertx.aerospike.metrics.StageMetrics;
+import io.vertx.core.Promise;
+import io.vertx.core.impl.ContextInternal;
+import io.vertx.core.impl.future.PromiseInternal;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One call of {@link VertxAerospikeClient}: it sends itself to the server and, being the aerospike listener
+ * at the same time, completes the promise of the caller. Keeping the arguments, the listener and the
+ * limiter bookkeeping in a single object costs one allocation per call.
+ */
+abstract class Command<T> implements LimitedCommand {
+    EventLoop eventLoop;
+    private Promise<T> promise;
+    private CommandLimiter limiter;
+    private CompletionBatcher completions;
+    private InFlightCommands inFlight;
+    private ContextInternal context;
+    private long startNanos;
+    private T value;
+    private Throwable failure;
+    private StageMetrics stages;
+    private long submitNanos;
+    private long sentNanos;
+    private long callbackNanos;
+
+    final void init(final Promise<T> promise,
+                    final EventLoop eventLoop,
+                    final CommandLimiter limiter,
+                    final CompletionBatcher completions,
+                    final InFlightCommands inFlight) {
+        this.promise = promise;
+        this.eventLoop = eventLoop;
+        this.limiter = limiter;
+        this.completions = completions;
+        this.inFlight = inFlight;
+        if (promise instanceof PromiseInternal<T> promiseInternal) {
+            final ContextInternal ctx = promiseInternal.context();
+            this.context = ctx != null && ctx.isEventLoopContext() ? ctx : null;
+        }
+    }
+
+    /**
+     * @return whether the promise belongs to a vert.x event loop context, only then the handoff to the caller
+     * can be timed
+     */
+    final boolean onEventLoopContext() {
+        return context != null;
+    }
+
+    /**
+     * Times the stages of this command, called at submission for the sampled commands.
+     */
+    final void time(final StageMetrics stages) {
+        this.stages = stages;
+        this.submitNanos = System.nanoTime();
+    }
+
+    /**
+     * Calls the aerospike client with {@link #eventLoop} and this command as the listener.
+     */
+    abstract void send();
+
+    @Override
+    public void run() {
+        startNanos = System.nanoTime();
+        if (stages != null && !eventLoop.inEventLoop()) {
+            // aerospike would queue the command to its event loop anyway, queue it here to see when it starts
+            eventLoop.execute(this::sendTimed);
+            return;
+        }
+        sentNanos = startNanos;
+        sendSafely();
+    }
+
+    private void sendTimed() {
+        sentNanos = System.nanoTime();
+        sendSafely();
+    }
+
+    private void sendSafely() {
+        try {
+            send();
+        } catch (RuntimeException e) {
+            // e.g. a null key, the command must still give back its limiter slot and in-flight count
+            fail(e);
+        }
+    }
+
+    @Override
+    public void reject(final Throwable cause) {
+        promise.fail(cause);
+        inFlight.release(eventLoop);
+    }
+
+    final void complete(final T value) {
+        callbackNanos = System.nanoTime();
+        limiter.release(eventLoop, callbackNanos - startNanos, false);
+        if (crossLoop()) {
+            this.value = value;
+            completions.submit(context.nettyEventLoop(), this);
+        } else {
+            record(callbackNanos);
+            promise.complete(value);
+            // after the promise, so a drain never completes before the result of its last command
+            inFlight.release(eventLoop);
+        }
+    }
+
+    final void fail(final Throwable cause) {
+        callbackNanos = System.nanoTime();
+        limiter.release(eventLoop, callbackNanos - startNanos, isDropped(cause));
+        if (crossLoop()) {
+            this.failure = cause;
+            completions.submit(context.nettyEventLoop(), this);
+        } else {
+            record(callbackNanos);
+            promise.fail(cause);
+            inFlight.release(eventLoop);
+        }
+    }
+
+    /**
+     * Completes the promise with the outcome stored by {@link #complete(Object)} or {@link #fail(Throwable)},
+     * called on the event loop of the caller's context.
+     */
+    final void deliver() {
+        if (stages != null) {
+            record(System.nanoTime());
+        }
+        if (failure != null) {
+            promise.fail(failure);
+        } else {
+            promise.complete(value);
+        }
+        inFlight.release(eventLoop);
+    }
+
+    /**
+     * @param handlerNanos when the handlers of the promise run: at the listener callback if the promise is completed
+     *                     inline, when the completion is delivered on the caller's event loop otherwise
+     */
+    private void record(final long handlerNanos) {
+        if (stages != null) {
+            stages.onCommand(eventLoop.getIndex(),
+                    startNanos - submitNanos,
+                    sentNanos - startNanos,
+                    callbackNanos - sentNanos,
+                    handlerNanos - callbackNanos);
+        }
+    }
+
+    /**
+     * On the caller's own event loop, e.g. with {@link dev.slesh.vertx.aerospike.eventloop.ContextEventLoop},
+     * vert.x completes a context promise inline, so only the completions on other threads are batched.
+     */
+    private boolean crossLoop() {
+        return context != null && !context.nettyEventLoop().inEventLoop();
+    }
+
+    private static boolean isDropped(final Throwable cause) {
+        if (!(cause instanceof AerospikeException exception)) {
+            return false;
+        }
+        return switch (exception.getResultCode()) {
+            case ResultCode.TIMEOUT, ResultCode.DEVICE_OVERLOAD, ResultCode.NO_MORE_CONNECTIONS -> true;
+            default -> false;
+        };
+    }
+
+    abstract static class Write extends Command<Key> implements WriteListener {
+        @Override
+        public void onSuccess(final Key key) {
+            complete(key);
+        }
+
+        @Override
+        public void onFailure(final AerospikeException exception) {
+            fail(exception);
+        }
+    }
+
+    abstract static class Delete extends Command<DeleteValue> implements DeleteListener {
+        @Override
+        public void onSuccess(final Key key, final boolean existed) {
+            complete(new DeleteValue(key, existed));
+        }
+
+        @Override
+        public void onFailure(final AerospikeException exception) {
+            fail(exception);
+        }
+    }
+
+    abstract static class Exists extends Command<Boolean> implements ExistsListener {
+        @Override
+        public void onSuccess(final Key key, final boolean exists) {
+            complete(exists);
+        }
+
+        @Override
+        public void onFailure(final AerospikeException exception) {
+            fail(exception);
+        }
+    }
+
+    abstract static class ExistsArray extends Command<ExistsArrayValue> implements ExistsArrayListener {
+        @Override
+        public void onSuccess(final Key[] keys, final boolean[] exists) {
+            complete(new ExistsArrayValue(keys, exists));
+        }
+
+        @Override
+        public void onFailure(final AerospikeException exception) {
+            fail(exception);
+        }
+    }
+
+    abstract static class Read extends Command<ReadValue> implements RecordListener {
+        @Override
+        public void onSuccess(final Key key, final Record record) {
+            complete(new ReadValue(key, record));
+        }
+
+        @Override
+        public void onFailure(final AerospikeException exception) {
+            fail(exception);
+        }
+    }
+
+    abstract static class ReadArray extends Command<RecordArrayValue> implements RecordArrayListener {
+        @Override
+        public void onSuccess(final Key[] keys, final Record[] records) {
+            complete(new RecordArrayValue(keys, records));
+        }
+
+        @Override
+        public void onFailure(final AerospikeException exception) {
+            fail(exception);
+        }
+    }
+
+    abstract static class ReadList extends Command<List<BatchRead>> implements BatchListListener {
+        @Override
+        public void onSuccess(final List<BatchRead> records) {
+            complete(records);
+        }
+
+        @Override
+        public void onFailure(final AerospikeException exception) {
+            fail(exception);
+        }
+    }
+
+    abstract static class OperateList extends Command<BatchOperateListValue> implements BatchOperateListListener {
+        @Override
+        public void onSuccess(final List<BatchRecord> records, final boolean status) {
+            complete(new BatchOperateListValue(records, status));
+        }
+
+        @Override
+        public void onFailure(final AerospikeException exception) {
+            fail(exception);
+        }
+    }
+
+    abstract static class BatchRecordArray extends Command<BatchRecordArrayValue> implements BatchRecordArrayListener {
+        @Override
+        public void onSuccess(final BatchRecord[] records, final boolean status) {
+            complete(new BatchRecordArrayValue(records, status));
+        }
+
+        @Override
+        public void onFailure(final BatchRecord[] records, final AerospikeException exception) {
+            fail(exception);
+        }
+    }
+
+    abstract static class Execute extends Command<ExecuteValue> implements ExecuteListener {
+        @Override
+        public void onSuccess(final Key key, final Object obj) {
+            complete(new ExecuteValue(key, obj));
+        }
+
+        @Override
+        public void onFailure(final AerospikeException exception) {
+            fail(exception);
+        }
+    }
+
+    abstract static class Index extends Command<AsyncIndexTask> implements IndexListener {
+        @Override
+        public void onSuccess(final AsyncIndexTask indexTask) {
+            complete(indexTask);
+        }
+
+        @Override
+        public void onFailure(final AerospikeException exception) {
+            fail(exception);
+        }
+    }
+
+    abstract static class Info extends Command<Map<String, String>> implements InfoListener {
+        @Override
+        public void onSuccess(final Map<String, String> map) {
+            complete(map);
+        }
+
+        @Override
+        public void onFailure(final AerospikeException exception) {
+            fail(exception);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package dev.slesh.vertx.aerospike.client;
+
+/**
+ * Kinds of commands issued by {@link AsyncAerospikeClient}.
+ */
+public enum CommandType {
+    PUT,
+    APPEND,
+    PREPEND,
+    ADD,
+    DELETE,
+    BATCH_DELETE,
+    TOUCH,
+    EXISTS,
+    BATCH_EXISTS,
+    GET,
+    GET_HEADER,
+    BATCH_GET,
+    BATCH_GET_HEADER,
+    OPERATE,
+    BATCH_OPERATE,
+    EXECUTE,
+    BATCH_EXECUTE,
+    CREATE_INDEX,
+    DROP_INDEX,
+    INFO;
+
+    public boolean isBatch() {
+        return switch (this) {
+            case BATCH_DELETE, BATCH_EXISTS, BATCH_GET, BATCH_GET_HEADER, BATCH_OPERATE, BATCH_EXECUTE -> true;
+            default -> false;
+        };
+    }
+}
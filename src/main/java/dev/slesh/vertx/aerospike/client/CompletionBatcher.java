@@ -0,0 +1,60 @@
+package dev.slesh.vertx.aerospike.client;
+
+import io.netty.channel.EventLoop;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands completed commands over to the vert.x event loops of their callers.
+ * <p>
+ * Completing a context promise from another thread submits a task to the event loop of the context for every
+ * command. Instead, the commands are queued per event loop and one task completes all the commands which were
+ * queued until it runs, so under load many completions share one wake-up of the event loop. A task completes only the
+ * commands queued before it started, so other loops refilling the queue can't hold the event loop and starve its I/O.
+ */
+final class CompletionBatcher {
+    private final Map<EventLoop, Completions> completions = new ConcurrentHashMap<>();
+
+    void submit(final EventLoop eventLoop, final Command<?> command) {
+        Completions queue = completions.get(eventLoop);
+        if (queue == null) {
+            queue = completions.computeIfAbsent(eventLoop, Completions::new);
+        }
+        queue.add(command);
+    }
+
+    private static final class Completions implements Runnable {
+        private final EventLoop eventLoop;
+        private final Queue<Command<?>> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private Completions(final EventLoop eventLoop) {
+            this.eventLoop = eventLoop;
+        }
+
+        void add(final Command<?> command) {
+            queue.add(command);
+            size.incrementAndGet();
+            if (scheduled.compareAndSet(false, true)) {
+                eventLoop.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            // reset before draining, a command queued from now on schedules the next run
+            scheduled.set(false);
+            final int batch = size.get();
+            for (int i = 0; i < batch; i++) {
+                size.decrementAndGet();
+                queue.poll().deliver();
+            }
+        }
+    }
+}
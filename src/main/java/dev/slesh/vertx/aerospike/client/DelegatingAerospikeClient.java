@@ -0,0 +1,215 @@
+package dev.slesh.vertx.aerospike.client;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.BatchRead;
+import com.aerospike.client.BatchRecord;
+import com.aerospike.client.Bin;
+import com.aerospike.client.IAerospikeClient;
+import com.aerospike.client.Key;
+import com.aerospike.client.Operation;
+import com.aerospike.client.Value;
+import com.aerospike.client.async.AsyncIndexTask;
+import com.aerospike.client.cluster.Node;
+import com.aerospike.client.policy.BatchDeletePolicy;
+import com.aerospike.client.policy.BatchPolicy;
+import com.aerospike.client.policy.BatchUDFPolicy;
+import com.aerospike.client.policy.BatchWritePolicy;
+import com.aerospike.client.policy.InfoPolicy;
+import com.aerospike.client.policy.Policy;
+import com.aerospike.client.policy.QueryPolicy;
+import com.aerospike.client.policy.ScanPolicy;
+import com.aerospike.client.policy.WritePolicy;
+import com.aerospike.client.query.IndexCollectionType;
+import com.aerospike.client.query.IndexType;
+import com.aerospike.client.query.KeyRecord;
+import com.aerospike.client.query.Statement;
+import dev.slesh.vertx.aerospike.client.result.BatchOperateListValue;
+import dev.slesh.vertx.aerospike.client.result.BatchRecordArrayValue;
+import dev.slesh.vertx.aerospike.client.result.DeleteValue;
+import dev.slesh.vertx.aerospike.client.result.ExecuteValue;
+import dev.slesh.vertx.aerospike.client.result.ExistsArrayValue;
+import dev.slesh.vertx.aerospike.client.result.ReadValue;
+import dev.slesh.vertx.aerospike.client.result.RecordArrayValue;
+import io.vertx.core.Future;
+import io.vertx.core.streams.ReadStream;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Base class for decorators of {@link AsyncAerospikeClient}.
+ * Forwards every call to the wrapped client so subclasses override only the operations they are interested in.
+ */
+public abstract class DelegatingAerospikeClient implements AsyncAerospikeClient {
+    protected final AsyncAerospikeClient client;
+
+    protected DelegatingAerospikeClient(final AsyncAerospikeClient client) {
+        this.client = Objects.requireNonNull(client, "client");
+    }
+
+    @Override
+    public IAerospikeClient delegate() {
+        return client.delegate();
+    }
+
+    @Override
+    public Future<Void> drain() {
+        return client.drain();
+    }
+
+    @Override
+    public Future<Key> put(WritePolicy policy, Key key, Bin... bins) throws AerospikeException {
+        return client.put(policy, key, bins);
+    }
+
+    @Override
+    public Future<Key> append(WritePolicy policy, Key key, Bin... bins) throws AerospikeException {
+        return client.append(policy, key, bins);
+    }
+
+    @Override
+    public Future<Key> prepend(WritePolicy policy, Key key, Bin... bins) throws AerospikeException {
+        return client.prepend(policy, key, bins);
+    }
+
+    @Override
+    public Future<Key> add(WritePolicy policy, Key key, Bin... bins) throws AerospikeException {
+        return client.add(policy, key, bins);
+    }
+
+    @Override
+    public Future<DeleteValue> delete(WritePolicy policy, Key key) throws AerospikeException {
+        return client.delete(policy, key);
+    }
+
+    @Override
+    public Future<BatchRecordArrayValue> delete(BatchPolicy batchPolicy, BatchDeletePolicy deletePolicy, Key[] keys) throws AerospikeException {
+        return client.delete(batchPolicy, deletePolicy, keys);
+    }
+
+    @Override
+    public Future<Key> touch(WritePolicy policy, Key key) throws AerospikeException {
+        return client.touch(policy, key);
+    }
+
+    @Override
+    public Future<Boolean> exists(Policy policy, Key key) throws AerospikeException {
+        return client.exists(policy, key);
+    }
+
+    @Override
+    public Future<ExistsArrayValue> exists(BatchPolicy policy, Key[] keys) throws AerospikeException {
+        return client.exists(policy, keys);
+    }
+
+    @Override
+    public Future<ReadValue> get(Policy policy, Key key) throws AerospikeException {
+        return client.get(policy, key);
+    }
+
+    @Override
+    public Future<ReadValue> get(Policy policy, Key key, String... binNames) throws AerospikeException {
+        return client.get(policy, key, binNames);
+    }
+
+    @Override
+    public Future<ReadValue> getHeader(Policy policy, Key key) throws AerospikeException {
+        return client.getHeader(policy, key);
+    }
+
+    @Override
+    public Future<List<BatchRead>> get(BatchPolicy policy, List<BatchRead> records) throws AerospikeException {
+        return client.get(policy, records);
+    }
+
+    @Override
+    public Future<RecordArrayValue> get(BatchPolicy policy, Key[] keys) throws AerospikeException {
+        return client.get(policy, keys);
+    }
+
+    @Override
+    public Future<RecordArrayValue> get(BatchPolicy policy, Key[] keys, String... binNames) throws AerospikeException {
+        return client.get(policy, keys, binNames);
+    }
+
+    @Override
+    public Future<RecordArrayValue> get(BatchPolicy policy, Key[] keys, Operation... ops) throws AerospikeException {
+        return client.get(policy, keys, ops);
+    }
+
+    @Override
+    public Future<RecordArrayValue> getHeader(BatchPolicy policy, Key[] keys) throws AerospikeException {
+        return client.getHeader(policy, keys);
+    }
+
+    @Override
+    public Future<ReadValue> operate(WritePolicy policy, Key key, Operation... operations) throws AerospikeException {
+        return client.operate(policy, key, operations);
+    }
+
+    @Override
+    public Future<BatchOperateListValue> operate(BatchPolicy policy, List<BatchRecord> records) throws AerospikeException {
+        return client.operate(policy, records);
+    }
+
+    @Override
+    public Future<BatchRecordArrayValue> operate(BatchPolicy batchPolicy, BatchWritePolicy writePolicy, Key[] keys, Operation... ops) throws AerospikeException {
+        return client.operate(batchPolicy, writePolicy, keys, ops);
+    }
+
+    @Override
+    public Future<ExecuteValue> execute(WritePolicy policy, Key key, String packageName, String functionName, Value... args) throws AerospikeException {
+        return client.execute(policy, key, packageName, functionName, args);
+    }
+
+    @Override
+    public Future<BatchRecordArrayValue> execute(BatchPolicy batchPolicy, BatchUDFPolicy udfPolicy, Key[] keys, String packageName, String functionName, Value... args) throws AerospikeException {
+        return client.execute(batchPolicy, udfPolicy, keys, packageName, functionName, args);
+    }
+
+    @Override
+    public ReadStream<KeyRecord> queryStream(QueryPolicy policy, Statement statement) throws AerospikeException {
+        return client.queryStream(policy, statement);
+    }
+
+    @Override
+    public ReadStream<KeyRecord> scanStream(ScanPolicy policy, String namespace, String setName, String... binNames) throws AerospikeException {
+        return client.scanStream(policy, namespace, setName, binNames);
+    }
+
+    @Override
+    public ReadStream<KeyRecord> getStream(BatchPolicy policy, Key[] keys) throws AerospikeException {
+        return client.getStream(policy, keys);
+    }
+
+    @Override
+    public ReadStream<KeyRecord> getStream(BatchPolicy policy, Key[] keys, String... binNames) throws AerospikeException {
+        return client.getStream(policy, keys, binNames);
+    }
+
+    @Override
+    public ReadStream<BatchRead> getStream(BatchPolicy policy, List<BatchRead> records) throws AerospikeException {
+        return client.getStream(policy, records);
+    }
+
+    @Override
+    public ReadStream<BatchRecord> operateStream(BatchPolicy policy, List<BatchRecord> records) throws AerospikeException {
+        return client.operateStream(policy, records);
+    }
+
+    @Override
+    public Future<AsyncIndexTask> createIndex(Policy policy, String namespace, String setName, String indexName, String binName, IndexType indexType, IndexCollectionType indexCollectionType) throws AerospikeException {
+        return client.createIndex(policy, namespace, setName, indexName, binName, indexType, indexCollectionType);
+    }
+
+    @Override
+    public Future<AsyncIndexTask> dropIndex(Policy policy, String namespace, String setName, String indexName) throws AerospikeException {
+        return client.dropIndex(policy, namespace, setName, indexName);
+    }
+
+    @Override
+    public Future<Map<String, String>> info(InfoPolicy policy, Node node, String... commands) throws AerospikeException {
+        return client.info(policy, node, commands);
+    }
+}
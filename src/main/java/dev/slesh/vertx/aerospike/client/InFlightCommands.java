@@ -0,0 +1,70 @@
+package dev.slesh.vertx.aerospike.client;
+
+import com.aerospike.client.async.EventLoop;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts the commands in flight per aerospike event loop and tells when they are drained.
+ * <p>
+ * A command is counted before the draining flag is checked, and the flag is set before the counts are checked,
+ * so either the command sees the flag and gives up or the drain sees the command and waits for it.
+ * A command is released only after the promise of its caller is completed, so the drain completes after
+ * the results of all the drained commands.
+ */
+final class InFlightCommands {
+    private final AtomicLongArray counts;
+    private final Promise<Void> drained = Promise.promise();
+    private volatile boolean draining;
+
+    /**
+     * @param eventLoops {@code 0} if unknown, all the commands are counted together then
+     */
+    InFlightCommands(final int eventLoops) {
+        this.counts = new AtomicLongArray(Math.max(1, eventLoops));
+    }
+
+    /**
+     * @return {@code false} if the client is draining and the command must not be sent
+     */
+    boolean acquire(final EventLoop eventLoop) {
+        counts.incrementAndGet(slot(eventLoop.getIndex()));
+        if (draining) {
+            release(eventLoop);
+            return false;
+        }
+        return true;
+    }
+
+    void release(final EventLoop eventLoop) {
+        if (counts.decrementAndGet(slot(eventLoop.getIndex())) == 0 && draining && total() == 0) {
+            drained.tryComplete();
+        }
+    }
+
+    Future<Void> drain() {
+        draining = true;
+        if (total() == 0) {
+            drained.tryComplete();
+        }
+        return drained.future();
+    }
+
+    long count(final int eventLoopIndex) {
+        return counts.get(slot(eventLoopIndex));
+    }
+
+    private int slot(final int eventLoopIndex) {
+        return counts.length() == 1 ? 0 : eventLoopIndex;
+    }
+
+    private long total() {
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+}
@@ -7,31 +7,25 @@ import com.aerospike.client.Bin;
 import com.aerospike.client.IAerospikeClient;
 import com.aerospike.client.Key;
 import com.aerospike.client.Operation;
-import com.aerospike.client.Record;
 import com.aerospike.client.Value;
 import com.aerospike.client.async.AsyncIndexTask;
+import com.aerospike.client.async.EventLoop;
+import com.aerospike.client.cluster.Cluster;
 import com.aerospike.client.cluster.Node;
-import com.aerospike.client.listener.BatchListListener;
-import com.aerospike.client.listener.BatchOperateListListener;
-import com.aerospike.client.listener.BatchRecordArrayListener;
-import com.aerospike.client.listener.DeleteListener;
-import com.aerospike.client.listener.ExecuteListener;
-import com.aerospike.client.listener.ExistsArrayListener;
-import com.aerospike.client.listener.ExistsListener;
-import com.aerospike.client.listener.IndexListener;
-import com.aerospike.client.listener.InfoListener;
-import com.aerospike.client.listener.RecordArrayListener;
-import com.aerospike.client.listener.RecordListener;
-import com.aerospike.client.listener.WriteListener;
 import com.aerospike.client.policy.BatchDeletePolicy;
 import com.aerospike.client.policy.BatchPolicy;
 import com.aerospike.client.policy.BatchUDFPolicy;
 import com.aerospike.client.policy.BatchWritePolicy;
 import com.aerospike.client.policy.InfoPolicy;
 import com.aerospike.client.policy.Policy;
+import com.aerospike.client.policy.QueryPolicy;
+import com.aerospike.client.policy.ScanPolicy;
 import com.aerospike.client.policy.WritePolicy;
 import com.aerospike.client.query.IndexCollectionType;
 import com.aerospike.client.query.IndexType;
+import com.aerospike.client.query.KeyRecord;
+import com.aerospike.client.query.PartitionFilter;
+import com.aerospike.client.query.Statement;
 import dev.slesh.vertx.aerospike.client.result.BatchOperateListValue;
 import dev.slesh.vertx.aerospike.client.result.BatchRecordArrayValue;
 import dev.slesh.vertx.aerospike.client.result.DeleteValue;
@@ -39,10 +33,17 @@ import dev.slesh.vertx.aerospike.client.result.ExecuteValue;
 import dev.slesh.vertx.aerospike.client.result.ExistsArrayValue;
 import dev.slesh.vertx.aerospike.client.result.ReadValue;
 import dev.slesh.vertx.aerospike.client.result.RecordArrayValue;
+import dev.slesh.vertx.aerospike.client.stream.BatchQuery;
+import dev.slesh.vertx.aerospike.client.stream.BatchStream;
+import dev.slesh.vertx.aerospike.client.stream.PageQuery;
+import dev.slesh.vertx.aerospike.client.stream.RecordStream;
 import dev.slesh.vertx.aerospike.eventloop.EventLoopSelector;
 import dev.slesh.vertx.aerospike.future.PromiseSelector;
+import dev.slesh.vertx.aerospike.limiter.CommandLimiter;
+import dev.slesh.vertx.aerospike.metrics.StageMetrics;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
+import io.vertx.core.streams.ReadStream;
 
 import java.util.List;
 import java.util.Map;
@@ -52,13 +53,43 @@ public class VertxAerospikeClient implements AsyncAerospikeClient {
     private final IAerospikeClient delegate;
     private final EventLoopSelector eventLoopSelector;
     private final PromiseSelector promiseFactory;
+    private final CommandLimiter limiter;
+    private final StageMetrics stages;
+    private final CompletionBatcher completions = new CompletionBatcher();
+    private final InFlightCommands inFlight;
 
     public VertxAerospikeClient(final IAerospikeClient delegate,
                                 final EventLoopSelector eventLoopSelector,
                                 final PromiseSelector promiseSelector) {
+        this(delegate, eventLoopSelector, promiseSelector, CommandLimiter.UNLIMITED);
+    }
+
+    /**
+     * @param limiter caps commands in process per aerospike event loop, see
+     *                {@link dev.slesh.vertx.aerospike.limiter.EventLoopLimiter}
+     */
+    public VertxAerospikeClient(final IAerospikeClient delegate,
+                                final EventLoopSelector eventLoopSelector,
+                                final PromiseSelector promiseSelector,
+                                final CommandLimiter limiter) {
+        this(delegate, eventLoopSelector, promiseSelector, limiter, StageMetrics.NOOP);
+    }
+
+    /**
+     * @param stages times the stages of the sampled commands, see
+     *               {@link dev.slesh.vertx.aerospike.metrics.StageHistograms}
+     */
+    public VertxAerospikeClient(final IAerospikeClient delegate,
+                                final EventLoopSelector eventLoopSelector,
+                                final PromiseSelector promiseSelector,
+                                final CommandLimiter limiter,
+                                final StageMetrics stages) {
         this.delegate = Objects.requireNonNull(delegate, "delegate");
         this.eventLoopSelector = Objects.requireNonNull(eventLoopSelector, "eventLoopSelector");
         this.promiseFactory = Objects.requireNonNull(promiseSelector, "promiseFactory");
+        this.limiter = Objects.requireNonNull(limiter, "limiter");
+        this.stages = Objects.requireNonNull(stages, "stages");
+        this.inFlight = new InFlightCommands(eventLoops(delegate));
     }
 
     @Override
@@ -66,318 +97,334 @@ public class VertxAerospikeClient implements AsyncAerospikeClient {
         return delegate;
     }
 
+    /**
+     * Streams read pages straight from the aerospike client, so they are not drained.
+     */
+    @Override
+    public Future<Void> drain() {
+        final Promise<Void> promise = promiseFactory.select();
+        inFlight.drain().onComplete(promise);
+        return promise.future();
+    }
+
+    /**
+     * @return commands sent to the aerospike event loop whose promises are not completed yet
+     */
+    public long inFlight(final int eventLoopIndex) {
+        return inFlight.count(eventLoopIndex);
+    }
+
     @Override
     public Future<Key> put(WritePolicy policy, Key key, Bin... bins) throws AerospikeException {
-        final Promise<Key> future = promiseFactory.select();
-        delegate.put(eventLoopSelector.select(), toWriteListener(future), policy, key, bins);
-        return future.future();
+        return submit(new Command.Write() {
+            @Override
+            void send() {
+                delegate.put(eventLoop, this, policy, key, bins);
+            }
+        }, key);
     }
 
     @Override
     public Future<Key> append(WritePolicy policy, Key key, Bin... bins) throws AerospikeException {
-        final Promise<Key> promise = promiseFactory.select();
-        delegate.append(eventLoopSelector.select(), toWriteListener(promise), policy, key, bins);
-        return promise.future();
+        return submit(new Command.Write() {
+            @Override
+            void send() {
+                delegate.append(eventLoop, this, policy, key, bins);
+            }
+        }, key);
     }
 
     @Override
     public Future<Key> prepend(WritePolicy policy, Key key, Bin... bins) throws AerospikeException {
-        final Promise<Key> promise = promiseFactory.select();
-        delegate.prepend(eventLoopSelector.select(), toWriteListener(promise), policy, key, bins);
-        return promise.future();
+        return submit(new Command.Write() {
+            @Override
+            void send() {
+                delegate.prepend(eventLoop, this, policy, key, bins);
+            }
+        }, key);
     }
 
     @Override
     public Future<Key> add(WritePolicy policy, Key key, Bin... bins) throws AerospikeException {
-        final Promise<Key> promise = promiseFactory.select();
-        delegate.add(eventLoopSelector.select(), toWriteListener(promise), policy, key, bins);
-        return promise.future();
+        return submit(new Command.Write() {
+            @Override
+            void send() {
+                delegate.add(eventLoop, this, policy, key, bins);
+            }
+        }, key);
     }
 
     @Override
     public Future<DeleteValue> delete(WritePolicy policy, Key key) throws AerospikeException {
-        final Promise<DeleteValue> promise = promiseFactory.select();
-        delegate.delete(eventLoopSelector.select(), new DeleteListener() {
-            @Override
-            public void onSuccess(Key key1, boolean existed) {
-                promise.complete(new DeleteValue(key1, existed));
-            }
-
+        return submit(new Command.Delete() {
             @Override
-            public void onFailure(AerospikeException exception) {
-                promise.fail(exception);
+            void send() {
+                delegate.delete(eventLoop, this, policy, key);
             }
-        }, policy, key);
-        return promise.future();
+        }, key);
     }
 
     @Override
     public Future<BatchRecordArrayValue> delete(BatchPolicy batchPolicy, BatchDeletePolicy deletePolicy, Key[] keys) throws AerospikeException {
-        final Promise<BatchRecordArrayValue> promise = promiseFactory.select();
-        delegate.delete(eventLoopSelector.select(), toBatchRecordArrayListener(promise), batchPolicy, deletePolicy, keys);
-        return promise.future();
+        return submit(new Command.BatchRecordArray() {
+            @Override
+            void send() {
+                delegate.delete(eventLoop, this, batchPolicy, deletePolicy, keys);
+            }
+        });
     }
 
     @Override
     public Future<Key> touch(WritePolicy policy, Key key) throws AerospikeException {
-        final Promise<Key> promise = promiseFactory.select();
-        delegate.touch(eventLoopSelector.select(), toWriteListener(promise), policy, key);
-        return promise.future();
+        return submit(new Command.Write() {
+            @Override
+            void send() {
+                delegate.touch(eventLoop, this, policy, key);
+            }
+        }, key);
     }
 
     @Override
     public Future<Boolean> exists(Policy policy, Key key) throws AerospikeException {
-        final Promise<Boolean> promise = promiseFactory.select();
-        delegate.exists(eventLoopSelector.select(), new ExistsListener() {
+        return submit(new Command.Exists() {
             @Override
-            public void onSuccess(Key key, boolean exists) {
-                promise.complete(exists);
+            void send() {
+                delegate.exists(eventLoop, this, policy, key);
             }
-
-            @Override
-            public void onFailure(AerospikeException exception) {
-                promise.fail(exception);
-            }
-        }, policy, key);
-        return promise.future();
+        }, key);
     }
 
     @Override
     public Future<ExistsArrayValue> exists(BatchPolicy policy, Key[] keys) throws AerospikeException {
-        final Promise<ExistsArrayValue> promise = promiseFactory.select();
-        delegate.exists(eventLoopSelector.select(), new ExistsArrayListener() {
+        return submit(new Command.ExistsArray() {
             @Override
-            public void onSuccess(Key[] keys, boolean[] exists) {
-                promise.complete(new ExistsArrayValue(keys, exists));
+            void send() {
+                delegate.exists(eventLoop, this, policy, keys);
             }
-
-            @Override
-            public void onFailure(AerospikeException ae) {
-                promise.fail(ae);
-            }
-        }, policy, keys);
-        return promise.future();
+        });
     }
 
     @Override
     public Future<ReadValue> get(Policy policy, Key key) throws AerospikeException {
-        final Promise<ReadValue> promise = promiseFactory.select();
-        delegate.get(eventLoopSelector.select(), toRecordListener(promise), policy, key);
-        return promise.future();
+        return submit(new Command.Read() {
+            @Override
+            void send() {
+                delegate.get(eventLoop, this, policy, key);
+            }
+        }, key);
     }
 
     @Override
     public Future<ReadValue> get(Policy policy, Key key, String... binNames) throws AerospikeException {
-        final Promise<ReadValue> promise = promiseFactory.select();
-        delegate.get(eventLoopSelector.select(), toRecordListener(promise), policy, key, binNames);
-        return promise.future();
+        return submit(new Command.Read() {
+            @Override
+            void send() {
+                delegate.get(eventLoop, this, policy, key, binNames);
+            }
+        }, key);
     }
 
     @Override
     public Future<ReadValue> getHeader(Policy policy, Key key) throws AerospikeException {
-        final Promise<ReadValue> promise = promiseFactory.select();
-        delegate.getHeader(eventLoopSelector.select(), toRecordListener(promise), policy, key);
-        return promise.future();
+        return submit(new Command.Read() {
+            @Override
+            void send() {
+                delegate.getHeader(eventLoop, this, policy, key);
+            }
+        }, key);
     }
 
     @Override
     public Future<List<BatchRead>> get(BatchPolicy policy, List<BatchRead> records) throws AerospikeException {
-        final Promise<List<BatchRead>> promise = promiseFactory.select();
-        delegate.get(eventLoopSelector.select(), new BatchListListener() {
-            @Override
-            public void onSuccess(List<BatchRead> records) {
-                promise.complete(records);
-            }
-
+        return submit(new Command.ReadList() {
             @Override
-            public void onFailure(AerospikeException ae) {
-                promise.fail(ae);
+            void send() {
+                delegate.get(eventLoop, this, policy, records);
             }
-        }, policy, records);
-        return promise.future();
+        });
     }
 
     @Override
     public Future<RecordArrayValue> get(BatchPolicy policy, Key[] keys) throws AerospikeException {
-        final Promise<RecordArrayValue> promise = promiseFactory.select();
-        delegate.get(eventLoopSelector.select(), toRecordArrayListener(promise), policy, keys);
-        return promise.future();
+        return submit(new Command.ReadArray() {
+            @Override
+            void send() {
+                delegate.get(eventLoop, this, policy, keys);
+            }
+        });
     }
 
     @Override
     public Future<RecordArrayValue> get(BatchPolicy policy, Key[] keys, String... binNames) throws AerospikeException {
-        final Promise<RecordArrayValue> promise = promiseFactory.select();
-        delegate.get(eventLoopSelector.select(), toRecordArrayListener(promise), policy, keys, binNames);
-        return promise.future();
+        return submit(new Command.ReadArray() {
+            @Override
+            void send() {
+                delegate.get(eventLoop, this, policy, keys, binNames);
+            }
+        });
     }
 
     @Override
     public Future<RecordArrayValue> get(BatchPolicy policy, Key[] keys, Operation... ops) throws AerospikeException {
-        final Promise<RecordArrayValue> promise = promiseFactory.select();
-        delegate.get(eventLoopSelector.select(), toRecordArrayListener(promise), policy, keys, ops);
-        return promise.future();
+        return submit(new Command.ReadArray() {
+            @Override
+            void send() {
+                delegate.get(eventLoop, this, policy, keys, ops);
+            }
+        });
     }
 
     @Override
     public Future<RecordArrayValue> getHeader(BatchPolicy policy, Key[] keys) throws AerospikeException {
-        final Promise<RecordArrayValue> promise = promiseFactory.select();
-        delegate.getHeader(eventLoopSelector.select(), toRecordArrayListener(promise), policy, keys);
-        return promise.future();
+        return submit(new Command.ReadArray() {
+            @Override
+            void send() {
+                delegate.getHeader(eventLoop, this, policy, keys);
+            }
+        });
     }
 
     @Override
     public Future<ReadValue> operate(WritePolicy policy, Key key, Operation... operations) throws AerospikeException {
-        final Promise<ReadValue> promise = promiseFactory.select();
-        delegate.operate(eventLoopSelector.select(), toRecordListener(promise), policy, key, operations);
-        return promise.future();
+        return submit(new Command.Read() {
+            @Override
+            void send() {
+                delegate.operate(eventLoop, this, policy, key, operations);
+            }
+        }, key);
     }
 
     @Override
     public Future<BatchOperateListValue> operate(BatchPolicy policy, List<BatchRecord> records) throws AerospikeException {
-        final Promise<BatchOperateListValue> promise = promiseFactory.select();
-        delegate.operate(eventLoopSelector.select(), new BatchOperateListListener() {
-            @Override
-            public void onSuccess(List<BatchRecord> records, boolean status) {
-                promise.complete(new BatchOperateListValue(records, status));
-            }
-
+        return submit(new Command.OperateList() {
             @Override
-            public void onFailure(AerospikeException ae) {
-                promise.fail(ae);
+            void send() {
+                delegate.operate(eventLoop, this, policy, records);
             }
-        }, policy, records);
-        return promise.future();
+        });
     }
 
     @Override
     public Future<BatchRecordArrayValue> operate(BatchPolicy batchPolicy, BatchWritePolicy writePolicy, Key[] keys, Operation... ops) throws AerospikeException {
-        final Promise<BatchRecordArrayValue> promise = promiseFactory.select();
-        delegate.operate(eventLoopSelector.select(), toBatchRecordArrayListener(promise), batchPolicy, writePolicy, keys, ops);
-        return promise.future();
+        return submit(new Command.BatchRecordArray() {
+            @Override
+            void send() {
+                delegate.operate(eventLoop, this, batchPolicy, writePolicy, keys, ops);
+            }
+        });
     }
 
     @Override
     public Future<ExecuteValue> execute(WritePolicy policy, Key key, String packageName, String functionName, Value... args) throws AerospikeException {
-        final Promise<ExecuteValue> promise = promiseFactory.select();
-        delegate.execute(eventLoopSelector.select(), new ExecuteListener() {
+        return submit(new Command.Execute() {
             @Override
-            public void onSuccess(Key key, Object obj) {
-                promise.complete(new ExecuteValue(key, obj));
+            void send() {
+                delegate.execute(eventLoop, this, policy, key, packageName, functionName, args);
             }
+        }, key);
+    }
 
+    @Override
+    public Future<BatchRecordArrayValue> execute(BatchPolicy batchPolicy, BatchUDFPolicy udfPolicy, Key[] keys, String packageName, String functionName, Value... args) throws AerospikeException {
+        return submit(new Command.BatchRecordArray() {
             @Override
-            public void onFailure(AerospikeException exception) {
-                promise.fail(exception);
+            void send() {
+                delegate.execute(eventLoop, this, batchPolicy, udfPolicy, keys, packageName, functionName, args);
             }
-        }, policy, key, packageName, functionName, args);
-        return promise.future();
+        });
     }
 
     @Override
-    public Future<BatchRecordArrayValue> execute(BatchPolicy batchPolicy, BatchUDFPolicy udfPolicy, Key[] keys, String packageName, String functionName, Value... args) throws AerospikeException {
-        final Promise<BatchRecordArrayValue> promise = promiseFactory.select();
-        delegate.execute(eventLoopSelector.select(), toBatchRecordArrayListener(promise), batchPolicy, udfPolicy, keys, packageName, functionName, args);
-        return promise.future();
+    public ReadStream<KeyRecord> queryStream(QueryPolicy policy, Statement statement) throws AerospikeException {
+        return new RecordStream(eventLoopSelector, PageQuery.query(delegate, policy, statement),
+                PartitionFilter.all(), statement.getMaxRecords(), RecordStream.DEFAULT_PAGE_SIZE);
     }
 
     @Override
-    public Future<AsyncIndexTask> createIndex(Policy policy, String namespace, String setName, String indexName, String binName, IndexType indexType, IndexCollectionType indexCollectionType) throws AerospikeException {
-        final Promise<AsyncIndexTask> promise = promiseFactory.select();
-        delegate.createIndex(eventLoopSelector.select(), toIndexListener(promise), policy, namespace, setName, indexName, binName, indexType, indexCollectionType);
-        return promise.future();
+    public ReadStream<KeyRecord> scanStream(ScanPolicy policy, String namespace, String setName, String... binNames) throws AerospikeException {
+        return new RecordStream(eventLoopSelector, PageQuery.scan(delegate, policy, namespace, setName, binNames),
+                PartitionFilter.all(), policy != null ? policy.maxRecords : delegate.getScanPolicyDefault().maxRecords,
+                RecordStream.DEFAULT_PAGE_SIZE);
     }
 
     @Override
-    public Future<AsyncIndexTask> dropIndex(Policy policy, String namespace, String setName, String indexName) throws AerospikeException {
-        final Promise<AsyncIndexTask> promise = promiseFactory.select();
-        delegate.dropIndex(eventLoopSelector.select(), toIndexListener(promise), policy, namespace, setName, indexName);
-        return promise.future();
+    public ReadStream<KeyRecord> getStream(BatchPolicy policy, Key[] keys) throws AerospikeException {
+        return new BatchStream<>(eventLoopSelector, BatchQuery.get(delegate, policy, keys),
+                keys.length, BatchStream.DEFAULT_CHUNK_SIZE);
     }
 
     @Override
-    public Future<Map<String, String>> info(InfoPolicy policy, Node node, String... commands) throws AerospikeException {
-        final Promise<Map<String, String>> promise = promiseFactory.select();
-        delegate.info(eventLoopSelector.select(), new InfoListener() {
-            @Override
-            public void onSuccess(Map<String, String> map) {
-                promise.complete(map);
-            }
-
-            @Override
-            public void onFailure(AerospikeException exception) {
-                promise.fail(exception);
-            }
-        }, policy, node, commands);
-        return promise.future();
+    public ReadStream<KeyRecord> getStream(BatchPolicy policy, Key[] keys, String... binNames) throws AerospikeException {
+        return new BatchStream<>(eventLoopSelector, BatchQuery.get(delegate, policy, keys, binNames),
+                keys.length, BatchStream.DEFAULT_CHUNK_SIZE);
     }
 
-    private static WriteListener toWriteListener(final Promise<Key> future) {
-        return new WriteListener() {
-            @Override
-            public void onSuccess(Key key) {
-                future.complete(key);
-            }
-
-            @Override
-            public void onFailure(AerospikeException exception) {
-                future.fail(exception);
-            }
-        };
+    @Override
+    public ReadStream<BatchRead> getStream(BatchPolicy policy, List<BatchRead> records) throws AerospikeException {
+        return new BatchStream<>(eventLoopSelector, BatchQuery.get(delegate, policy, records),
+                records.size(), BatchStream.DEFAULT_CHUNK_SIZE);
     }
 
-    private static RecordListener toRecordListener(final Promise<ReadValue> promise) {
-        return new RecordListener() {
-            @Override
-            public void onSuccess(Key key, Record record) {
-                promise.complete(new ReadValue(key, record));
-            }
+    @Override
+    public ReadStream<BatchRecord> operateStream(BatchPolicy policy, List<BatchRecord> records) throws AerospikeException {
+        return new BatchStream<>(eventLoopSelector, BatchQuery.operate(delegate, policy, records),
+                records.size(), BatchStream.DEFAULT_CHUNK_SIZE);
+    }
 
+    @Override
+    public Future<AsyncIndexTask> createIndex(Policy policy, String namespace, String setName, String indexName, String binName, IndexType indexType, IndexCollectionType indexCollectionType) throws AerospikeException {
+        return submit(new Command.Index() {
             @Override
-            public void onFailure(AerospikeException exception) {
-                promise.fail(exception);
+            void send() {
+                delegate.createIndex(eventLoop, this, policy, namespace, setName, indexName, binName, indexType, indexCollectionType);
             }
-        };
+        });
     }
 
-    private static RecordArrayListener toRecordArrayListener(final Promise<RecordArrayValue> promise) {
-        return new RecordArrayListener() {
+    @Override
+    public Future<AsyncIndexTask> dropIndex(Policy policy, String namespace, String setName, String indexName) throws AerospikeException {
+        return submit(new Command.Index() {
             @Override
-            public void onSuccess(Key[] keys, Record[] records) {
-                promise.complete(new RecordArrayValue(keys, records));
+            void send() {
+                delegate.dropIndex(eventLoop, this, policy, namespace, setName, indexName);
             }
+        });
+    }
 
+    @Override
+    public Future<Map<String, String>> info(InfoPolicy policy, Node node, String... commands) throws AerospikeException {
+        return submit(new Command.Info() {
             @Override
-            public void onFailure(AerospikeException ae) {
-                promise.fail(ae);
+            void send() {
+                delegate.info(eventLoop, this, policy, node, commands);
             }
-        };
+        });
     }
 
-    private static BatchRecordArrayListener toBatchRecordArrayListener(final Promise<BatchRecordArrayValue> promise) {
-        return new BatchRecordArrayListener() {
-            @Override
-            public void onSuccess(BatchRecord[] records, boolean status) {
-                promise.complete(new BatchRecordArrayValue(records, status));
-            }
+    private <T> Future<T> submit(final Command<T> command) {
+        return submit(command, eventLoopSelector.select());
+    }
 
-            @Override
-            public void onFailure(BatchRecord[] records, AerospikeException ae) {
-                promise.fail(ae);
-            }
-        };
+    private <T> Future<T> submit(final Command<T> command, final Key key) {
+        return submit(command, eventLoopSelector.select(key));
     }
 
-    private static IndexListener toIndexListener(Promise<AsyncIndexTask> promise) {
-        return new IndexListener() {
-            @Override
-            public void onSuccess(AsyncIndexTask indexTask) {
-                promise.complete(indexTask);
-            }
+    private <T> Future<T> submit(final Command<T> command, final EventLoop eventLoop) {
+        final Promise<T> promise = promiseFactory.select();
+        if (!inFlight.acquire(eventLoop)) {
+            promise.fail(new ClientClosedException());
+            return promise.future();
+        }
+        command.init(promise, eventLoop, limiter, completions, inFlight);
+        if (command.onEventLoopContext() && stages.sample(eventLoop.getIndex())) {
+            command.time(stages);
+        }
+        limiter.submit(eventLoop, command);
+        return promise.future();
+    }
 
-            @Override
-            public void onFailure(AerospikeException exception) {
-                promise.fail(exception);
-            }
-        };
+    private static int eventLoops(final IAerospikeClient delegate) {
+        final Cluster cluster = delegate.getCluster();
+        return cluster != null && cluster.eventLoops != null ? cluster.eventLoops.getSize() : 0;
     }
 }
@@ -0,0 +1,139 @@
+package dev.slesh.vertx.aerospike.client.aggregate;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.Bin;
+import com.aerospike.client.Key;
+import com.aerospike.client.async.EventLoop;
+import com.aerospike.client.async.EventLoops;
+import com.aerospike.client.policy.WritePolicy;
+import dev.slesh.vertx.aerospike.client.AsyncAerospikeClient;
+import dev.slesh.vertx.aerospike.client.DelegatingAerospikeClient;
+import dev.slesh.vertx.aerospike.eventloop.EventLoopSelector;
+import dev.slesh.vertx.aerospike.future.PromiseSelector;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * Write-behind aggregation of counter increments.
+ * <p>
+ * Every {@code add(WritePolicy, Key, Bin...)} with numeric bins is summed per record and bin on the aerospike
+ * event loop resolved by the {@link EventLoopSelector}. The sums are sent as one batch of
+ * {@link com.aerospike.client.Operation#add(Bin)} writes once {@link AggregationOptions#window()} has passed
+ * or {@link AggregationOptions#maxKeys()} records are pending. The future of an increment completes when
+ * its sum is written, so a crash loses the increments of the current window at most.
+ * <p>
+ * Call {@link #close()} or {@link #drain()} on shutdown to write the pending increments. Increments with non numeric
+ * bins and all the other operations are passed to the wrapped client as is.
+ */
+public class AggregatingAerospikeClient extends DelegatingAerospikeClient {
+    private final EventLoopSelector eventLoopSelector;
+    private final PromiseSelector promiseSelector;
+    private final CounterAggregator[] aggregators;
+
+    public AggregatingAerospikeClient(final AsyncAerospikeClient client,
+                                      final EventLoopSelector eventLoopSelector,
+                                      final PromiseSelector promiseSelector) {
+        this(client, eventLoopSelector, promiseSelector, new AggregationOptions());
+    }
+
+    public AggregatingAerospikeClient(final AsyncAerospikeClient client,
+                                      final EventLoopSelector eventLoopSelector,
+                                      final PromiseSelector promiseSelector,
+                                      final AggregationOptions options) {
+        this(client, Objects.requireNonNull(client.delegate().getCluster().eventLoops,
+                "client must be configured with event loops"), eventLoopSelector, promiseSelector, options);
+    }
+
+    /**
+     * @param eventLoops the event loops the selector picks from, the ones of the aerospike client by default
+     */
+    public AggregatingAerospikeClient(final AsyncAerospikeClient client,
+                                      final EventLoops eventLoops,
+                                      final EventLoopSelector eventLoopSelector,
+                                      final PromiseSelector promiseSelector,
+                                      final AggregationOptions options) {
+        super(client);
+        Objects.requireNonNull(eventLoops, "eventLoops");
+        this.eventLoopSelector = Objects.requireNonNull(eventLoopSelector, "eventLoopSelector");
+        this.promiseSelector = Objects.requireNonNull(promiseSelector, "promiseSelector");
+        Objects.requireNonNull(options, "options");
+        this.aggregators = new CounterAggregator[eventLoops.getSize()];
+        for (int i = 0; i < aggregators.length; i++) {
+            aggregators[i] = new CounterAggregator(client, eventLoops.get(i), options);
+        }
+    }
+
+    @Override
+    public Future<Key> add(WritePolicy policy, Key key, Bin... bins) throws AerospikeException {
+        if (!numeric(bins)) {
+            return client.add(policy, key, bins);
+        }
+        final Promise<Key> promise = promiseSelector.select();
+        // a key aware selector keeps all the increments of a record on one event loop
+        final EventLoop eventLoop = eventLoopSelector.select(key);
+        if (!aggregators[eventLoop.getIndex()].add(policy, key, bins, promise)) {
+            return client.add(policy, key, bins);
+        }
+        return promise.future();
+    }
+
+    /**
+     * Writes the increments pending on every event loop.
+     *
+     * @return completed once the server has answered for all of them
+     */
+    public Future<Void> flush() {
+        return all(CounterAggregator::flush);
+    }
+
+    /**
+     * Stops the aggregation and writes the pending increments, including the ones issued concurrently with the close.
+     * The following increments go to the server directly. The wrapped client is left open.
+     */
+    public Future<Void> close() {
+        return all(CounterAggregator::close);
+    }
+
+    /**
+     * Writes the pending increments, then drains the wrapped client. The following increments are passed to it as is.
+     */
+    @Override
+    public Future<Void> drain() {
+        final Promise<Void> promise = promiseSelector.select();
+        close().transform(ignored -> client.drain()).onComplete(promise);
+        return promise.future();
+    }
+
+    @SuppressWarnings("rawtypes")
+    private Future<Void> all(final BiConsumer<CounterAggregator, Promise<Void>> action) {
+        final List<Future> done = new ArrayList<>(aggregators.length);
+        for (final CounterAggregator aggregator : aggregators) {
+            final Promise<Void> promise = Promise.promise();
+            action.accept(aggregator, promise);
+            done.add(promise.future());
+        }
+        final Promise<Void> promise = promiseSelector.select();
+        CompositeFuture.all(done).<Void>mapEmpty().onComplete(promise);
+        return promise.future();
+    }
+
+    private static boolean numeric(final Bin[] bins) {
+        if (bins == null || bins.length == 0) {
+            return false;
+        }
+        for (final Bin bin : bins) {
+            final Object value = bin.value.getObject();
+            if (!(value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte
+                    || value instanceof Double || value instanceof Float)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,33 @@
+package dev.slesh.vertx.aerospike.client.aggregate;
+
+import com.aerospike.client.policy.BatchPolicy;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Tuning of {@link AggregatingAerospikeClient}.
+ *
+ * @param maxKeys     the number of distinct records aggregated on an event loop which triggers an immediate flush
+ * @param window      how long increments are aggregated before they are flushed, it is the most of increments
+ *                    lost on a crash
+ * @param batchPolicy policy of the flushed batch requests, may be {@code null}
+ */
+public record AggregationOptions(int maxKeys, Duration window, BatchPolicy batchPolicy) {
+    public static final int DEFAULT_MAX_KEYS = 1000;
+    public static final Duration DEFAULT_WINDOW = Duration.ofMillis(100);
+
+    public AggregationOptions {
+        if (maxKeys < 1) {
+            throw new IllegalArgumentException("maxKeys must be positive: " + maxKeys);
+        }
+        Objects.requireNonNull(window, "window");
+        if (window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("window must be positive: " + window);
+        }
+    }
+
+    public AggregationOptions() {
+        this(DEFAULT_MAX_KEYS, DEFAULT_WINDOW, null);
+    }
+}
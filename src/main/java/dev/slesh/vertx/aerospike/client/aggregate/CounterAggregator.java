@@ -0,0 +1,239 @@
+package dev.slesh.vertx.aerospike.client.aggregate;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.BatchRecord;
+import com.aerospike.client.BatchWrite;
+import com.aerospike.client.Bin;
+import com.aerospike.client.Key;
+import com.aerospike.client.Operation;
+import com.aerospike.client.ResultCode;
+import com.aerospike.client.async.EventLoop;
+import com.aerospike.client.policy.BatchWritePolicy;
+import com.aerospike.client.policy.WritePolicy;
+import dev.slesh.vertx.aerospike.client.AsyncAerospikeClient;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sums increments scheduled to one aerospike event loop.
+ * All the state is confined to that event loop, so no synchronization is involved,
+ * except for the counter of the increments queued to the event loop, which lets {@link #close(Promise)}
+ * flush after them. The sums are written through the wrapped client.
+ */
+final class CounterAggregator {
+    private final AsyncAerospikeClient client;
+    private final EventLoop eventLoop;
+    private final AggregationOptions options;
+    private final AtomicInteger queued = new AtomicInteger();
+    private volatile boolean closed;
+    private Map<Target, Counter> pending = new LinkedHashMap<>();
+    private boolean scheduled;
+
+    CounterAggregator(final AsyncAerospikeClient client,
+                      final EventLoop eventLoop,
+                      final AggregationOptions options) {
+        this.client = client;
+        this.eventLoop = eventLoop;
+        this.options = options;
+    }
+
+    /**
+     * @return {@code false} once the aggregator is closed, the increment must be sent as is then
+     */
+    boolean add(final WritePolicy policy, final Key key, final Bin[] bins, final Promise<Key> promise) {
+        // counted before the closed check, so the flush of close() either waits for it or it is rejected here
+        queued.incrementAndGet();
+        if (closed) {
+            queued.decrementAndGet();
+            return false;
+        }
+        if (eventLoop.inEventLoop()) {
+            aggregate(new Target(policy, key), bins, promise);
+        } else {
+            eventLoop.execute(() -> aggregate(new Target(policy, key), bins, promise));
+        }
+        return true;
+    }
+
+    /**
+     * Stops the aggregation and writes the pending increments once the ones queued to the event loop are summed.
+     *
+     * @param done completed once the server has answered for the flushed increments
+     */
+    void close(final Promise<Void> done) {
+        closed = true;
+        if (eventLoop.inEventLoop()) {
+            sendQueued(done);
+        } else {
+            eventLoop.execute(() -> sendQueued(done));
+        }
+    }
+
+    /**
+     * @param done completed once the server has answered for the flushed increments
+     */
+    void flush(final Promise<Void> done) {
+        if (eventLoop.inEventLoop()) {
+            send(done);
+        } else {
+            eventLoop.execute(() -> send(done));
+        }
+    }
+
+    private void sendQueued(final Promise<Void> done) {
+        if (queued.get() > 0) {
+            // the increments issued before the close are behind this task
+            eventLoop.execute(() -> sendQueued(done));
+        } else {
+            send(done);
+        }
+    }
+
+    private void aggregate(final Target target, final Bin[] bins, final Promise<Key> promise) {
+        queued.decrementAndGet();
+        var counter = pending.get(target);
+        if (counter == null) {
+            counter = new Counter();
+            pending.put(target, counter);
+        }
+        for (final Bin bin : bins) {
+            counter.add(bin);
+        }
+        counter.promises.add(promise);
+        if (pending.size() >= options.maxKeys()) {
+            send(null);
+        } else if (!scheduled) {
+            scheduled = true;
+            eventLoop.schedule(() -> {
+                scheduled = false;
+                send(null);
+            }, options.window().toNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void send(final Promise<Void> done) {
+        if (pending.isEmpty()) {
+            if (done != null) {
+                done.complete();
+            }
+            return;
+        }
+        final Map<Target, Counter> flushed = pending;
+        pending = new LinkedHashMap<>();
+        final List<BatchRecord> records = new ArrayList<>(flushed.size());
+        final List<Counter> counters = new ArrayList<>(flushed.size());
+        flushed.forEach((target, counter) -> {
+            final BatchWritePolicy policy = batchWritePolicy(target.policy());
+            final Operation[] operations = counter.operations();
+            records.add(policy == null
+                    ? new BatchWrite(target.key(), operations)
+                    : new BatchWrite(policy, target.key(), operations));
+            counters.add(counter);
+        });
+        final Future<?> written;
+        try {
+            // the records carry their result codes whatever the outcome of the request
+            written = client.operate(options.batchPolicy(), records);
+        } catch (RuntimeException e) {
+            complete(records, counters, e);
+            if (done != null) {
+                done.fail(e);
+            }
+            return;
+        }
+        written.onComplete(ar -> {
+            complete(records, counters, ar.cause());
+            if (done != null) {
+                done.handle(ar.mapEmpty());
+            }
+        });
+    }
+
+    private static void complete(final List<BatchRecord> records,
+                                 final List<Counter> counters,
+                                 final Throwable failure) {
+        for (int i = 0; i < records.size(); i++) {
+            final BatchRecord record = records.get(i);
+            final Counter counter = counters.get(i);
+            if (record.resultCode == ResultCode.OK) {
+                counter.complete(record.key);
+            } else {
+                counter.fail(failure != null && record.resultCode == ResultCode.NO_RESPONSE
+                        ? failure
+                        : new AerospikeException(record.resultCode, record.inDoubt));
+            }
+        }
+    }
+
+    private static BatchWritePolicy batchWritePolicy(final WritePolicy policy) {
+        if (policy == null) {
+            return null;
+        }
+        final var batchPolicy = new BatchWritePolicy();
+        batchPolicy.filterExp = policy.filterExp;
+        batchPolicy.recordExistsAction = policy.recordExistsAction;
+        batchPolicy.commitLevel = policy.commitLevel;
+        batchPolicy.generationPolicy = policy.generationPolicy;
+        batchPolicy.generation = policy.generation;
+        batchPolicy.expiration = policy.expiration;
+        batchPolicy.durableDelete = policy.durableDelete;
+        batchPolicy.sendKey = policy.sendKey;
+        return batchPolicy;
+    }
+
+    /**
+     * Increments are merged only when they are issued with the same policy instance.
+     */
+    private record Target(WritePolicy policy, Key key) {
+    }
+
+    private static final class Counter {
+        private final Map<String, Number> sums = new LinkedHashMap<>();
+        private final List<Promise<Key>> promises = new ArrayList<>();
+
+        void add(final Bin bin) {
+            final Number value = (Number) bin.value.getObject();
+            // the sums are kept as longs or doubles only, as the server stores them
+            sums.merge(bin.name, value instanceof Double || value instanceof Float
+                    ? (Number) value.doubleValue()
+                    : (Number) value.longValue(), Counter::sum);
+        }
+
+        Operation[] operations() {
+            final Operation[] operations = new Operation[sums.size()];
+            int i = 0;
+            for (final var sum : sums.entrySet()) {
+                operations[i++] = Operation.add(sum.getValue() instanceof Double value
+                        ? new Bin(sum.getKey(), value.doubleValue())
+                        : new Bin(sum.getKey(), sum.getValue().longValue()));
+            }
+            return operations;
+        }
+
+        void complete(final Key key) {
+            for (final Promise<Key> promise : promises) {
+                promise.tryComplete(key);
+            }
+        }
+
+        void fail(final Throwable cause) {
+            for (final Promise<Key> promise : promises) {
+                promise.tryFail(cause);
+            }
+        }
+
+        private static Number sum(final Number left, final Number right) {
+            if (left instanceof Double || right instanceof Double) {
+                return left.doubleValue() + right.doubleValue();
+            }
+            return left.longValue() + right.longValue();
+        }
+    }
+}
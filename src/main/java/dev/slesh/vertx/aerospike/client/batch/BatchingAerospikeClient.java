@@ -0,0 +1,110 @@
+package dev.slesh.vertx.aerospike.client.batch;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.Key;
+import com.aerospike.client.async.EventLoop;
+import com.aerospike.client.async.EventLoops;
+import com.aerospike.client.policy.Policy;
+import dev.slesh.vertx.aerospike.client.AsyncAerospikeClient;
+import dev.slesh.vertx.aerospike.client.DelegatingAerospikeClient;
+import dev.slesh.vertx.aerospike.client.result.ReadValue;
+import dev.slesh.vertx.aerospike.eventloop.EventLoopSelector;
+import dev.slesh.vertx.aerospike.future.PromiseSelector;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Opt-in micro-batching of single key reads.
+ * <p>
+ * Every {@code get(Policy, Key)} and {@code get(Policy, Key, String...)} is buffered on the aerospike event loop
+ * resolved by the {@link EventLoopSelector}. Buffered reads that share the same policy and bin projection are
+ * sent as one batch request once {@link BatchingOptions#maxBatchSize()} is reached or
+ * {@link BatchingOptions#maxLinger()} has passed, then the batch result is fanned out to the callers' futures.
+ * <p>
+ * With {@link dev.slesh.vertx.aerospike.eventloop.ContextEventLoop} the buffer belongs to the vert.x event loop
+ * of the caller, so all the reads issued during one event loop task end up in the same batch.
+ * The batches are sent through the wrapped client, so its limiter, metrics and drain cover them.
+ * All the other operations are passed to the wrapped client as is.
+ */
+public class BatchingAerospikeClient extends DelegatingAerospikeClient {
+    private final EventLoopSelector eventLoopSelector;
+    private final PromiseSelector promiseSelector;
+    private final ReadBatcher[] batchers;
+    private volatile boolean draining;
+
+    public BatchingAerospikeClient(final AsyncAerospikeClient client,
+                                   final EventLoopSelector eventLoopSelector,
+                                   final PromiseSelector promiseSelector) {
+        this(client, eventLoopSelector, promiseSelector, new BatchingOptions());
+    }
+
+    public BatchingAerospikeClient(final AsyncAerospikeClient client,
+                                   final EventLoopSelector eventLoopSelector,
+                                   final PromiseSelector promiseSelector,
+                                   final BatchingOptions options) {
+        this(client, Objects.requireNonNull(client.delegate().getCluster().eventLoops,
+                "client must be configured with event loops"), eventLoopSelector, promiseSelector, options);
+    }
+
+    /**
+     * @param eventLoops the event loops the selector picks from, the ones of the aerospike client by default
+     */
+    public BatchingAerospikeClient(final AsyncAerospikeClient client,
+                                   final EventLoops eventLoops,
+                                   final EventLoopSelector eventLoopSelector,
+                                   final PromiseSelector promiseSelector,
+                                   final BatchingOptions options) {
+        super(client);
+        Objects.requireNonNull(eventLoops, "eventLoops");
+        this.eventLoopSelector = Objects.requireNonNull(eventLoopSelector, "eventLoopSelector");
+        this.promiseSelector = Objects.requireNonNull(promiseSelector, "promiseSelector");
+        Objects.requireNonNull(options, "options");
+        this.batchers = new ReadBatcher[eventLoops.getSize()];
+        for (int i = 0; i < batchers.length; i++) {
+            batchers[i] = new ReadBatcher(client, eventLoops.get(i), options);
+        }
+    }
+
+    @Override
+    public Future<ReadValue> get(Policy policy, Key key) throws AerospikeException {
+        return enqueue(policy, key, null);
+    }
+
+    @Override
+    public Future<ReadValue> get(Policy policy, Key key, String... binNames) throws AerospikeException {
+        return enqueue(policy, key, binNames);
+    }
+
+    /**
+     * Sends the buffered reads, then drains the wrapped client. The following reads are passed to it as is.
+     */
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Future<Void> drain() {
+        draining = true;
+        final List<Future> flushed = new ArrayList<>(batchers.length);
+        for (final ReadBatcher batcher : batchers) {
+            final Promise<Void> done = Promise.promise();
+            batcher.flush(done);
+            flushed.add(done.future());
+        }
+        final Promise<Void> promise = promiseSelector.select();
+        CompositeFuture.all(flushed).transform(ignored -> client.drain()).onComplete(promise);
+        return promise.future();
+    }
+
+    private Future<ReadValue> enqueue(final Policy policy, final Key key, final String[] binNames) {
+        if (draining) {
+            return binNames == null ? client.get(policy, key) : client.get(policy, key, binNames);
+        }
+        final Promise<ReadValue> promise = promiseSelector.select();
+        final EventLoop eventLoop = eventLoopSelector.select();
+        batchers[eventLoop.getIndex()].add(policy, key, binNames, promise);
+        return promise.future();
+    }
+}
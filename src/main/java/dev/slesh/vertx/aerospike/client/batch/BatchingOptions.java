@@ -0,0 +1,32 @@
+package dev.slesh.vertx.aerospike.client.batch;
+
+import com.aerospike.client.policy.BatchPolicy;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Tuning of {@link BatchingAerospikeClient}.
+ *
+ * @param maxBatchSize the number of pending reads which triggers an immediate flush
+ * @param maxLinger    how long the first read of a batch may wait for others,
+ *                     {@link Duration#ZERO} flushes at the end of the current event loop task
+ * @param batchPolicy  policy of the flushed batch when the caller passes no read policy, may be {@code null}
+ */
+public record BatchingOptions(int maxBatchSize, Duration maxLinger, BatchPolicy batchPolicy) {
+    public static final int DEFAULT_MAX_BATCH_SIZE = 128;
+
+    public BatchingOptions {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be positive: " + maxBatchSize);
+        }
+        Objects.requireNonNull(maxLinger, "maxLinger");
+        if (maxLinger.isNegative()) {
+            throw new IllegalArgumentException("maxLinger must not be negative: " + maxLinger);
+        }
+    }
+
+    public BatchingOptions() {
+        this(DEFAULT_MAX_BATCH_SIZE, Duration.ZERO, null);
+    }
+}
@@ -0,0 +1,166 @@
+package dev.slesh.vertx.aerospike.client.batch;
+
+import com.aerospike.client.Key;
+import com.aerospike.client.async.EventLoop;
+import com.aerospike.client.policy.BatchPolicy;
+import com.aerospike.client.policy.Policy;
+import dev.slesh.vertx.aerospike.client.AsyncAerospikeClient;
+import dev.slesh.vertx.aerospike.client.result.ReadValue;
+import dev.slesh.vertx.aerospike.client.result.RecordArrayValue;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects single key reads scheduled to one aerospike event loop.
+ * All the state is confined to that event loop, so no synchronization is involved.
+ * <p>
+ * The batches are sent through the wrapped client, so they are limited, measured and drained like any other command.
+ */
+final class ReadBatcher {
+    private final AsyncAerospikeClient client;
+    private final EventLoop eventLoop;
+    private final BatchingOptions options;
+    private final Map<Projection, Batch> pending = new HashMap<>();
+
+    ReadBatcher(final AsyncAerospikeClient client,
+                final EventLoop eventLoop,
+                final BatchingOptions options) {
+        this.client = client;
+        this.eventLoop = eventLoop;
+        this.options = options;
+    }
+
+    void add(final Policy policy, final Key key, final String[] binNames, final Promise<ReadValue> promise) {
+        final var projection = new Projection(policy, binNames == null ? null : List.of(binNames));
+        if (eventLoop.inEventLoop()) {
+            enqueue(projection, key, promise);
+        } else {
+            eventLoop.execute(() -> enqueue(projection, key, promise));
+        }
+    }
+
+    /**
+     * Sends the pending batches right away.
+     *
+     * @param done completed once the pending batches are passed to the wrapped client, its drain waits for them
+     */
+    void flush(final Promise<Void> done) {
+        if (eventLoop.inEventLoop()) {
+            flushAll(done);
+        } else {
+            eventLoop.execute(() -> flushAll(done));
+        }
+    }
+
+    private void flushAll(final Promise<Void> done) {
+        for (final Batch batch : new ArrayList<>(pending.values())) {
+            flush(batch);
+        }
+        done.complete();
+    }
+
+    private void enqueue(final Projection projection, final Key key, final Promise<ReadValue> promise) {
+        var batch = pending.get(projection);
+        if (batch == null) {
+            batch = new Batch(projection);
+            pending.put(projection, batch);
+            schedule(batch);
+        }
+        batch.keys.add(key);
+        batch.promises.add(promise);
+        if (batch.keys.size() >= options.maxBatchSize()) {
+            flush(batch);
+        }
+    }
+
+    private void schedule(final Batch batch) {
+        final long lingerNanos = options.maxLinger().toNanos();
+        if (lingerNanos == 0) {
+            eventLoop.execute(() -> flush(batch));
+        } else {
+            eventLoop.schedule(() -> flush(batch), lingerNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void flush(final Batch batch) {
+        // the batch may have been already sent because it reached the max size before the linger expired
+        if (pending.remove(batch.projection, batch)) {
+            try {
+                batch.send();
+            } catch (RuntimeException e) {
+                batch.fail(e);
+            }
+        }
+    }
+
+    private BatchPolicy batchPolicy(final Policy policy) {
+        if (policy == null) {
+            return options.batchPolicy();
+        }
+        if (policy instanceof BatchPolicy batchPolicy) {
+            return batchPolicy;
+        }
+        return new BatchPolicy(policy);
+    }
+
+    /**
+     * Reads are merged only when they are issued with the same policy and request the same bins.
+     */
+    private record Projection(Policy policy, List<String> binNames) {
+        String[] binNamesArray() {
+            return binNames == null ? null : binNames.toArray(new String[0]);
+        }
+    }
+
+    private final class Batch {
+        private final Projection projection;
+        private final List<Key> keys = new ArrayList<>();
+        private final List<Promise<ReadValue>> promises = new ArrayList<>();
+
+        private Batch(final Projection projection) {
+            this.projection = projection;
+        }
+
+        void send() {
+            final String[] binNames = projection.binNamesArray();
+            if (keys.size() == 1) {
+                // there is nothing to merge, a plain read is cheaper for the server
+                final Future<ReadValue> read = binNames == null
+                        ? client.get(projection.policy(), keys.get(0))
+                        : client.get(projection.policy(), keys.get(0), binNames);
+                read.onComplete(promises.get(0));
+                return;
+            }
+            final Key[] batchKeys = keys.toArray(new Key[0]);
+            final BatchPolicy policy = batchPolicy(projection.policy());
+            final Future<RecordArrayValue> read = binNames == null
+                    ? client.get(policy, batchKeys)
+                    : client.get(policy, batchKeys, binNames);
+            read.onComplete(this::fanOut);
+        }
+
+        private void fanOut(final AsyncResult<RecordArrayValue> result) {
+            if (result.failed()) {
+                fail(result.cause());
+                return;
+            }
+            final RecordArrayValue value = result.result();
+            for (int i = 0; i < value.keys().length; i++) {
+                promises.get(i).complete(new ReadValue(value.keys()[i], value.records()[i]));
+            }
+        }
+
+        void fail(final Throwable cause) {
+            for (final Promise<ReadValue> promise : promises) {
+                promise.tryFail(cause);
+            }
+        }
+    }
+}
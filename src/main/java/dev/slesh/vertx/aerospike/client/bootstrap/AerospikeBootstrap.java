@@ -0,0 +1,118 @@
+package dev.slesh.vertx.aerospike.client.bootstrap;
+
+import com.aerospike.client.AerospikeClient;
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.Host;
+import com.aerospike.client.IAerospikeClient;
+import com.aerospike.client.async.EventLoops;
+import com.aerospike.client.async.NettyEventLoops;
+import com.aerospike.client.cluster.Node;
+import com.aerospike.client.listener.InfoListener;
+import com.aerospike.client.policy.ClientPolicy;
+import dev.slesh.vertx.aerospike.client.AsyncAerospikeClient;
+import dev.slesh.vertx.aerospike.client.VertxAerospikeClient;
+import dev.slesh.vertx.aerospike.eventloop.ContextEventLoop;
+import dev.slesh.vertx.aerospike.future.ContextPromiseSelector;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Creates a client running on the vert.x event loops without blocking the caller, e.g. in {@code Verticle.start}.
+ * <pre>{@code
+ * AerospikeBootstrap.create(vertx, clientPolicy, new Host("localhost", 3000))
+ *         .onSuccess(client -> this.aerospike = client);
+ * }</pre>
+ * Connecting to the cluster blocks, so the client is built on a worker thread. The client runs on the vert.x event
+ * loops through {@link NettyEventLoops} and commands are scheduled to the event loop of the caller with
+ * {@link ContextEventLoop}.
+ * <p>
+ * Before the client is handed out, the async connections are pre-warmed: concurrent info commands are sent to
+ * every node on every event loop, so each of them opens a connection, and {@link ClientPolicy#asyncMinConnsPerNode}
+ * keeps the connections from being trimmed as idle. Pre-warming is best effort, a failed info command doesn't fail
+ * the bootstrap, the connection is opened by the first command instead.
+ */
+public final class AerospikeBootstrap {
+    private static final String WARM_UP_COMMAND = "build";
+
+    private AerospikeBootstrap() {
+    }
+
+    public static Future<AsyncAerospikeClient> create(final Vertx vertx,
+                                                      final ClientPolicy policy,
+                                                      final Host... hosts) {
+        return create(vertx, policy, new BootstrapOptions(), hosts);
+    }
+
+    /**
+     * @param policy its event loops are replaced by the ones of vert.x
+     */
+    public static Future<AsyncAerospikeClient> create(final Vertx vertx,
+                                                      final ClientPolicy policy,
+                                                      final BootstrapOptions options,
+                                                      final Host... hosts) {
+        Objects.requireNonNull(vertx, "vertx");
+        Objects.requireNonNull(policy, "policy");
+        Objects.requireNonNull(options, "options");
+        final var eventLoops = new NettyEventLoops(vertx.nettyEventLoopGroup());
+        final var clientPolicy = new ClientPolicy(policy);
+        clientPolicy.eventLoops = eventLoops;
+        keepConnections(clientPolicy, eventLoops.getSize(), options.connectionsPerNode());
+        return vertx.<AsyncAerospikeClient>executeBlocking(promise -> promise.complete(new VertxAerospikeClient(
+                        new AerospikeClient(clientPolicy, hosts),
+                        new ContextEventLoop(eventLoops),
+                        new ContextPromiseSelector())), false)
+                .compose(client -> warmUp(client.delegate(), options.connectionsPerNode()).map(client));
+    }
+
+    /**
+     * {@link ClientPolicy#asyncMinConnsPerNode} counts the connections to a node over all the event loops, aerospike
+     * divides it between them. It is capped by the max connections, which aerospike requires to be not lower.
+     */
+    static void keepConnections(final ClientPolicy policy, final int eventLoops, final int connectionsPerNode) {
+        final int maxConnsPerNode = policy.asyncMaxConnsPerNode >= 0
+                ? policy.asyncMaxConnsPerNode
+                : policy.maxConnsPerNode;
+        final int minConnsPerNode = Math.min(connectionsPerNode * eventLoops, maxConnsPerNode);
+        policy.asyncMinConnsPerNode = Math.max(policy.asyncMinConnsPerNode, minConnsPerNode);
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static Future<Void> warmUp(final IAerospikeClient client, final int connectionsPerNode) {
+        final EventLoops eventLoops = client.getCluster().eventLoops;
+        final List<Future> warmUps = new ArrayList<>();
+        for (final Node node : client.getNodes()) {
+            for (int i = 0; i < eventLoops.getSize(); i++) {
+                for (int j = 0; j < connectionsPerNode; j++) {
+                    final Promise<Void> warmUp = Promise.promise();
+                    try {
+                        client.info(eventLoops.get(i), new WarmUp(warmUp), client.getInfoPolicyDefault(), node,
+                                WARM_UP_COMMAND);
+                    } catch (AerospikeException e) {
+                        warmUp.complete();
+                    }
+                    warmUps.add(warmUp.future());
+                }
+            }
+        }
+        return CompositeFuture.all(warmUps).mapEmpty();
+    }
+
+    private record WarmUp(Promise<Void> promise) implements InfoListener {
+        @Override
+        public void onSuccess(final Map<String, String> map) {
+            promise.complete();
+        }
+
+        @Override
+        public void onFailure(final AerospikeException exception) {
+            promise.complete();
+        }
+    }
+}
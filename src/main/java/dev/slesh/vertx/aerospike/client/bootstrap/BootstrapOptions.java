@@ -0,0 +1,19 @@
+package dev.slesh.vertx.aerospike.client.bootstrap;
+
+/**
+ * @param connectionsPerNode async connections opened to every node on every event loop before the client is handed
+ *                           out, {@code 0} doesn't pre-warm the connections
+ */
+public record BootstrapOptions(int connectionsPerNode) {
+    public static final int DEFAULT_CONNECTIONS_PER_NODE = 1;
+
+    public BootstrapOptions {
+        if (connectionsPerNode < 0) {
+            throw new IllegalArgumentException("connectionsPerNode must not be negative: " + connectionsPerNode);
+        }
+    }
+
+    public BootstrapOptions() {
+        this(DEFAULT_CONNECTIONS_PER_NODE);
+    }
+}
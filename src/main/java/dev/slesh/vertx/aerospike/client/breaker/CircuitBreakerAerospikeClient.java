@@ -0,0 +1,216 @@
+package dev.slesh.vertx.aerospike.client.breaker;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.Bin;
+import com.aerospike.client.Key;
+import com.aerospike.client.Operation;
+import com.aerospike.client.ResultCode;
+import com.aerospike.client.Value;
+import com.aerospike.client.cluster.Cluster;
+import com.aerospike.client.cluster.Node;
+import com.aerospike.client.cluster.Partition;
+import com.aerospike.client.policy.Policy;
+import com.aerospike.client.policy.WritePolicy;
+import dev.slesh.vertx.aerospike.client.AsyncAerospikeClient;
+import dev.slesh.vertx.aerospike.client.DelegatingAerospikeClient;
+import dev.slesh.vertx.aerospike.client.result.DeleteValue;
+import dev.slesh.vertx.aerospike.client.result.ExecuteValue;
+import dev.slesh.vertx.aerospike.client.result.ReadValue;
+import dev.slesh.vertx.aerospike.metrics.ClientMetrics;
+import io.vertx.core.Future;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Per node circuit breaker for single key commands.
+ * <p>
+ * The node of a command is the master of the partition of its key. When the share of commands which failed
+ * because of the node, e.g. timeouts, connection errors or device overload, reaches
+ * {@link CircuitBreakerOptions#failureRatio()} the circuit of the node opens: writes fail fast with
+ * {@link CircuitOpenException} and reads are sent with {@link CircuitBreakerOptions#redirectReplica()}.
+ * The default {@code MASTER_PROLES} takes the master and the replicas in turn, so it doesn't avoid the open node:
+ * with two copies of the data about half of the redirected reads still go to it, the redirect only takes the
+ * other half of the load off the node. Set the replica to {@code null} to fail the reads fast as well. After
+ * {@link CircuitBreakerOptions#openDuration()} a few probe commands go to the node and their outcome
+ * closes or reopens the circuit.
+ * <p>
+ * Batches span several nodes and are passed to the wrapped client as is, like all the other operations.
+ */
+public class CircuitBreakerAerospikeClient extends DelegatingAerospikeClient {
+    private final CircuitBreakerOptions options;
+    private final CircuitBreakerListener listener;
+    private final Map<String, NodeCircuit> circuits = new ConcurrentHashMap<>();
+
+    public CircuitBreakerAerospikeClient(final AsyncAerospikeClient client) {
+        this(client, new CircuitBreakerOptions(), CircuitBreakerListener.NOOP);
+    }
+
+    public CircuitBreakerAerospikeClient(final AsyncAerospikeClient client,
+                                         final CircuitBreakerOptions options,
+                                         final CircuitBreakerListener listener) {
+        super(client);
+        this.options = Objects.requireNonNull(options, "options");
+        this.listener = Objects.requireNonNull(listener, "listener");
+    }
+
+    /**
+     * Publishes the state transitions of the circuits to {@link ClientMetrics#onCircuitStateChange}.
+     */
+    public CircuitBreakerAerospikeClient(final AsyncAerospikeClient client,
+                                         final CircuitBreakerOptions options,
+                                         final ClientMetrics metrics) {
+        this(client, options, Objects.requireNonNull(metrics, "metrics")::onCircuitStateChange);
+    }
+
+    /**
+     * @return the state of the circuit by node name, only nodes which were used are listed
+     */
+    public Map<String, CircuitState> states() {
+        final Map<String, CircuitState> states = new TreeMap<>();
+        circuits.forEach((nodeName, circuit) -> states.put(nodeName, circuit.state()));
+        return states;
+    }
+
+    @Override
+    public Future<Key> put(WritePolicy policy, Key key, Bin... bins) throws AerospikeException {
+        return write(key, () -> client.put(policy, key, bins));
+    }
+
+    @Override
+    public Future<Key> append(WritePolicy policy, Key key, Bin... bins) throws AerospikeException {
+        return write(key, () -> client.append(policy, key, bins));
+    }
+
+    @Override
+    public Future<Key> prepend(WritePolicy policy, Key key, Bin... bins) throws AerospikeException {
+        return write(key, () -> client.prepend(policy, key, bins));
+    }
+
+    @Override
+    public Future<Key> add(WritePolicy policy, Key key, Bin... bins) throws AerospikeException {
+        return write(key, () -> client.add(policy, key, bins));
+    }
+
+    @Override
+    public Future<DeleteValue> delete(WritePolicy policy, Key key) throws AerospikeException {
+        return write(key, () -> client.delete(policy, key));
+    }
+
+    @Override
+    public Future<Key> touch(WritePolicy policy, Key key) throws AerospikeException {
+        return write(key, () -> client.touch(policy, key));
+    }
+
+    @Override
+    public Future<Boolean> exists(Policy policy, Key key) throws AerospikeException {
+        return read(policy, key, p -> client.exists(p, key));
+    }
+
+    @Override
+    public Future<ReadValue> get(Policy policy, Key key) throws AerospikeException {
+        return read(policy, key, p -> client.get(p, key));
+    }
+
+    @Override
+    public Future<ReadValue> get(Policy policy, Key key, String... binNames) throws AerospikeException {
+        return read(policy, key, p -> client.get(p, key, binNames));
+    }
+
+    @Override
+    public Future<ReadValue> getHeader(Policy policy, Key key) throws AerospikeException {
+        return read(policy, key, p -> client.getHeader(p, key));
+    }
+
+    @Override
+    public Future<ReadValue> operate(WritePolicy policy, Key key, Operation... operations) throws AerospikeException {
+        return write(key, () -> client.operate(policy, key, operations));
+    }
+
+    @Override
+    public Future<ExecuteValue> execute(WritePolicy policy, Key key, String packageName, String functionName, Value... args) throws AerospikeException {
+        return write(key, () -> client.execute(policy, key, packageName, functionName, args));
+    }
+
+    /**
+     * @return {@code true} when the failure says the node is unhealthy rather than something about the record
+     */
+    protected boolean nodeFailure(final AerospikeException exception) {
+        return switch (exception.getResultCode()) {
+            case ResultCode.TIMEOUT,
+                    ResultCode.SERVER_NOT_AVAILABLE,
+                    ResultCode.NO_MORE_CONNECTIONS,
+                    ResultCode.DEVICE_OVERLOAD,
+                    ResultCode.SERVER_ERROR -> !(exception instanceof CircuitOpenException);
+            default -> false;
+        };
+    }
+
+    private <T> Future<T> write(final Key key, final Supplier<Future<T>> command) {
+        final NodeCircuit circuit = circuit(key);
+        if (circuit == null) {
+            return command.get();
+        }
+        final NodeCircuit.Phase phase = circuit.tryAcquire();
+        if (phase == null) {
+            return Future.failedFuture(new CircuitOpenException(nodeName(key)));
+        }
+        return command.get().onComplete(result -> report(circuit, phase, result.cause()));
+    }
+
+    private <T> Future<T> read(final Policy policy, final Key key, final Function<Policy, Future<T>> command) {
+        final NodeCircuit circuit = circuit(key);
+        if (circuit == null) {
+            return command.apply(policy);
+        }
+        final NodeCircuit.Phase phase = circuit.tryAcquire();
+        if (phase == null) {
+            if (options.redirectReplica() == null) {
+                return Future.failedFuture(new CircuitOpenException(nodeName(key)));
+            }
+            final Policy redirected = new Policy(policy != null ? policy : delegate().getReadPolicyDefault());
+            redirected.replica = options.redirectReplica();
+            return command.apply(redirected);
+        }
+        return command.apply(policy).onComplete(result -> report(circuit, phase, result.cause()));
+    }
+
+    private void report(final NodeCircuit circuit, final NodeCircuit.Phase phase, final Throwable failure) {
+        if (failure == null) {
+            circuit.onSuccess(phase);
+        } else if (failure instanceof AerospikeException exception && nodeFailure(exception)) {
+            circuit.onFailure(phase);
+        } else {
+            circuit.onIgnored(phase);
+        }
+    }
+
+    private NodeCircuit circuit(final Key key) {
+        final String nodeName = nodeName(key);
+        if (nodeName == null) {
+            return null;
+        }
+        final NodeCircuit circuit = circuits.get(nodeName);
+        return circuit != null
+                ? circuit
+                : circuits.computeIfAbsent(nodeName, name -> new NodeCircuit(name, options, listener));
+    }
+
+    /**
+     * @return the name of the master node of the key partition, {@code null} when the partition map
+     * doesn't know it yet
+     */
+    private String nodeName(final Key key) {
+        final Cluster cluster = delegate().getCluster();
+        try {
+            final Node node = Partition.write(cluster, delegate().getWritePolicyDefault(), key).getNodeWrite(cluster);
+            return node.getName();
+        } catch (AerospikeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package dev.slesh.vertx.aerospike.client.breaker;
+
+/**
+ * Receives the state transitions of the node circuits, e.g. to report them as metrics.
+ * Called from aerospike and vert.x event loops, so it must be thread safe and must not block.
+ */
+@FunctionalInterface
+public interface CircuitBreakerListener {
+    CircuitBreakerListener NOOP = (nodeName, from, to) -> {
+    };
+
+    void onStateChange(String nodeName, CircuitState from, CircuitState to);
+}
@@ -0,0 +1,50 @@
+package dev.slesh.vertx.aerospike.client.breaker;
+
+import com.aerospike.client.policy.Replica;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Tuning of {@link CircuitBreakerAerospikeClient}.
+ *
+ * @param failureRatio    share of failed commands within a window which opens the circuit
+ * @param minCommands     commands a window needs before the ratio is taken into account
+ * @param window          length of the window the commands are counted in
+ * @param openDuration    how long the circuit stays open before the node is probed
+ * @param probes          commands sent to a half-open node at the same time
+ * @param redirectReplica replica algorithm of the reads redirected from an open node, the default
+ *                        {@code MASTER_PROLES} still sends a share of them to the node,
+ *                        {@code null} fails the reads fast like the writes
+ */
+public record CircuitBreakerOptions(double failureRatio,
+                                    int minCommands,
+                                    Duration window,
+                                    Duration openDuration,
+                                    int probes,
+                                    Replica redirectReplica) {
+    public CircuitBreakerOptions {
+        if (!(failureRatio > 0 && failureRatio <= 1)) {
+            throw new IllegalArgumentException("failureRatio must be in range (0, 1]: " + failureRatio);
+        }
+        if (minCommands < 1) {
+            throw new IllegalArgumentException("minCommands must be positive: " + minCommands);
+        }
+        requirePositive(window, "window");
+        requirePositive(openDuration, "openDuration");
+        if (probes < 1) {
+            throw new IllegalArgumentException("probes must be positive: " + probes);
+        }
+    }
+
+    public CircuitBreakerOptions() {
+        this(0.5, 20, Duration.ofSeconds(10), Duration.ofSeconds(5), 1, Replica.MASTER_PROLES);
+    }
+
+    private static void requirePositive(final Duration duration, final String name) {
+        Objects.requireNonNull(duration, name);
+        if (duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException(name + " must be positive: " + duration);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package dev.slesh.vertx.aerospike.client.breaker;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.ResultCode;
+
+/**
+ * Fails a command which was not sent because the circuit of its node is open.
+ */
+public class CircuitOpenException extends AerospikeException {
+    public CircuitOpenException(final String nodeName) {
+        super(ResultCode.SERVER_NOT_AVAILABLE, "Circuit of node " + nodeName + " is open");
+    }
+}
@@ -0,0 +1,16 @@
+package dev.slesh.vertx.aerospike.client.breaker;
+
+public enum CircuitState {
+    /**
+     * Commands are sent to the node and their outcome is counted.
+     */
+    CLOSED,
+    /**
+     * The node is considered down, commands fail fast or reads are redirected to the replicas.
+     */
+    OPEN,
+    /**
+     * A few probe commands are sent to the node, the circuit closes when they succeed.
+     */
+    HALF_OPEN
+}
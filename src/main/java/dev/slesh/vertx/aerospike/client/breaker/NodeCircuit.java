@@ -0,0 +1,145 @@
+package dev.slesh.vertx.aerospike.client.breaker;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Circuit of one node. Commands of all the event loops report to it, so the counters are lock free
+ * and a state transition is made by the thread which wins the compare-and-set.
+ * The counters of a window are reset racily, which is fine for an estimate.
+ * <p>
+ * Every transition starts a new {@link Phase}. A command is admitted in a phase and reports its outcome with it,
+ * so only the commands of the current phase count: a command sent while the circuit was closed doesn't close
+ * the half-open circuit, only a probe does.
+ */
+final class NodeCircuit {
+    private final String nodeName;
+    private final CircuitBreakerOptions options;
+    private final CircuitBreakerListener listener;
+    private final AtomicReference<Phase> phase = new AtomicReference<>(new Phase(CircuitState.CLOSED));
+    private final LongAdder commands = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private volatile long windowStart = System.nanoTime();
+
+    NodeCircuit(final String nodeName,
+                final CircuitBreakerOptions options,
+                final CircuitBreakerListener listener) {
+        this.nodeName = nodeName;
+        this.options = options;
+        this.listener = listener;
+    }
+
+    CircuitState state() {
+        return phase.get().state;
+    }
+
+    /**
+     * @return the phase the command is admitted in, to be passed back with its outcome,
+     * {@code null} when the command must not be sent to the node
+     */
+    Phase tryAcquire() {
+        final Phase current = phase.get();
+        switch (current.state) {
+            case CLOSED:
+                return current;
+            case OPEN:
+                if (System.nanoTime() - current.since < options.openDuration().toNanos()) {
+                    return null;
+                }
+                transition(current, CircuitState.HALF_OPEN);
+                // either this thread or another one has moved the circuit on
+                return tryProbe(phase.get());
+            default:
+                return tryProbe(current);
+        }
+    }
+
+    void onSuccess(final Phase admitted) {
+        if (admitted.state == CircuitState.HALF_OPEN) {
+            if (transition(admitted, CircuitState.CLOSED)) {
+                reset(System.nanoTime());
+            }
+            return;
+        }
+        count(admitted, false);
+    }
+
+    void onFailure(final Phase admitted) {
+        if (admitted.state == CircuitState.HALF_OPEN) {
+            transition(admitted, CircuitState.OPEN);
+            return;
+        }
+        count(admitted, true);
+    }
+
+    /**
+     * The outcome of a command which did not reach the node, e.g. a key not found, only frees its probe slot.
+     */
+    void onIgnored(final Phase admitted) {
+        if (admitted.state == CircuitState.HALF_OPEN) {
+            admitted.probes.decrementAndGet();
+        }
+    }
+
+    private Phase tryProbe(final Phase current) {
+        if (current.state == CircuitState.CLOSED) {
+            return current;
+        }
+        if (current.state != CircuitState.HALF_OPEN) {
+            return null;
+        }
+        if (current.probes.incrementAndGet() <= options.probes()) {
+            return current;
+        }
+        current.probes.decrementAndGet();
+        return null;
+    }
+
+    private void count(final Phase admitted, final boolean failed) {
+        if (phase.get() != admitted) {
+            // the circuit has opened since the command was sent
+            return;
+        }
+        final long now = System.nanoTime();
+        if (now - windowStart >= options.window().toNanos()) {
+            reset(now);
+        }
+        commands.increment();
+        if (!failed) {
+            return;
+        }
+        failures.increment();
+        final long total = commands.sum();
+        if (total >= options.minCommands() && failures.sum() >= total * options.failureRatio()) {
+            transition(admitted, CircuitState.OPEN);
+        }
+    }
+
+    private void reset(final long now) {
+        windowStart = now;
+        commands.reset();
+        failures.reset();
+    }
+
+    private boolean transition(final Phase from, final CircuitState to) {
+        if (phase.compareAndSet(from, new Phase(to))) {
+            listener.onStateChange(nodeName, from.state, to);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * A state of the circuit from one transition to the next one.
+     */
+    static final class Phase {
+        private final CircuitState state;
+        private final long since = System.nanoTime();
+        private final AtomicInteger probes = new AtomicInteger();
+
+        private Phase(final CircuitState state) {
+            this.state = state;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package dev.slesh.vertx.aerospike.client.bulk;
+
+import com.aerospike.client.Bin;
+import com.aerospike.client.Key;
+import com.aerospike.client.Operation;
+
+import java.util.Objects;
+
+/**
+ * A record to be written by {@link BulkWriter}.
+ */
+public record BulkWrite(Key key, Operation[] operations) {
+    public BulkWrite {
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(operations, "operations");
+    }
+
+    public static BulkWrite put(final Key key, final Bin... bins) {
+        final Operation[] operations = new Operation[bins.length];
+        for (int i = 0; i < bins.length; i++) {
+            operations[i] = Operation.put(bins[i]);
+        }
+        return new BulkWrite(key, operations);
+    }
+
+    public static BulkWrite operate(final Key key, final Operation... operations) {
+        return new BulkWrite(key, operations);
+    }
+}
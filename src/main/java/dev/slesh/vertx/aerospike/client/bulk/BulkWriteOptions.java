@@ -0,0 +1,30 @@
+package dev.slesh.vertx.aerospike.client.bulk;
+
+import com.aerospike.client.policy.BatchPolicy;
+import com.aerospike.client.policy.BatchWritePolicy;
+
+/**
+ * Tuning of {@link BulkWriter}.
+ *
+ * @param batchSize   records per batch request
+ * @param window      batch requests of one load in flight at the same time, over all the event loops
+ * @param batchPolicy policy of the batch requests, may be {@code null}
+ * @param writePolicy policy of every record, may be {@code null}
+ */
+public record BulkWriteOptions(int batchSize, int window, BatchPolicy batchPolicy, BatchWritePolicy writePolicy) {
+    public static final int DEFAULT_BATCH_SIZE = 100;
+    public static final int DEFAULT_WINDOW = 16;
+
+    public BulkWriteOptions {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        if (window < 1) {
+            throw new IllegalArgumentException("window must be positive: " + window);
+        }
+    }
+
+    public BulkWriteOptions() {
+        this(DEFAULT_BATCH_SIZE, DEFAULT_WINDOW, null, null);
+    }
+}
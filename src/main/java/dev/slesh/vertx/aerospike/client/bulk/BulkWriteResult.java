@@ -0,0 +1,8 @@
+package dev.slesh.vertx.aerospike.client.bulk;
+
+/**
+ * @param written records written successfully
+ * @param failed  records reported to the failure handler
+ */
+public record BulkWriteResult(long written, long failed) {
+}
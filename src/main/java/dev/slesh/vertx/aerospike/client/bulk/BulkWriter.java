@@ -0,0 +1,182 @@
+package dev.slesh.vertx.aerospike.client.bulk;
+
+import com.aerospike.client.BatchRecord;
+import com.aerospike.client.BatchWrite;
+import com.aerospike.client.ResultCode;
+import dev.slesh.vertx.aerospike.client.AsyncAerospikeClient;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.impl.ContextInternal;
+import io.vertx.core.streams.ReadStream;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Loads a stream of records with batch writes.
+ * <p>
+ * Records are grouped into {@code operate(BatchPolicy, List<BatchRecord>)} requests of
+ * {@link BulkWriteOptions#batchSize()} records, which are sent through the wrapped client with at most
+ * {@link BulkWriteOptions#window()} requests of a load in flight. When the window is full and the next batch is
+ * ready, the source is paused until a request completes.
+ * <p>
+ * The event loops of the requests are picked by the selector of the wrapped client. With
+ * {@link dev.slesh.vertx.aerospike.eventloop.ContextEventLoop} all the requests of a load run on the event loop of
+ * the caller, a selector like {@link dev.slesh.vertx.aerospike.eventloop.NextEventLoopSelector} spreads them over
+ * the loops.
+ * <p>
+ * A failed record does not fail the load, it is passed to the failure handler with its
+ * {@link BatchRecord#resultCode}. Records of a batch request which failed as a whole keep
+ * {@link ResultCode#NO_RESPONSE} unless the server answered for them. The load fails only when the source does,
+ * an exception of the failure handler is reported to the context and the load goes on.
+ */
+public class BulkWriter {
+    private final AsyncAerospikeClient client;
+    private final BulkWriteOptions options;
+
+    public BulkWriter(final AsyncAerospikeClient client) {
+        this(client, new BulkWriteOptions());
+    }
+
+    public BulkWriter(final AsyncAerospikeClient client, final BulkWriteOptions options) {
+        this.client = Objects.requireNonNull(client, "client");
+        this.options = Objects.requireNonNull(options, "options");
+    }
+
+    public Future<BulkWriteResult> write(final ReadStream<BulkWrite> source) {
+        return write(source, record -> {
+        });
+    }
+
+    /**
+     * Must be called on a vert.x context, the source is consumed and the handlers are called on it.
+     *
+     * @param failureHandler receives every record which was not written
+     */
+    public Future<BulkWriteResult> write(final ReadStream<BulkWrite> source,
+                                         final Handler<BatchRecord> failureHandler) {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(failureHandler, "failureHandler");
+        final ContextInternal context = ContextInternal.current();
+        if (context == null) {
+            throw new IllegalStateException("Bulk write must be started on a vert.x context");
+        }
+        return new Load(context, source, failureHandler).start();
+    }
+
+    /**
+     * State of one load, touched on its context only.
+     */
+    private final class Load {
+        private final ContextInternal context;
+        private final ReadStream<BulkWrite> source;
+        private final Handler<BatchRecord> failureHandler;
+        private final Promise<BulkWriteResult> promise;
+        private final ArrayDeque<List<BatchRecord>> ready = new ArrayDeque<>();
+        private List<BatchRecord> batch;
+        private int requests;
+        private boolean paused;
+        private boolean ended;
+        private long written;
+        private long failed;
+
+        private Load(final ContextInternal context,
+                     final ReadStream<BulkWrite> source,
+                     final Handler<BatchRecord> failureHandler) {
+            this.context = context;
+            this.source = source;
+            this.failureHandler = failureHandler;
+            this.promise = context.promise();
+            this.batch = new ArrayList<>(options.batchSize());
+        }
+
+        private Future<BulkWriteResult> start() {
+            source.exceptionHandler(this::onSourceFailure)
+                    .endHandler(ignored -> onEnd())
+                    .handler(this::onRecord);
+            source.resume();
+            return promise.future();
+        }
+
+        private void onRecord(final BulkWrite write) {
+            batch.add(options.writePolicy() == null
+                    ? new BatchWrite(write.key(), write.operations())
+                    : new BatchWrite(options.writePolicy(), write.key(), write.operations()));
+            if (batch.size() >= options.batchSize()) {
+                ready.add(batch);
+                batch = new ArrayList<>(options.batchSize());
+                dispatch();
+            }
+        }
+
+        private void onEnd() {
+            ended = true;
+            if (!batch.isEmpty()) {
+                ready.add(batch);
+                batch = new ArrayList<>(0);
+            }
+            dispatch();
+        }
+
+        private void onSourceFailure(final Throwable cause) {
+            ended = true;
+            ready.clear();
+            promise.tryFail(cause);
+        }
+
+        private void dispatch() {
+            while (!ready.isEmpty() && requests < options.window()) {
+                send(ready.poll());
+            }
+            if (ended) {
+                if (requests == 0) {
+                    promise.tryComplete(new BulkWriteResult(written, failed));
+                }
+            } else if (!ready.isEmpty()) {
+                if (!paused) {
+                    paused = true;
+                    source.pause();
+                }
+            } else if (paused) {
+                paused = false;
+                source.resume();
+            }
+        }
+
+        private void send(final List<BatchRecord> records) {
+            requests++;
+            try {
+                // the records carry their result codes whatever the outcome of the request
+                client.operate(options.batchPolicy(), records)
+                        .onComplete(ignored -> context.runOnContext(v -> onComplete(records)));
+            } catch (RuntimeException e) {
+                context.runOnContext(v -> onComplete(records));
+            }
+        }
+
+        private void onComplete(final List<BatchRecord> records) {
+            requests--;
+            for (final BatchRecord record : records) {
+                if (record.resultCode == ResultCode.OK) {
+                    written++;
+                } else {
+                    failed++;
+                    reportFailure(record);
+                }
+            }
+            dispatch();
+        }
+
+        private void reportFailure(final BatchRecord record) {
+            try {
+                failureHandler.handle(record);
+            } catch (RuntimeException e) {
+                // a faulty handler must not stall the load
+                context.reportException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package dev.slesh.vertx.aerospike.client.cache;
+
+import com.aerospike.client.Key;
+import com.aerospike.client.Record;
+import dev.slesh.vertx.aerospike.client.result.ReadValue;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LRU part of a near cache. Not thread safe, the owner takes care of confinement or locking.
+ */
+final class CacheSegment {
+    /**
+     * Aerospike expiration is counted in seconds from 2010-01-01T00:00:00Z.
+     */
+    private static final long CITRUSLEAF_EPOCH_MILLIS = 1262304000_000L;
+    /**
+     * How long an invalidation keeps out the responses of reads sent before it, longer than the default
+     * {@code totalTimeout} of aerospike reads. A response coming later than {@link NearCacheOptions#maxTtl()}
+     * would expire at once anyway.
+     */
+    private static final long TOMBSTONE_TTL_MILLIS = 5_000L;
+
+    private final Map<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    /**
+     * Kept apart from the entries, so they don't take the capacity of the cache. All of them live equally long,
+     * so the insertion order is the expiration order.
+     */
+    private final Map<Key, Tombstone> tombstones = new LinkedHashMap<>();
+    private final NearCacheOptions options;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+    private long weight;
+
+    CacheSegment(final NearCacheOptions options,
+                 final LongAdder hits,
+                 final LongAdder misses,
+                 final LongAdder evictions) {
+        this.options = options;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+    }
+
+    ReadValue get(final Key key, final long nowMillis) {
+        final Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.expiresAtMillis <= nowMillis) {
+            remove(key, entry);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value;
+    }
+
+    void put(final ReadValue value, final long stamp, final long nowMillis) {
+        final Record record = value.record();
+        final Tombstone tombstone = tombstones.get(value.key());
+        if (tombstone != null && tombstone.stamp > stamp && tombstone.expiresAtMillis > nowMillis) {
+            // the record was modified after the read was sent
+            return;
+        }
+        final Entry existing = entries.get(value.key());
+        if (existing != null) {
+            if (existing.value.record().generation > record.generation) {
+                // a newer generation is cached already
+                return;
+            }
+            remove(value.key(), existing);
+        }
+        final long expiresAtMillis = Math.min(
+                nowMillis + options.maxTtl().toMillis(),
+                record.expiration == 0 ? Long.MAX_VALUE : CITRUSLEAF_EPOCH_MILLIS + record.expiration * 1000L);
+        if (expiresAtMillis <= nowMillis) {
+            return;
+        }
+        add(value.key(), new Entry(value, expiresAtMillis, options.weigher().applyAsInt(value)));
+    }
+
+    void invalidate(final Key key, final long stamp, final long nowMillis) {
+        final Entry existing = entries.get(key);
+        if (existing != null) {
+            remove(key, existing);
+        }
+        final Iterator<Tombstone> eldest = tombstones.values().iterator();
+        while (eldest.hasNext() && eldest.next().expiresAtMillis <= nowMillis) {
+            eldest.remove();
+        }
+        // the tombstone keeps responses of reads sent before the invalidation out of the cache
+        tombstones.remove(key);
+        tombstones.put(key, new Tombstone(stamp,
+                nowMillis + Math.min(TOMBSTONE_TTL_MILLIS, options.maxTtl().toMillis())));
+    }
+
+    private void add(final Key key, final Entry entry) {
+        entries.put(key, entry);
+        weight += entry.weight;
+        final Iterator<Entry> eldest = entries.values().iterator();
+        while (weight > options.maxWeight() && eldest.hasNext()) {
+            final Entry evicted = eldest.next();
+            eldest.remove();
+            weight -= evicted.weight;
+            evictions.increment();
+        }
+    }
+
+    private void remove(final Key key, final Entry entry) {
+        entries.remove(key);
+        weight -= entry.weight;
+    }
+
+    private record Entry(ReadValue value, long expiresAtMillis, int weight) {
+    }
+
+    private record Tombstone(long stamp, long expiresAtMillis) {
+    }
+}
@@ -0,0 +1,78 @@
+package dev.slesh.vertx.aerospike.client.cache;
+
+import com.aerospike.client.Key;
+import dev.slesh.vertx.aerospike.client.result.ReadValue;
+import io.netty.channel.EventLoop;
+import io.vertx.core.impl.ContextInternal;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Near cache with a separate segment per vert.x event loop.
+ * <p>
+ * A segment is read and written only by its event loop thread, so no locks are taken.
+ * Invalidations are applied to the segment of the calling event loop immediately and
+ * posted as tasks to the other event loops. Calls made outside of an event loop are not cached.
+ */
+public class EventLoopNearCache implements NearCache {
+    private final Map<EventLoop, CacheSegment> segments = new ConcurrentHashMap<>();
+    private final NearCacheOptions options;
+    private final AtomicLong stamps = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public EventLoopNearCache(final NearCacheOptions options) {
+        this.options = Objects.requireNonNull(options, "options");
+    }
+
+    @Override
+    public ReadValue get(final Key key) {
+        final CacheSegment segment = segment();
+        return segment != null ? segment.get(key, System.currentTimeMillis()) : null;
+    }
+
+    @Override
+    public long stamp() {
+        return stamps.get();
+    }
+
+    @Override
+    public void put(final ReadValue value, final long stamp) {
+        final CacheSegment segment = segment();
+        if (segment != null) {
+            segment.put(value, stamp, System.currentTimeMillis());
+        }
+    }
+
+    @Override
+    public void invalidate(final Key key) {
+        final long stamp = stamps.incrementAndGet();
+        segments.forEach((eventLoop, segment) -> {
+            if (eventLoop.inEventLoop()) {
+                segment.invalidate(key, stamp, System.currentTimeMillis());
+            } else {
+                eventLoop.execute(() -> segment.invalidate(key, stamp, System.currentTimeMillis()));
+            }
+        });
+    }
+
+    @Override
+    public NearCacheStats stats() {
+        return new NearCacheStats(hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    private CacheSegment segment() {
+        final ContextInternal ctx = ContextInternal.current();
+        if (ctx == null || !ctx.isEventLoopContext() || !ctx.nettyEventLoop().inEventLoop()) {
+            return null;
+        }
+        final CacheSegment segment = segments.get(ctx.nettyEventLoop());
+        return segment != null ? segment : segments.computeIfAbsent(ctx.nettyEventLoop(),
+                ignored -> new CacheSegment(options, hits, misses, evictions));
+    }
+}
@@ -0,0 +1,28 @@
+package dev.slesh.vertx.aerospike.client.cache;
+
+import com.aerospike.client.Key;
+import dev.slesh.vertx.aerospike.client.result.ReadValue;
+
+/**
+ * Local storage of records used by {@link NearCacheAerospikeClient}.
+ * <p>
+ * Every invalidation advances a stamp. A read captures the stamp before it is sent to the server and passes it back
+ * with the result, so a response which raced with a write of the same record is never stored.
+ */
+public interface NearCache {
+    /**
+     * @return cached value or {@code null} if the record is absent, expired or invalidated
+     */
+    ReadValue get(Key key);
+
+    /**
+     * @return the stamp to pass to {@link #put(ReadValue, long)} once the read initiated now completes
+     */
+    long stamp();
+
+    void put(ReadValue value, long stamp);
+
+    void invalidate(Key key);
+
+    NearCacheStats stats();
+}
@@ -0,0 +1,201 @@
+package dev.slesh.vertx.aerospike.client.cache;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.BatchRecord;
+import com.aerospike.client.Bin;
+import com.aerospike.client.Key;
+import com.aerospike.client.Operation;
+import com.aerospike.client.Record;
+import com.aerospike.client.Value;
+import com.aerospike.client.policy.BatchDeletePolicy;
+import com.aerospike.client.policy.BatchPolicy;
+import com.aerospike.client.policy.BatchUDFPolicy;
+import com.aerospike.client.policy.BatchWritePolicy;
+import com.aerospike.client.policy.Policy;
+import com.aerospike.client.policy.WritePolicy;
+import dev.slesh.vertx.aerospike.client.AsyncAerospikeClient;
+import dev.slesh.vertx.aerospike.client.DelegatingAerospikeClient;
+import dev.slesh.vertx.aerospike.client.result.BatchOperateListValue;
+import dev.slesh.vertx.aerospike.client.result.BatchRecordArrayValue;
+import dev.slesh.vertx.aerospike.client.result.DeleteValue;
+import dev.slesh.vertx.aerospike.client.result.ExecuteValue;
+import dev.slesh.vertx.aerospike.client.result.ReadValue;
+import io.vertx.core.Future;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Read-through near cache in front of {@link AsyncAerospikeClient}.
+ * <p>
+ * Full record reads populate the {@link NearCache}. Projections, headers and existence checks are served from
+ * the cached record when it is present. Entries expire together with the record or after
+ * {@link NearCacheOptions#maxTtl()}, whichever comes first, and an older generation never replaces a newer one.
+ * <p>
+ * Every write made through this client invalidates the affected records once it completes. The invalidation leaves
+ * a short-lived tombstone, so the response of a read racing with the write is not stored either.
+ * Writes made by other clients are visible only after the entry expires.
+ * <p>
+ * Reads with a {@link Policy#filterExp} bypass the cache, the filter decides whether the record is returned.
+ * <p>
+ * Every read gets its own shallow copy of the bins map, so a caller may modify it, e.g. through the
+ * {@code JsonObject} of {@link dev.slesh.vertx.aerospike.client.codec.RecordCodecs#json}. The list and map values
+ * of the bins are shared with the cache and must not be modified.
+ */
+public class NearCacheAerospikeClient extends DelegatingAerospikeClient {
+    private final NearCache cache;
+
+    public NearCacheAerospikeClient(final AsyncAerospikeClient client, final NearCache cache) {
+        super(client);
+        this.cache = Objects.requireNonNull(cache, "cache");
+    }
+
+    public NearCacheStats stats() {
+        return cache.stats();
+    }
+
+    @Override
+    public Future<ReadValue> get(Policy policy, Key key) throws AerospikeException {
+        if (filtered(policy)) {
+            return client.get(policy, key);
+        }
+        final ReadValue cached = cache.get(key);
+        if (cached != null) {
+            return Future.succeededFuture(copy(cached));
+        }
+        final long stamp = cache.stamp();
+        return client.get(policy, key).onSuccess(value -> {
+            if (value.record() != null) {
+                cache.put(copy(value), stamp);
+            }
+        });
+    }
+
+    /**
+     * {@code null} or no bin names read all the bins, like {@link #get(Policy, Key)}.
+     */
+    @Override
+    public Future<ReadValue> get(Policy policy, Key key, String... binNames) throws AerospikeException {
+        if (binNames == null || binNames.length == 0) {
+            return get(policy, key);
+        }
+        final ReadValue cached = filtered(policy) ? null : cache.get(key);
+        if (cached != null) {
+            final Record record = cached.record();
+            final Map<String, Object> bins = new HashMap<>();
+            for (final String binName : binNames) {
+                final Object value = record.bins != null ? record.bins.get(binName) : null;
+                if (value != null) {
+                    bins.put(binName, value);
+                }
+            }
+            return Future.succeededFuture(new ReadValue(cached.key(), new Record(bins, record.generation, record.expiration)));
+        }
+        return client.get(policy, key, binNames);
+    }
+
+    @Override
+    public Future<ReadValue> getHeader(Policy policy, Key key) throws AerospikeException {
+        final ReadValue cached = filtered(policy) ? null : cache.get(key);
+        if (cached != null) {
+            final Record record = cached.record();
+            return Future.succeededFuture(new ReadValue(cached.key(), new Record(null, record.generation, record.expiration)));
+        }
+        return client.getHeader(policy, key);
+    }
+
+    @Override
+    public Future<Boolean> exists(Policy policy, Key key) throws AerospikeException {
+        return !filtered(policy) && cache.get(key) != null ? Future.succeededFuture(true) : client.exists(policy, key);
+    }
+
+    @Override
+    public Future<Key> put(WritePolicy policy, Key key, Bin... bins) throws AerospikeException {
+        return invalidateOnComplete(client.put(policy, key, bins), key);
+    }
+
+    @Override
+    public Future<Key> append(WritePolicy policy, Key key, Bin... bins) throws AerospikeException {
+        return invalidateOnComplete(client.append(policy, key, bins), key);
+    }
+
+    @Override
+    public Future<Key> prepend(WritePolicy policy, Key key, Bin... bins) throws AerospikeException {
+        return invalidateOnComplete(client.prepend(policy, key, bins), key);
+    }
+
+    @Override
+    public Future<Key> add(WritePolicy policy, Key key, Bin... bins) throws AerospikeException {
+        return invalidateOnComplete(client.add(policy, key, bins), key);
+    }
+
+    @Override
+    public Future<DeleteValue> delete(WritePolicy policy, Key key) throws AerospikeException {
+        return invalidateOnComplete(client.delete(policy, key), key);
+    }
+
+    @Override
+    public Future<BatchRecordArrayValue> delete(BatchPolicy batchPolicy, BatchDeletePolicy deletePolicy, Key[] keys) throws AerospikeException {
+        return client.delete(batchPolicy, deletePolicy, keys).onComplete(ignored -> invalidate(keys));
+    }
+
+    @Override
+    public Future<Key> touch(WritePolicy policy, Key key) throws AerospikeException {
+        return invalidateOnComplete(client.touch(policy, key), key);
+    }
+
+    @Override
+    public Future<ReadValue> operate(WritePolicy policy, Key key, Operation... operations) throws AerospikeException {
+        return invalidateOnComplete(client.operate(policy, key, operations), key);
+    }
+
+    @Override
+    public Future<BatchOperateListValue> operate(BatchPolicy policy, List<BatchRecord> records) throws AerospikeException {
+        return client.operate(policy, records).onComplete(ignored -> invalidate(records));
+    }
+
+    @Override
+    public Future<BatchRecordArrayValue> operate(BatchPolicy batchPolicy, BatchWritePolicy writePolicy, Key[] keys, Operation... ops) throws AerospikeException {
+        return client.operate(batchPolicy, writePolicy, keys, ops).onComplete(ignored -> invalidate(keys));
+    }
+
+    @Override
+    public Future<ExecuteValue> execute(WritePolicy policy, Key key, String packageName, String functionName, Value... args) throws AerospikeException {
+        return invalidateOnComplete(client.execute(policy, key, packageName, functionName, args), key);
+    }
+
+    @Override
+    public Future<BatchRecordArrayValue> execute(BatchPolicy batchPolicy, BatchUDFPolicy udfPolicy, Key[] keys, String packageName, String functionName, Value... args) throws AerospikeException {
+        return client.execute(batchPolicy, udfPolicy, keys, packageName, functionName, args).onComplete(ignored -> invalidate(keys));
+    }
+
+    private static ReadValue copy(final ReadValue value) {
+        final Record record = value.record();
+        final Map<String, Object> bins = record.bins != null ? new HashMap<>(record.bins) : null;
+        return new ReadValue(value.key(), new Record(bins, record.generation, record.expiration));
+    }
+
+    private static boolean filtered(final Policy policy) {
+        return policy != null && policy.filterExp != null;
+    }
+
+    private <T> Future<T> invalidateOnComplete(final Future<T> future, final Key key) {
+        return future.onComplete(ignored -> cache.invalidate(key));
+    }
+
+    private void invalidate(final Key[] keys) {
+        for (final Key key : keys) {
+            cache.invalidate(key);
+        }
+    }
+
+    private void invalidate(final List<BatchRecord> records) {
+        for (final BatchRecord record : records) {
+            if (record.hasWrite) {
+                cache.invalidate(record.key);
+            }
+        }
+    }
+}
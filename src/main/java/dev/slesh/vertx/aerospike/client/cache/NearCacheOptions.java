@@ -0,0 +1,29 @@
+package dev.slesh.vertx.aerospike.client.cache;
+
+import dev.slesh.vertx.aerospike.client.result.ReadValue;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.ToIntFunction;
+
+/**
+ * @param maxWeight the capacity of one cache segment (an event loop or a stripe)
+ * @param weigher   weight of an entry, counts entries by default
+ * @param maxTtl    upper bound of time an entry is served from the cache, regardless of the record expiration
+ */
+public record NearCacheOptions(long maxWeight, ToIntFunction<ReadValue> weigher, Duration maxTtl) {
+    public NearCacheOptions {
+        if (maxWeight < 1) {
+            throw new IllegalArgumentException("maxWeight must be positive: " + maxWeight);
+        }
+        Objects.requireNonNull(weigher, "weigher");
+        Objects.requireNonNull(maxTtl, "maxTtl");
+        if (maxTtl.isNegative() || maxTtl.isZero()) {
+            throw new IllegalArgumentException("maxTtl must be positive: " + maxTtl);
+        }
+    }
+
+    public NearCacheOptions(final long maxEntries, final Duration maxTtl) {
+        this(maxEntries, value -> 1, maxTtl);
+    }
+}
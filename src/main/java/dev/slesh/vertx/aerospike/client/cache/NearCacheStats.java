@@ -0,0 +1,4 @@
+package dev.slesh.vertx.aerospike.client.cache;
+
+public record NearCacheStats(long hits, long misses, long evictions) {
+}
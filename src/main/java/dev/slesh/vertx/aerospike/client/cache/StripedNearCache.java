@@ -0,0 +1,71 @@
+package dev.slesh.vertx.aerospike.client.cache;
+
+import com.aerospike.client.Key;
+import dev.slesh.vertx.aerospike.client.result.ReadValue;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Near cache shared by all the threads. Records are spread over the stripes by digest and every stripe
+ * has its own lock, so threads contend only when they touch the same stripe.
+ */
+public class StripedNearCache implements NearCache {
+    private final CacheSegment[] stripes;
+    private final AtomicLong stamps = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public StripedNearCache(final int stripes, final NearCacheOptions options) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("stripes must be positive: " + stripes);
+        }
+        Objects.requireNonNull(options, "options");
+        this.stripes = new CacheSegment[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new CacheSegment(options, hits, misses, evictions);
+        }
+    }
+
+    @Override
+    public ReadValue get(final Key key) {
+        final CacheSegment stripe = stripe(key);
+        synchronized (stripe) {
+            return stripe.get(key, System.currentTimeMillis());
+        }
+    }
+
+    @Override
+    public long stamp() {
+        return stamps.get();
+    }
+
+    @Override
+    public void put(final ReadValue value, final long stamp) {
+        final CacheSegment stripe = stripe(value.key());
+        synchronized (stripe) {
+            stripe.put(value, stamp, System.currentTimeMillis());
+        }
+    }
+
+    @Override
+    public void invalidate(final Key key) {
+        final long stamp = stamps.incrementAndGet();
+        final CacheSegment stripe = stripe(key);
+        synchronized (stripe) {
+            stripe.invalidate(key, stamp, System.currentTimeMillis());
+        }
+    }
+
+    @Override
+    public NearCacheStats stats() {
+        return new NearCacheStats(hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    private CacheSegment stripe(final Key key) {
+        return stripes[Math.floorMod(Arrays.hashCode(key.digest), stripes.length)];
+    }
+}
@@ -0,0 +1,117 @@
+package dev.slesh.vertx.aerospike.client.coalescing;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.Key;
+import com.aerospike.client.policy.Policy;
+import dev.slesh.vertx.aerospike.client.AsyncAerospikeClient;
+import dev.slesh.vertx.aerospike.client.DelegatingAerospikeClient;
+import dev.slesh.vertx.aerospike.client.result.ReadValue;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.impl.ContextInternal;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight decorator for single key reads.
+ * <p>
+ * Concurrent identical {@code get}, {@code getHeader} and {@code exists} calls share one in-flight request.
+ * Reads are considered identical when they target the same record (namespace, set and digest),
+ * request the same bins and use the same policy class. The in-flight entry is dropped as soon as
+ * the request completes, so nothing is cached.
+ * <p>
+ * The in-flight table belongs to the vert.x event loop context of the caller and is touched only from
+ * its thread, so there is no locking on the hot path. Calls made outside of an event loop context are
+ * passed to the wrapped client as is.
+ */
+public class CoalescingAerospikeClient extends DelegatingAerospikeClient {
+    private final Object inFlightKey = new Object();
+    private final LongAdder coalesced = new LongAdder();
+
+    public CoalescingAerospikeClient(final AsyncAerospikeClient client) {
+        super(client);
+    }
+
+    /**
+     * @return the number of reads which were served by joining an in-flight request
+     */
+    public long coalesced() {
+        return coalesced.sum();
+    }
+
+    @Override
+    public Future<Boolean> exists(Policy policy, Key key) throws AerospikeException {
+        return coalesce(new ReadKey(Kind.EXISTS, key, null, policyClass(policy)),
+                () -> client.exists(policy, key));
+    }
+
+    @Override
+    public Future<ReadValue> get(Policy policy, Key key) throws AerospikeException {
+        return coalesce(new ReadKey(Kind.GET, key, null, policyClass(policy)),
+                () -> client.get(policy, key));
+    }
+
+    @Override
+    public Future<ReadValue> get(Policy policy, Key key, String... binNames) throws AerospikeException {
+        return coalesce(new ReadKey(Kind.GET, key, binNames == null ? null : List.of(binNames), policyClass(policy)),
+                () -> client.get(policy, key, binNames));
+    }
+
+    @Override
+    public Future<ReadValue> getHeader(Policy policy, Key key) throws AerospikeException {
+        return coalesce(new ReadKey(Kind.HEADER, key, null, policyClass(policy)),
+                () -> client.getHeader(policy, key));
+    }
+
+    private <T> Future<T> coalesce(final ReadKey readKey, final Supplier<Future<T>> read) {
+        final ContextInternal ctx = ContextInternal.current();
+        if (ctx == null || !ctx.isEventLoopContext()) {
+            return read.get();
+        }
+        final Map<ReadKey, Future<?>> inFlight = inFlight(ctx);
+        @SuppressWarnings("unchecked") final Future<T> existing = (Future<T>) inFlight.get(readKey);
+        if (existing != null) {
+            coalesced.increment();
+            // the joiner must observe the result on its own context, not on the one of the first caller
+            final Promise<T> promise = ctx.promise();
+            existing.onComplete(promise);
+            return promise.future();
+        }
+        final Future<T> future = read.get();
+        if (!future.isComplete()) {
+            inFlight.put(readKey, future);
+            future.onComplete(ignored -> {
+                if (ctx.nettyEventLoop().inEventLoop()) {
+                    inFlight.remove(readKey, future);
+                } else {
+                    ctx.runOnContext(v -> inFlight.remove(readKey, future));
+                }
+            });
+        }
+        return future;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<ReadKey, Future<?>> inFlight(final ContextInternal ctx) {
+        // context data is shared by the duplicated contexts created for every request of the same event loop context
+        return (Map<ReadKey, Future<?>>) ctx.contextData().computeIfAbsent(inFlightKey, ignored -> new HashMap<>());
+    }
+
+    private static Class<?> policyClass(final Policy policy) {
+        return policy == null ? null : policy.getClass();
+    }
+
+    private enum Kind {
+        GET, HEADER, EXISTS
+    }
+
+    /**
+     * {@link Key} equality is based on namespace and digest, the digest covers the set name as well.
+     */
+    private record ReadKey(Kind kind, Key key, List<String> binNames, Class<?> policyClass) {
+    }
+}
@@ -0,0 +1,122 @@
+package dev.slesh.vertx.aerospike.client.codec;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Converts a bin value as returned by the aerospike client to a field value of one type and back.
+ * Integers come as {@code Long} and floating point numbers as {@code Double}, so they are narrowed on decoding.
+ */
+interface BinConverter {
+    Object decode(Object binValue);
+
+    Object encode(Object fieldValue);
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static BinConverter of(final Class<?> type) {
+        if (type == long.class || type == Long.class) {
+            return of(type, value -> ((Number) value).longValue(), 0L);
+        }
+        if (type == int.class || type == Integer.class) {
+            return of(type, value -> ((Number) value).intValue(), 0);
+        }
+        if (type == short.class || type == Short.class) {
+            return of(type, value -> ((Number) value).shortValue(), (short) 0);
+        }
+        if (type == byte.class || type == Byte.class) {
+            return of(type, value -> ((Number) value).byteValue(), (byte) 0);
+        }
+        if (type == double.class || type == Double.class) {
+            return of(type, value -> ((Number) value).doubleValue(), 0d);
+        }
+        if (type == float.class || type == Float.class) {
+            return of(type, value -> ((Number) value).floatValue(), 0f);
+        }
+        if (type == boolean.class || type == Boolean.class) {
+            // servers before 5.6 store booleans as integers
+            return of(type, value -> value instanceof Boolean ? value : ((Number) value).longValue() != 0, false);
+        }
+        if (type == String.class || type == byte[].class || type == List.class || type == Map.class
+                || type == Object.class) {
+            return of(type, value -> value, null);
+        }
+        if (type == Buffer.class) {
+            return of(type, value -> Buffer.buffer((byte[]) value), null, value -> ((Buffer) value).getBytes());
+        }
+        if (type == JsonObject.class) {
+            return of(type, value -> new JsonObject((Map<String, Object>) value), null, BinConverter::plain);
+        }
+        if (type == JsonArray.class) {
+            return of(type, value -> new JsonArray((List<Object>) value), null, BinConverter::plain);
+        }
+        if (type.isEnum()) {
+            return of(type, value -> Enum.valueOf((Class) type, (String) value), null, value -> ((Enum<?>) value).name());
+        }
+        throw new IllegalArgumentException("Unsupported bin type: " + type.getName());
+    }
+
+    /**
+     * @param missing the value of a missing bin, the default value of a primitive
+     */
+    private static BinConverter of(final Class<?> type,
+                                   final Function<Object, Object> decoder,
+                                   final Object missing) {
+        return of(type, decoder, missing, value -> value);
+    }
+
+    private static BinConverter of(final Class<?> type,
+                                   final Function<Object, Object> decoder,
+                                   final Object missing,
+                                   final Function<Object, Object> encoder) {
+        final Object absent = type.isPrimitive() ? missing : null;
+        return new BinConverter() {
+            @Override
+            public Object decode(final Object binValue) {
+                return binValue == null ? absent : decoder.apply(binValue);
+            }
+
+            @Override
+            public Object encode(final Object fieldValue) {
+                return fieldValue == null ? null : encoder.apply(fieldValue);
+            }
+        };
+    }
+
+    /**
+     * Unwraps the vert.x json types, so the aerospike client can pack nested values as maps and lists.
+     */
+    static Object plain(final Object value) {
+        if (value instanceof JsonObject json) {
+            final Map<String, Object> map = new LinkedHashMap<>(json.size());
+            json.getMap().forEach((name, nested) -> map.put(name, plain(nested)));
+            return map;
+        }
+        if (value instanceof JsonArray json) {
+            final List<Object> list = new ArrayList<>(json.size());
+            final List<?> values = json.getList();
+            values.forEach(nested -> list.add(plain(nested)));
+            return list;
+        }
+        if (value instanceof Buffer buffer) {
+            return buffer.getBytes();
+        }
+        if (value instanceof Map<?, ?> map) {
+            final Map<Object, Object> plain = new LinkedHashMap<>(map.size());
+            map.forEach((name, nested) -> plain.put(name, plain(nested)));
+            return plain;
+        }
+        if (value instanceof List<?> list) {
+            final List<Object> plain = new ArrayList<>(list.size());
+            list.forEach(nested -> plain.add(plain(nested)));
+            return plain;
+        }
+        return value;
+    }
+}
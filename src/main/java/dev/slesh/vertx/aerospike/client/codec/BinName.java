@@ -0,0 +1,16 @@
+package dev.slesh.vertx.aerospike.client.codec;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Overrides the bin of a field or a record component mapped by {@link RecordCodecs#of(Class)}, e.g. when
+ * the field name exceeds the 15 characters allowed for a bin name.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.RECORD_COMPONENT})
+public @interface BinName {
+    String value();
+}
@@ -0,0 +1,177 @@
+package dev.slesh.vertx.aerospike.client.codec;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.Bin;
+import com.aerospike.client.Record;
+import com.aerospike.client.ResultCode;
+import com.aerospike.client.Value;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps the bins to the components of a java record or to the fields of a class with a no-arg constructor.
+ * <p>
+ * The class is inspected once, when the codec is built, and the accessors are resolved to method handles,
+ * so decoding and encoding don't look anything up.
+ */
+final class ClassCodec<T> implements RecordCodec<T> {
+    private static final int MAX_BIN_NAME_LENGTH = 15;
+    private static final MethodType GETTER = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final String[] binNames;
+    private final BinConverter[] converters;
+    private final MethodHandle[] getters;
+    /**
+     * {@code null} for a java record, its canonical constructor takes the values instead
+     */
+    private final MethodHandle[] setters;
+    private final MethodHandle constructor;
+
+    private ClassCodec(final String[] binNames,
+                       final BinConverter[] converters,
+                       final MethodHandle[] getters,
+                       final MethodHandle[] setters,
+                       final MethodHandle constructor) {
+        this.binNames = binNames;
+        this.converters = converters;
+        this.getters = getters;
+        this.setters = setters;
+        this.constructor = constructor;
+    }
+
+    static <T> ClassCodec<T> of(final Class<T> type) {
+        try {
+            return type.isRecord() ? ofRecord(type) : ofClass(type);
+        } catch (IllegalAccessException | NoSuchMethodException e) {
+            throw new IllegalArgumentException("Can't map " + type.getName() + " to bins", e);
+        }
+    }
+
+    private static <T> ClassCodec<T> ofRecord(final Class<T> type)
+            throws IllegalAccessException, NoSuchMethodException {
+        final RecordComponent[] components = type.getRecordComponents();
+        final int size = components.length;
+        final String[] binNames = new String[size];
+        final BinConverter[] converters = new BinConverter[size];
+        final MethodHandle[] getters = new MethodHandle[size];
+        final Class<?>[] parameterTypes = new Class<?>[size];
+        for (int i = 0; i < size; i++) {
+            final RecordComponent component = components[i];
+            binNames[i] = binName(component.getName(), component.getAnnotation(BinName.class));
+            converters[i] = BinConverter.of(component.getType());
+            component.getAccessor().setAccessible(true);
+            getters[i] = MethodHandles.lookup().unreflect(component.getAccessor()).asType(GETTER);
+            parameterTypes[i] = component.getType();
+        }
+        final Constructor<T> canonical = type.getDeclaredConstructor(parameterTypes);
+        canonical.setAccessible(true);
+        final MethodHandle constructor = MethodHandles.lookup().unreflectConstructor(canonical)
+                .asSpreader(Object[].class, size)
+                .asType(MethodType.methodType(Object.class, Object[].class));
+        return new ClassCodec<>(unique(type, binNames), converters, getters, null, constructor);
+    }
+
+    private static <T> ClassCodec<T> ofClass(final Class<T> type)
+            throws IllegalAccessException, NoSuchMethodException {
+        final List<Field> fields = new ArrayList<>();
+        for (Class<?> declaring = type; declaring != Object.class; declaring = declaring.getSuperclass()) {
+            for (final Field field : declaring.getDeclaredFields()) {
+                final int modifiers = field.getModifiers();
+                if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers) && !field.isSynthetic()) {
+                    fields.add(field);
+                }
+            }
+        }
+        final int size = fields.size();
+        final String[] binNames = new String[size];
+        final BinConverter[] converters = new BinConverter[size];
+        final MethodHandle[] getters = new MethodHandle[size];
+        final MethodHandle[] setters = new MethodHandle[size];
+        for (int i = 0; i < size; i++) {
+            final Field field = fields.get(i);
+            binNames[i] = binName(field.getName(), field.getAnnotation(BinName.class));
+            converters[i] = BinConverter.of(field.getType());
+            field.setAccessible(true);
+            getters[i] = MethodHandles.lookup().unreflectGetter(field).asType(GETTER);
+            setters[i] = MethodHandles.lookup().unreflectSetter(field).asType(SETTER);
+        }
+        final Constructor<T> noArg = type.getDeclaredConstructor();
+        noArg.setAccessible(true);
+        final MethodHandle constructor = MethodHandles.lookup().unreflectConstructor(noArg)
+                .asType(MethodType.methodType(Object.class));
+        return new ClassCodec<>(unique(type, binNames), converters, getters, setters, constructor);
+    }
+
+    @Override
+    public String[] binNames() {
+        return binNames;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T decode(final Record record) {
+        final Map<String, Object> bins = record.bins;
+        try {
+            if (setters == null) {
+                final Object[] values = new Object[binNames.length];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = converters[i].decode(bins != null ? bins.get(binNames[i]) : null);
+                }
+                return (T) (Object) constructor.invokeExact(values);
+            }
+            final Object value = (Object) constructor.invokeExact();
+            for (int i = 0; i < setters.length; i++) {
+                setters[i].invokeExact(value, converters[i].decode(bins != null ? bins.get(binNames[i]) : null));
+            }
+            return (T) value;
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new AerospikeException(ResultCode.SERIALIZE_ERROR, e);
+        }
+    }
+
+    @Override
+    public Bin[] encode(final T value) {
+        final Bin[] bins = new Bin[binNames.length];
+        try {
+            for (int i = 0; i < bins.length; i++) {
+                final Object binValue = converters[i].encode((Object) getters[i].invokeExact((Object) value));
+                bins[i] = binValue != null ? new Bin(binNames[i], Value.get(binValue)) : Bin.asNull(binNames[i]);
+            }
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new AerospikeException(ResultCode.SERIALIZE_ERROR, e);
+        }
+        return bins;
+    }
+
+    private static String binName(final String name, final BinName annotation) {
+        final String binName = annotation != null ? annotation.value() : name;
+        if (binName.isEmpty() || binName.length() > MAX_BIN_NAME_LENGTH) {
+            throw new IllegalArgumentException("Bin name must have 1 to " + MAX_BIN_NAME_LENGTH
+                    + " characters, rename it with @BinName: " + binName);
+        }
+        return binName;
+    }
+
+    private static String[] unique(final Class<?> type, final String[] binNames) {
+        if (Arrays.stream(binNames).distinct().count() != binNames.length) {
+            throw new IllegalArgumentException("Duplicate bin names in " + type.getName() + ": "
+                    + Arrays.toString(binNames));
+        }
+        return binNames;
+    }
+}
@@ -0,0 +1,27 @@
+package dev.slesh.vertx.aerospike.client.codec;
+
+import com.aerospike.client.Bin;
+import com.aerospike.client.Record;
+
+/**
+ * Maps the bins of a record to a value of type {@code T} and back.
+ * <p>
+ * A codec is stateless and thread safe, build it once and reuse it, see {@link RecordCodecs}.
+ */
+public interface RecordCodec<T> {
+    /**
+     * @return the bins to read, {@code null} reads all of them, the array is shared and must not be modified
+     */
+    String[] binNames();
+
+    /**
+     * @param record not {@code null}, a missing record is not decoded
+     */
+    T decode(Record record);
+
+    /**
+     * @return the bins to write, a {@code null} value is written as {@link Bin#asNull}, which deletes the bin,
+     * so a put of the value leaves no stale bin behind
+     */
+    Bin[] encode(T value);
+}
@@ -0,0 +1,110 @@
+package dev.slesh.vertx.aerospike.client.codec;
+
+import com.aerospike.client.Bin;
+import com.aerospike.client.Record;
+import com.aerospike.client.Value;
+import io.netty.buffer.Unpooled;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Factories of {@link RecordCodec}.
+ * <pre>{@code
+ * record User(String name, int age, @BinName("lastLogin") long lastLoginMillis) {
+ * }
+ *
+ * aerospike.get(key, RecordCodecs.of(User.class)).onSuccess(user -> ...);
+ * aerospike.put(key, user, RecordCodecs.of(User.class));
+ * }</pre>
+ * The aerospike client parses the bins of a response into the map of a {@link Record} before the codec is called,
+ * so the codecs convert the values of that map in place: no intermediate json or reflection per call.
+ */
+public final class RecordCodecs {
+    private static final ClassValue<RecordCodec<?>> CLASS_CODECS = new ClassValue<>() {
+        @Override
+        protected RecordCodec<?> computeValue(final Class<?> type) {
+            return ClassCodec.of(type);
+        }
+    };
+
+    private RecordCodecs() {
+    }
+
+    /**
+     * Maps the bins to the components of a java record, or to the non static, non transient fields of a class
+     * with a no-arg constructor, bin names default to the field names, see {@link BinName}. Only the mapped bins
+     * are read. The codec is built once per class.
+     * <p>
+     * Supported types are primitives and their wrappers, {@link String}, {@code byte[]}, {@link List}, {@link Map},
+     * {@link Buffer}, {@link JsonObject}, {@link io.vertx.core.json.JsonArray} and enums stored by name.
+     * A missing bin decodes to {@code null}, or to the default value of a primitive.
+     *
+     * @throws IllegalArgumentException if the class has fields of other types or bin names longer than 15 characters
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> RecordCodec<T> of(final Class<T> type) {
+        return (RecordCodec<T>) CLASS_CODECS.get(Objects.requireNonNull(type, "type"));
+    }
+
+    /**
+     * Maps the bins to a {@link JsonObject} backed by the bins map of the record, nested maps and lists are
+     * wrapped lazily by vert.x. A {@code null} value is written as a bin delete.
+     *
+     * @param binNames the bins to read, none reads all of them
+     */
+    public static RecordCodec<JsonObject> json(final String... binNames) {
+        final String[] projection = binNames == null || binNames.length == 0 ? null : binNames.clone();
+        return new RecordCodec<>() {
+            @Override
+            public String[] binNames() {
+                return projection;
+            }
+
+            @Override
+            public JsonObject decode(final Record record) {
+                return record.bins != null ? new JsonObject(record.bins) : new JsonObject();
+            }
+
+            @Override
+            public Bin[] encode(final JsonObject value) {
+                final Bin[] bins = new Bin[value.size()];
+                int i = 0;
+                for (final Map.Entry<String, Object> entry : value) {
+                    final Object binValue = BinConverter.plain(entry.getValue());
+                    bins[i++] = binValue != null
+                            ? new Bin(entry.getKey(), Value.get(binValue))
+                            : Bin.asNull(entry.getKey());
+                }
+                return bins;
+            }
+        };
+    }
+
+    /**
+     * Maps a single blob bin, e.g. a serialized document, to a {@link Buffer} wrapping its bytes.
+     */
+    public static RecordCodec<Buffer> buffer(final String binName) {
+        final String[] projection = {Objects.requireNonNull(binName, "binName")};
+        return new RecordCodec<>() {
+            @Override
+            public String[] binNames() {
+                return projection;
+            }
+
+            @Override
+            public Buffer decode(final Record record) {
+                final Object bytes = record.getValue(binName);
+                return bytes != null ? Buffer.buffer(Unpooled.wrappedBuffer((byte[]) bytes)) : null;
+            }
+
+            @Override
+            public Bin[] encode(final Buffer value) {
+                return new Bin[]{new Bin(binName, value.getBytes())};
+            }
+        };
+    }
+}
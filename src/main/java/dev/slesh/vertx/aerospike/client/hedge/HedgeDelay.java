@@ -0,0 +1,42 @@
+package dev.slesh.vertx.aerospike.client.hedge;
+
+import java.time.Duration;
+
+/**
+ * Decides how long a read waits before a hedged attempt is sent.
+ */
+public interface HedgeDelay {
+    /**
+     * @return the delay in milliseconds, at least {@code 1}
+     */
+    long delayMillis();
+
+    /**
+     * Called with the latency of every first attempt.
+     */
+    default void record(final long latencyNanos) {
+    }
+
+    static HedgeDelay fixed(final Duration delay) {
+        final long millis = PercentileHedgeDelay.toMillis(delay, "delay");
+        return () -> millis;
+    }
+
+    /**
+     * Derives the delay from a latency percentile of the first attempts, e.g. hedging after p95 sends
+     * roughly 5% of reads twice and cuts the tail above it.
+     * <p>
+     * Latencies are collected in windows, the delay used during a window is the percentile of the previous one.
+     *
+     * @param percentile in range (0, 100)
+     * @param initial    the delay until the first window is complete
+     * @param min        the lower bound of the delay
+     * @param window     the length of the window
+     */
+    static HedgeDelay percentile(final double percentile,
+                                 final Duration initial,
+                                 final Duration min,
+                                 final Duration window) {
+        return new PercentileHedgeDelay(percentile, initial, min, window);
+    }
+}
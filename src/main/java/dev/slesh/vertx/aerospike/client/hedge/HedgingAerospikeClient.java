@@ -0,0 +1,207 @@
+package dev.slesh.vertx.aerospike.client.hedge;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.Key;
+import com.aerospike.client.Operation;
+import com.aerospike.client.policy.BatchPolicy;
+import com.aerospike.client.policy.Policy;
+import dev.slesh.vertx.aerospike.client.AsyncAerospikeClient;
+import dev.slesh.vertx.aerospike.client.DelegatingAerospikeClient;
+import dev.slesh.vertx.aerospike.client.result.ReadValue;
+import dev.slesh.vertx.aerospike.client.result.RecordArrayValue;
+import dev.slesh.vertx.aerospike.deadline.Deadline;
+import dev.slesh.vertx.aerospike.limiter.TokenBucket;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.impl.ContextInternal;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Speculative reads for the tail latency.
+ * <p>
+ * When a single key or a batch read by keys is not complete after {@link HedgingOptions#delay()}, the same read
+ * is sent once more with a copy of the policy which uses {@link HedgingOptions#replica()}, so it is likely to be
+ * served by another node. The first successful attempt completes the future and the other one is ignored.
+ * The read fails only when both attempts fail.
+ * <p>
+ * Hedged attempts are limited by {@link HedgingOptions#budget()} so a slow cluster is not flooded with
+ * duplicated reads. No hedge is sent once the {@link Deadline} of the caller's context has passed.
+ * Batch reads into a {@code List<BatchRead>} are not hedged since both attempts would write the results into
+ * the same {@code BatchRead} objects.
+ */
+public class HedgingAerospikeClient extends DelegatingAerospikeClient {
+    private final Vertx vertx;
+    private final HedgingOptions options;
+    private final TokenBucket budget;
+    private final LongAdder hedged = new LongAdder();
+    private final LongAdder won = new LongAdder();
+
+    public HedgingAerospikeClient(final AsyncAerospikeClient client,
+                                  final Vertx vertx,
+                                  final HedgingOptions options) {
+        super(client);
+        this.vertx = Objects.requireNonNull(vertx, "vertx");
+        this.options = Objects.requireNonNull(options, "options");
+        this.budget = new TokenBucket(options.budget(), options.burst());
+    }
+
+    /**
+     * @return the number of hedged attempts which were sent
+     */
+    public long hedged() {
+        return hedged.sum();
+    }
+
+    /**
+     * @return the number of hedged attempts which completed the read before the first attempt
+     */
+    public long won() {
+        return won.sum();
+    }
+
+    @Override
+    public Future<ReadValue> get(Policy policy, Key key) throws AerospikeException {
+        return hedge(() -> client.get(policy, key),
+                () -> client.get(hedgePolicy(policy), key));
+    }
+
+    @Override
+    public Future<ReadValue> get(Policy policy, Key key, String... binNames) throws AerospikeException {
+        return hedge(() -> client.get(policy, key, binNames),
+                () -> client.get(hedgePolicy(policy), key, binNames));
+    }
+
+    @Override
+    public Future<ReadValue> getHeader(Policy policy, Key key) throws AerospikeException {
+        return hedge(() -> client.getHeader(policy, key),
+                () -> client.getHeader(hedgePolicy(policy), key));
+    }
+
+    @Override
+    public Future<RecordArrayValue> get(BatchPolicy policy, Key[] keys) throws AerospikeException {
+        return hedge(() -> client.get(policy, keys),
+                () -> client.get(hedgePolicy(policy), keys));
+    }
+
+    @Override
+    public Future<RecordArrayValue> get(BatchPolicy policy, Key[] keys, String... binNames) throws AerospikeException {
+        return hedge(() -> client.get(policy, keys, binNames),
+                () -> client.get(hedgePolicy(policy), keys, binNames));
+    }
+
+    @Override
+    public Future<RecordArrayValue> get(BatchPolicy policy, Key[] keys, Operation... ops) throws AerospikeException {
+        return hedge(() -> client.get(policy, keys, ops),
+                () -> client.get(hedgePolicy(policy), keys, ops));
+    }
+
+    @Override
+    public Future<RecordArrayValue> getHeader(BatchPolicy policy, Key[] keys) throws AerospikeException {
+        return hedge(() -> client.getHeader(policy, keys),
+                () -> client.getHeader(hedgePolicy(policy), keys));
+    }
+
+    private Policy hedgePolicy(final Policy policy) {
+        final Policy copy = new Policy(policy != null ? policy : delegate().getReadPolicyDefault());
+        copy.replica = options.replica();
+        return copy;
+    }
+
+    private BatchPolicy hedgePolicy(final BatchPolicy policy) {
+        final BatchPolicy copy = new BatchPolicy(policy != null ? policy : delegate().getBatchPolicyDefault());
+        copy.replica = options.replica();
+        return copy;
+    }
+
+    private <T> Future<T> hedge(final Supplier<Future<T>> first, final Supplier<Future<T>> second) {
+        budget.deposit();
+        final long start = System.nanoTime();
+        final Future<T> future = first.get();
+        if (future.isComplete()) {
+            options.delay().record(System.nanoTime() - start);
+            return future;
+        }
+        final ContextInternal ctx = ContextInternal.current();
+        final Promise<T> promise = ctx != null ? ctx.promise() : Promise.promise();
+        final var hedge = new Hedge<T>(promise, second, start, Deadline.current());
+        // set from the caller context, so the timer fires on it and the hedged attempt is sent from there as well
+        hedge.timerId = vertx.setTimer(options.delay().delayMillis(), ignored -> hedge.fire());
+        future.onComplete(hedge::onFirst);
+        return hedge.promise.future();
+    }
+
+    private final class Hedge<T> {
+        private final Promise<T> promise;
+        private final Supplier<Future<T>> second;
+        private final long start;
+        private final Deadline deadline;
+        // attempts which may still complete the promise, the hedged one counts until its timer fires or is cancelled
+        private final AtomicInteger pending = new AtomicInteger(2);
+        private volatile long timerId;
+        private volatile Throwable failure;
+
+        private Hedge(final Promise<T> promise,
+                      final Supplier<Future<T>> second,
+                      final long start,
+                      final Deadline deadline) {
+            this.promise = promise;
+            this.second = second;
+            this.start = start;
+            this.deadline = deadline;
+        }
+
+        private void onFirst(final AsyncResult<T> result) {
+            options.delay().record(System.nanoTime() - start);
+            if (result.succeeded()) {
+                promise.tryComplete(result.result());
+            } else {
+                onFailure(result.cause());
+            }
+            if (vertx.cancelTimer(timerId)) {
+                onFailure(null);
+            }
+        }
+
+        private void fire() {
+            if (promise.future().isComplete() || deadline != null && deadline.expired() || !budget.tryAcquire()) {
+                onFailure(null);
+                return;
+            }
+            hedged.increment();
+            final Future<T> future;
+            try {
+                future = second.get();
+            } catch (RuntimeException e) {
+                onFailure(e);
+                return;
+            }
+            future.onComplete(result -> {
+                if (result.succeeded()) {
+                    if (promise.tryComplete(result.result())) {
+                        won.increment();
+                    }
+                } else {
+                    onFailure(result.cause());
+                }
+            });
+        }
+
+        /**
+         * @param cause {@code null} when the hedged attempt is not sent at all
+         */
+        private void onFailure(final Throwable cause) {
+            if (cause != null && failure == null) {
+                failure = cause;
+            }
+            if (pending.decrementAndGet() == 0) {
+                promise.tryFail(failure);
+            }
+        }
+    }
+}
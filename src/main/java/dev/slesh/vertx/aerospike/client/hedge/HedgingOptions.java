@@ -0,0 +1,35 @@
+package dev.slesh.vertx.aerospike.client.hedge;
+
+import com.aerospike.client.policy.Replica;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Tuning of {@link HedgingAerospikeClient}.
+ *
+ * @param delay   how long the first attempt runs alone
+ * @param budget  hedged attempts allowed per first attempt, e.g. {@code 0.05} adds 5% of extra load at most
+ * @param burst   hedged attempts allowed back to back when the budget is saved up
+ * @param replica replica algorithm of the hedged attempt, it should spread reads over the replicas
+ *                so the hedge is likely to go to another node than the first attempt
+ */
+public record HedgingOptions(HedgeDelay delay, double budget, int burst, Replica replica) {
+    public static final double DEFAULT_BUDGET = 0.05;
+    public static final int DEFAULT_BURST = 10;
+
+    public HedgingOptions {
+        Objects.requireNonNull(delay, "delay");
+        if (!(budget > 0 && budget <= 1)) {
+            throw new IllegalArgumentException("budget must be in range (0, 1]: " + budget);
+        }
+        if (burst < 1) {
+            throw new IllegalArgumentException("burst must be positive: " + burst);
+        }
+        Objects.requireNonNull(replica, "replica");
+    }
+
+    public HedgingOptions(final Duration delay) {
+        this(HedgeDelay.fixed(delay), DEFAULT_BUDGET, DEFAULT_BURST, Replica.MASTER_PROLES);
+    }
+}
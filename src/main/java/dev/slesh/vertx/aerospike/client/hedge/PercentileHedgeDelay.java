@@ -0,0 +1,74 @@
+package dev.slesh.vertx.aerospike.client.hedge;
+
+import dev.slesh.vertx.aerospike.metrics.Histogram;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+final class PercentileHedgeDelay implements HedgeDelay {
+    private static final int STRIPES = Runtime.getRuntime().availableProcessors();
+    private static final long NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final double percentile;
+    private final long minMillis;
+    private final long windowNanos;
+    private final AtomicReference<Window> window;
+    private volatile long delayMillis;
+
+    PercentileHedgeDelay(final double percentile,
+                         final Duration initial,
+                         final Duration min,
+                         final Duration window) {
+        if (!(percentile > 0 && percentile < 100)) {
+            throw new IllegalArgumentException("percentile must be in range (0, 100): " + percentile);
+        }
+        this.percentile = percentile;
+        this.minMillis = toMillis(min, "min");
+        this.delayMillis = Math.max(minMillis, toMillis(initial, "initial"));
+        Objects.requireNonNull(window, "window");
+        if (window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("window must be positive: " + window);
+        }
+        this.windowNanos = window.toNanos();
+        this.window = new AtomicReference<>(new Window(System.nanoTime()));
+    }
+
+    @Override
+    public long delayMillis() {
+        return delayMillis;
+    }
+
+    @Override
+    public void record(final long latencyNanos) {
+        final long now = System.nanoTime();
+        final Window current = window.get();
+        if (now - current.start >= windowNanos && window.compareAndSet(current, new Window(now))) {
+            // the thread which won the rotation publishes the delay of the next window
+            if (current.histogram.count() > 0) {
+                final long percentileNanos = current.histogram.valueAtPercentile(percentile);
+                delayMillis = Math.max(minMillis, (percentileNanos + NANOS_PER_MILLI - 1) / NANOS_PER_MILLI);
+            }
+        }
+        window.get().histogram.record(latencyNanos);
+    }
+
+    static long toMillis(final Duration duration, final String name) {
+        Objects.requireNonNull(duration, name);
+        if (duration.isNegative()) {
+            throw new IllegalArgumentException(name + " must not be negative: " + duration);
+        }
+        // vert.x timers fire after 1ms at the earliest
+        return Math.max(1, duration.toMillis());
+    }
+
+    private static final class Window {
+        private final long start;
+        private final Histogram histogram = new Histogram(STRIPES);
+
+        private Window(final long start) {
+            this.start = start;
+        }
+    }
+}
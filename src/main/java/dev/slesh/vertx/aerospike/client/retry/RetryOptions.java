@@ -0,0 +1,55 @@
+package dev.slesh.vertx.aerospike.client.retry;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Tuning of {@link RetryingAerospikeClient}.
+ *
+ * @param maxAttempts attempts per call including the first one
+ * @param baseDelay   the backoff before the first retry, it doubles with every next one
+ * @param maxDelay    the upper bound of the backoff
+ * @param deadline    time budget of a call including all its retries, a retry which would start after it
+ *                    is not made
+ * @param budget      retries allowed per call, e.g. {@code 0.1} adds 10% of extra load at most
+ * @param burst       retries allowed back to back when the budget is saved up
+ */
+public record RetryOptions(int maxAttempts,
+                           Duration baseDelay,
+                           Duration maxDelay,
+                           Duration deadline,
+                           double budget,
+                           int burst) {
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+    public static final Duration DEFAULT_BASE_DELAY = Duration.ofMillis(5);
+    public static final Duration DEFAULT_MAX_DELAY = Duration.ofMillis(200);
+    public static final Duration DEFAULT_DEADLINE = Duration.ofSeconds(1);
+    public static final double DEFAULT_BUDGET = 0.1;
+    public static final int DEFAULT_BURST = 100;
+
+    public RetryOptions {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be positive: " + maxAttempts);
+        }
+        requirePositive(baseDelay, "baseDelay");
+        requirePositive(maxDelay, "maxDelay");
+        requirePositive(deadline, "deadline");
+        if (!(budget > 0)) {
+            throw new IllegalArgumentException("budget must be positive: " + budget);
+        }
+        if (burst < 1) {
+            throw new IllegalArgumentException("burst must be positive: " + burst);
+        }
+    }
+
+    public RetryOptions() {
+        this(DEFAULT_MAX_ATTEMPTS, DEFAULT_BASE_DELAY, DEFAULT_MAX_DELAY, DEFAULT_DEADLINE, DEFAULT_BUDGET, DEFAULT_BURST);
+    }
+
+    private static void requirePositive(final Duration duration, final String name) {
+        Objects.requireNonNull(duration, name);
+        if (duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException(name + " must be positive: " + duration);
+        }
+    }
+}
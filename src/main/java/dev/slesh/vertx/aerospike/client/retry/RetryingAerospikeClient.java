@@ -0,0 +1,315 @@
+package dev.slesh.vertx.aerospike.client.retry;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.BatchRead;
+import com.aerospike.client.BatchRecord;
+import com.aerospike.client.Bin;
+import com.aerospike.client.Key;
+import com.aerospike.client.Operation;
+import com.aerospike.client.ResultCode;
+import com.aerospike.client.Value;
+import com.aerospike.client.policy.BatchDeletePolicy;
+import com.aerospike.client.policy.BatchPolicy;
+import com.aerospike.client.policy.BatchUDFPolicy;
+import com.aerospike.client.policy.BatchWritePolicy;
+import com.aerospike.client.policy.Policy;
+import com.aerospike.client.policy.WritePolicy;
+import dev.slesh.vertx.aerospike.client.AsyncAerospikeClient;
+import dev.slesh.vertx.aerospike.client.DelegatingAerospikeClient;
+import dev.slesh.vertx.aerospike.client.result.BatchOperateListValue;
+import dev.slesh.vertx.aerospike.client.result.BatchRecordArrayValue;
+import dev.slesh.vertx.aerospike.client.result.DeleteValue;
+import dev.slesh.vertx.aerospike.client.result.ExecuteValue;
+import dev.slesh.vertx.aerospike.client.result.ExistsArrayValue;
+import dev.slesh.vertx.aerospike.client.result.ReadValue;
+import dev.slesh.vertx.aerospike.client.result.RecordArrayValue;
+import dev.slesh.vertx.aerospike.deadline.Deadline;
+import dev.slesh.vertx.aerospike.deadline.DeadlineExceededException;
+import dev.slesh.vertx.aerospike.limiter.TokenBucket;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.impl.ContextInternal;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Retries commands which failed because of contention or overload after a backoff.
+ * <p>
+ * The aerospike client retries right away, which makes a hot key or an overloaded device even busier.
+ * This decorator waits on a vert.x timer instead: the backoff starts at {@link RetryOptions#baseDelay()},
+ * doubles with every retry up to {@link RetryOptions#maxDelay()} and half of it is random, so the retries
+ * of concurrent callers spread out. A call gives up when it has used {@link RetryOptions#maxAttempts()},
+ * when the next retry would start after its {@link RetryOptions#deadline()} or when the retry budget,
+ * shared by all the calls, is spent. The {@link Deadline} of the caller's context shortens the deadline of the call.
+ * <p>
+ * By default {@code KEY_BUSY}, {@code DEVICE_OVERLOAD}, {@code NO_MORE_CONNECTIONS} and {@code ASYNC_QUEUE_FULL}
+ * are retried since the command was not applied, and {@code TIMEOUT} is retried for idempotent commands or
+ * when the write is not in doubt. Streams, index and info commands are passed to the wrapped client as is.
+ * <p>
+ * The attempts are sent with a copy of the command's policy whose {@code maxRetries} is {@code 0}, so
+ * {@link RetryOptions#maxAttempts()} is the number of times a command is sent, not a multiple of it.
+ */
+public class RetryingAerospikeClient extends DelegatingAerospikeClient {
+    private final Vertx vertx;
+    private final RetryOptions options;
+    private final TokenBucket budget;
+    private final LongAdder retries = new LongAdder();
+
+    public RetryingAerospikeClient(final AsyncAerospikeClient client, final Vertx vertx) {
+        this(client, vertx, new RetryOptions());
+    }
+
+    public RetryingAerospikeClient(final AsyncAerospikeClient client,
+                                   final Vertx vertx,
+                                   final RetryOptions options) {
+        super(client);
+        this.vertx = Objects.requireNonNull(vertx, "vertx");
+        this.options = Objects.requireNonNull(options, "options");
+        this.budget = new TokenBucket(options.budget(), options.burst());
+    }
+
+    /**
+     * @return the number of retries which were made
+     */
+    public long retries() {
+        return retries.sum();
+    }
+
+    @Override
+    public Future<Key> put(WritePolicy policy, Key key, Bin... bins) throws AerospikeException {
+        return retry(true, policy, delegate()::getWritePolicyDefault, WritePolicy::new, p -> client.put(p, key, bins));
+    }
+
+    @Override
+    public Future<Key> append(WritePolicy policy, Key key, Bin... bins) throws AerospikeException {
+        return retry(false, policy, delegate()::getWritePolicyDefault, WritePolicy::new,
+                p -> client.append(p, key, bins));
+    }
+
+    @Override
+    public Future<Key> prepend(WritePolicy policy, Key key, Bin... bins) throws AerospikeException {
+        return retry(false, policy, delegate()::getWritePolicyDefault, WritePolicy::new,
+                p -> client.prepend(p, key, bins));
+    }
+
+    @Override
+    public Future<Key> add(WritePolicy policy, Key key, Bin... bins) throws AerospikeException {
+        return retry(false, policy, delegate()::getWritePolicyDefault, WritePolicy::new, p -> client.add(p, key, bins));
+    }
+
+    @Override
+    public Future<DeleteValue> delete(WritePolicy policy, Key key) throws AerospikeException {
+        return retry(true, policy, delegate()::getWritePolicyDefault, WritePolicy::new, p -> client.delete(p, key));
+    }
+
+    @Override
+    public Future<BatchRecordArrayValue> delete(BatchPolicy batchPolicy, BatchDeletePolicy deletePolicy, Key[] keys) throws AerospikeException {
+        return retry(true, batchPolicy, delegate()::getBatchParentPolicyWriteDefault, BatchPolicy::new,
+                p -> client.delete(p, deletePolicy, keys));
+    }
+
+    @Override
+    public Future<Key> touch(WritePolicy policy, Key key) throws AerospikeException {
+        return retry(true, policy, delegate()::getWritePolicyDefault, WritePolicy::new, p -> client.touch(p, key));
+    }
+
+    @Override
+    public Future<Boolean> exists(Policy policy, Key key) throws AerospikeException {
+        return retry(true, policy, delegate()::getReadPolicyDefault, Policy::new, p -> client.exists(p, key));
+    }
+
+    @Override
+    public Future<ExistsArrayValue> exists(BatchPolicy policy, Key[] keys) throws AerospikeException {
+        return retry(true, policy, delegate()::getBatchPolicyDefault, BatchPolicy::new, p -> client.exists(p, keys));
+    }
+
+    @Override
+    public Future<ReadValue> get(Policy policy, Key key) throws AerospikeException {
+        return retry(true, policy, delegate()::getReadPolicyDefault, Policy::new, p -> client.get(p, key));
+    }
+
+    @Override
+    public Future<ReadValue> get(Policy policy, Key key, String... binNames) throws AerospikeException {
+        return retry(true, policy, delegate()::getReadPolicyDefault, Policy::new, p -> client.get(p, key, binNames));
+    }
+
+    @Override
+    public Future<ReadValue> getHeader(Policy policy, Key key) throws AerospikeException {
+        return retry(true, policy, delegate()::getReadPolicyDefault, Policy::new, p -> client.getHeader(p, key));
+    }
+
+    @Override
+    public Future<List<BatchRead>> get(BatchPolicy policy, List<BatchRead> records) throws AerospikeException {
+        return retry(true, policy, delegate()::getBatchPolicyDefault, BatchPolicy::new, p -> client.get(p, records));
+    }
+
+    @Override
+    public Future<RecordArrayValue> get(BatchPolicy policy, Key[] keys) throws AerospikeException {
+        return retry(true, policy, delegate()::getBatchPolicyDefault, BatchPolicy::new, p -> client.get(p, keys));
+    }
+
+    @Override
+    public Future<RecordArrayValue> get(BatchPolicy policy, Key[] keys, String... binNames) throws AerospikeException {
+        return retry(true, policy, delegate()::getBatchPolicyDefault, BatchPolicy::new,
+                p -> client.get(p, keys, binNames));
+    }
+
+    @Override
+    public Future<RecordArrayValue> get(BatchPolicy policy, Key[] keys, Operation... ops) throws AerospikeException {
+        return retry(true, policy, delegate()::getBatchPolicyDefault, BatchPolicy::new, p -> client.get(p, keys, ops));
+    }
+
+    @Override
+    public Future<RecordArrayValue> getHeader(BatchPolicy policy, Key[] keys) throws AerospikeException {
+        return retry(true, policy, delegate()::getBatchPolicyDefault, BatchPolicy::new, p -> client.getHeader(p, keys));
+    }
+
+    @Override
+    public Future<ReadValue> operate(WritePolicy policy, Key key, Operation... operations) throws AerospikeException {
+        return retry(false, policy, delegate()::getWritePolicyDefault, WritePolicy::new,
+                p -> client.operate(p, key, operations));
+    }
+
+    @Override
+    public Future<BatchOperateListValue> operate(BatchPolicy policy, List<BatchRecord> records) throws AerospikeException {
+        return retry(false, policy, delegate()::getBatchParentPolicyWriteDefault, BatchPolicy::new,
+                p -> client.operate(p, records));
+    }
+
+    @Override
+    public Future<BatchRecordArrayValue> operate(BatchPolicy batchPolicy, BatchWritePolicy writePolicy, Key[] keys, Operation... ops) throws AerospikeException {
+        return retry(false, batchPolicy, delegate()::getBatchParentPolicyWriteDefault, BatchPolicy::new,
+                p -> client.operate(p, writePolicy, keys, ops));
+    }
+
+    @Override
+    public Future<ExecuteValue> execute(WritePolicy policy, Key key, String packageName, String functionName, Value... args) throws AerospikeException {
+        return retry(false, policy, delegate()::getWritePolicyDefault, WritePolicy::new,
+                p -> client.execute(p, key, packageName, functionName, args));
+    }
+
+    @Override
+    public Future<BatchRecordArrayValue> execute(BatchPolicy batchPolicy, BatchUDFPolicy udfPolicy, Key[] keys, String packageName, String functionName, Value... args) throws AerospikeException {
+        return retry(false, batchPolicy, delegate()::getBatchParentPolicyWriteDefault, BatchPolicy::new,
+                p -> client.execute(p, udfPolicy, keys, packageName, functionName, args));
+    }
+
+    /**
+     * @param idempotent {@code true} when applying the command twice has the same effect as applying it once
+     */
+    protected boolean retryable(final AerospikeException exception, final boolean idempotent) {
+        if (exception instanceof DeadlineExceededException) {
+            return false;
+        }
+        return switch (exception.getResultCode()) {
+            case ResultCode.KEY_BUSY,
+                    ResultCode.DEVICE_OVERLOAD,
+                    ResultCode.NO_MORE_CONNECTIONS,
+                    ResultCode.ASYNC_QUEUE_FULL -> true;
+            case ResultCode.TIMEOUT -> idempotent || !exception.getInDoubt();
+            default -> false;
+        };
+    }
+
+    private <P extends Policy, T> Future<T> retry(final boolean idempotent,
+                                                  final P policy,
+                                                  final Supplier<P> defaultPolicy,
+                                                  final UnaryOperator<P> copy,
+                                                  final Function<P, Future<T>> command) {
+        final P single = copy.apply(policy != null ? policy : defaultPolicy.get());
+        single.maxRetries = 0;
+        return retry(idempotent, () -> command.apply(single));
+    }
+
+    private <T> Future<T> retry(final boolean idempotent, final Supplier<Future<T>> command) {
+        budget.deposit();
+        final long start = System.nanoTime();
+        final Future<T> future = command.get();
+        if (future.succeeded()) {
+            return future;
+        }
+        final ContextInternal ctx = ContextInternal.current();
+        final long deadline = start + options.deadline().toNanos();
+        final Deadline callerDeadline = Deadline.current();
+        final var retry = new Retry<>(ctx, ctx != null ? ctx.promise() : Promise.<T>promise(), command, idempotent,
+                callerDeadline == null ? deadline : Math.min(deadline, System.nanoTime() + callerDeadline.remainingNanos()));
+        future.onComplete(retry);
+        return retry.promise.future();
+    }
+
+    private final class Retry<T> implements Handler<AsyncResult<T>> {
+        private final ContextInternal ctx;
+        private final Promise<T> promise;
+        private final Supplier<Future<T>> command;
+        private final boolean idempotent;
+        private final long deadline;
+        private int attempts = 1;
+
+        private Retry(final ContextInternal ctx,
+                      final Promise<T> promise,
+                      final Supplier<Future<T>> command,
+                      final boolean idempotent,
+                      final long deadline) {
+            this.ctx = ctx;
+            this.promise = promise;
+            this.command = command;
+            this.idempotent = idempotent;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public void handle(final AsyncResult<T> result) {
+            if (result.succeeded()) {
+                promise.complete(result.result());
+                return;
+            }
+            final long delayMillis = backoffMillis();
+            if (attempts >= options.maxAttempts()
+                    || !(result.cause() instanceof AerospikeException exception)
+                    || !retryable(exception, idempotent)
+                    || System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis) >= deadline
+                    || !budget.tryAcquire()) {
+                promise.fail(result.cause());
+                return;
+            }
+            attempts++;
+            retries.increment();
+            if (ctx == null || ctx.nettyEventLoop().inEventLoop()) {
+                vertx.setTimer(delayMillis, ignored -> attempt());
+            } else {
+                // the timer fires on the context which sets it, the retry is made from the caller's one
+                ctx.runOnContext(v -> vertx.setTimer(delayMillis, ignored -> attempt()));
+            }
+        }
+
+        private void attempt() {
+            final Future<T> future;
+            try {
+                future = command.get();
+            } catch (RuntimeException e) {
+                promise.fail(e);
+                return;
+            }
+            future.onComplete(this);
+        }
+
+        /**
+         * Half of the exponential backoff is fixed and half is random.
+         */
+        private long backoffMillis() {
+            final long base = options.baseDelay().toMillis() << Math.min(attempts - 1, 30);
+            final long cap = Math.max(2, Math.min(options.maxDelay().toMillis(), base));
+            return cap / 2 + ThreadLocalRandom.current().nextLong(cap - cap / 2 + 1);
+        }
+    }
+}
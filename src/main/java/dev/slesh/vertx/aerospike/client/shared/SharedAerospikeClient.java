@@ -0,0 +1,67 @@
+package dev.slesh.vertx.aerospike.client.shared;
+
+import dev.slesh.vertx.aerospike.client.AsyncAerospikeClient;
+import dev.slesh.vertx.aerospike.client.DelegatingAerospikeClient;
+import io.vertx.core.Closeable;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.impl.ContextInternal;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A reference to a client of {@link SharedAerospikeClients}.
+ * <p>
+ * It is released when closed or when the verticle which acquired it is undeployed, the underlying client
+ * is closed once the last reference is released.
+ */
+public class SharedAerospikeClient extends DelegatingAerospikeClient implements Closeable {
+    private final SharedAerospikeClients.Holder holder;
+    private final ContextInternal owner;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    SharedAerospikeClient(final AsyncAerospikeClient client,
+                          final SharedAerospikeClients.Holder holder,
+                          final ContextInternal owner) {
+        super(client);
+        this.holder = holder;
+        this.owner = owner;
+    }
+
+    public Future<Void> close() {
+        final Promise<Void> promise = Promise.promise();
+        close(promise);
+        return promise.future();
+    }
+
+    /**
+     * Releases this reference, the other verticles keep using the client. It is drained once the last reference
+     * is released.
+     */
+    @Override
+    public Future<Void> drain() {
+        return close();
+    }
+
+    /**
+     * Releases this reference like {@link #drain()}, the timeout of the shared client is used.
+     */
+    @Override
+    public Future<Void> shutdown(final Vertx vertx, final Duration timeout) {
+        return close();
+    }
+
+    @Override
+    public void close(final Promise<Void> completion) {
+        if (!closed.compareAndSet(false, true)) {
+            completion.complete();
+            return;
+        }
+        if (owner != null) {
+            owner.removeCloseHook(this);
+        }
+        holder.release().onComplete(completion);
+    }
+}
@@ -0,0 +1,116 @@
+package dev.slesh.vertx.aerospike.client.shared;
+
+import com.aerospike.client.Host;
+import com.aerospike.client.policy.ClientPolicy;
+import dev.slesh.vertx.aerospike.client.AsyncAerospikeClient;
+import dev.slesh.vertx.aerospike.client.bootstrap.AerospikeBootstrap;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.impl.ContextInternal;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Registry of clients shared by the verticles of one vert.x instance.
+ * <p>
+ * Every verticle instance which builds its own {@code AerospikeClient} adds a tend thread and connection pools
+ * to every node. Instead, the verticles acquire the client by name: the first one creates it, the others get a
+ * reference to the same one, and the client is closed when the last reference is released.
+ * <pre>{@code
+ * SharedAerospikeClients.createShared(vertx, "users", clientPolicy, new Host("localhost", 3000))
+ *         .onSuccess(client -> this.aerospike = client);
+ * }</pre>
+ * The client is created by {@link AerospikeBootstrap}. The client policy and hosts given by the first caller
+ * of a name are used, the ones of the following callers are ignored. When the last reference is released, the
+ * commands in flight are drained for up to 10 seconds before the client is closed.
+ */
+public final class SharedAerospikeClients {
+    private static final String MAP_NAME = "__dev.slesh.vertx.aerospike.clients";
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(10);
+
+    private SharedAerospikeClients() {
+    }
+
+    /**
+     * When called from a verticle, the reference is released on its undeploy.
+     *
+     * @param policy its event loops are replaced by the ones of vert.x
+     */
+    public static Future<SharedAerospikeClient> createShared(final Vertx vertx,
+                                                             final String name,
+                                                             final ClientPolicy policy,
+                                                             final Host... hosts) {
+        Objects.requireNonNull(vertx, "vertx");
+        Objects.requireNonNull(policy, "policy");
+        return createShared(vertx, name, () -> AerospikeBootstrap.create(vertx, policy, hosts));
+    }
+
+    /**
+     * @param factory creates the client when the name is acquired first
+     */
+    static Future<SharedAerospikeClient> createShared(final Vertx vertx,
+                                                      final String name,
+                                                      final Supplier<Future<AsyncAerospikeClient>> factory) {
+        Objects.requireNonNull(name, "name");
+        final LocalMap<String, Holder> clients = vertx.sharedData().getLocalMap(MAP_NAME);
+        final Holder holder = clients.compute(name, (ignored, existing) -> {
+            final Holder acquired = existing != null ? existing : new Holder(vertx, clients, name, factory);
+            acquired.references++;
+            return acquired;
+        });
+        final ContextInternal owner = ContextInternal.current();
+        return holder.client.transform(created -> {
+            if (created.failed()) {
+                return holder.release()
+                        .transform(ignored -> Future.<SharedAerospikeClient>failedFuture(created.cause()));
+            }
+            final var shared = new SharedAerospikeClient(created.result(), holder, owner);
+            if (owner != null) {
+                owner.addCloseHook(shared);
+            }
+            return Future.<SharedAerospikeClient>succeededFuture(shared);
+        });
+    }
+
+    /**
+     * Entry of the local map, the reference count is changed under the lock of the map entry only.
+     */
+    static final class Holder implements Shareable {
+        private final Vertx vertx;
+        private final LocalMap<String, Holder> clients;
+        private final String name;
+        private final Future<AsyncAerospikeClient> client;
+        private int references;
+
+        private Holder(final Vertx vertx,
+                       final LocalMap<String, Holder> clients,
+                       final String name,
+                       final Supplier<Future<AsyncAerospikeClient>> factory) {
+            this.vertx = vertx;
+            this.clients = clients;
+            this.name = name;
+            this.client = factory.get();
+        }
+
+        Future<Void> release() {
+            final boolean[] last = {false};
+            clients.computeIfPresent(name, (ignored, existing) -> {
+                if (existing != this) {
+                    return existing;
+                }
+                last[0] = --references == 0;
+                return last[0] ? null : this;
+            });
+            if (!last[0]) {
+                return Future.succeededFuture();
+            }
+            return client.transform(created -> created.failed()
+                    ? Future.<Void>succeededFuture()
+                    : created.result().shutdown(vertx, DRAIN_TIMEOUT));
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package dev.slesh.vertx.aerospike.client.split;
+
+import com.aerospike.client.AerospikeException;
+
+import java.util.List;
+
+/**
+ * Fails a split batch when some of its chunks fail. The results of the other chunks are still available.
+ */
+public class BatchSplitException extends AerospikeException {
+    private final transient Object partialValue;
+    private final transient List<ChunkFailure> failures;
+
+    public BatchSplitException(final Object partialValue, final List<ChunkFailure> failures) {
+        super(failures.get(0).cause().getResultCode(),
+                failures.size() + " chunk(s) of the batch failed", failures.get(0).cause());
+        this.partialValue = partialValue;
+        this.failures = List.copyOf(failures);
+    }
+
+    /**
+     * @return the value the batch would complete with, e.g. {@link dev.slesh.vertx.aerospike.client.result.RecordArrayValue},
+     * the results of the failed chunks are {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V partialValue() {
+        return (V) partialValue;
+    }
+
+    public List<ChunkFailure> failures() {
+        return failures;
+    }
+}
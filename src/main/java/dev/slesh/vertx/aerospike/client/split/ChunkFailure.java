@@ -0,0 +1,13 @@
+package dev.slesh.vertx.aerospike.client.split;
+
+import com.aerospike.client.AerospikeException;
+
+/**
+ * A chunk of a split batch which failed.
+ *
+ * @param offset index of the first key of the chunk in the original batch
+ * @param length number of keys in the chunk
+ * @param cause  the failure of the chunk
+ */
+public record ChunkFailure(int offset, int length, AerospikeException cause) {
+}
@@ -0,0 +1,297 @@
+package dev.slesh.vertx.aerospike.client.split;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.BatchRecord;
+import com.aerospike.client.Key;
+import com.aerospike.client.Operation;
+import com.aerospike.client.Record;
+import com.aerospike.client.Value;
+import com.aerospike.client.policy.BatchDeletePolicy;
+import com.aerospike.client.policy.BatchPolicy;
+import com.aerospike.client.policy.BatchUDFPolicy;
+import com.aerospike.client.policy.BatchWritePolicy;
+import dev.slesh.vertx.aerospike.client.AsyncAerospikeClient;
+import dev.slesh.vertx.aerospike.client.DelegatingAerospikeClient;
+import dev.slesh.vertx.aerospike.client.result.BatchRecordArrayValue;
+import dev.slesh.vertx.aerospike.client.result.ExistsArrayValue;
+import dev.slesh.vertx.aerospike.client.result.RecordArrayValue;
+import dev.slesh.vertx.aerospike.deadline.Deadline;
+import dev.slesh.vertx.aerospike.deadline.DeadlineExceededException;
+import dev.slesh.vertx.aerospike.future.PromiseSelector;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Splits batches by keys which are larger than {@link SplittingOptions#chunkSize()} into chunks.
+ * <p>
+ * The chunks are sent through the wrapped client, at most {@link SplittingOptions#maxConcurrency()} of them at
+ * the same time, and their results are merged back in the order of the original keys.
+ * When some chunks fail the future fails with {@link BatchSplitException} which carries the failed chunks
+ * and the merged results of the others. Chunks which are not sent yet when the {@link Deadline} of the caller's
+ * context passes fail with {@link DeadlineExceededException}.
+ * <p>
+ * Batches which fit into one chunk and all the other operations are passed to the wrapped client as is.
+ * <p>
+ * The event loops of the chunks are picked by the selector of the wrapped client, so the chunks are spread over
+ * the loops only by a selector which doesn't follow the caller, e.g.
+ * {@link dev.slesh.vertx.aerospike.eventloop.NextEventLoopSelector} or
+ * {@link dev.slesh.vertx.aerospike.eventloop.LeastLoadedEventLoop}. With
+ * {@link dev.slesh.vertx.aerospike.eventloop.ContextEventLoop}, the default of
+ * {@link dev.slesh.vertx.aerospike.client.bootstrap.AerospikeBootstrap}, all the chunks of a call run on the event
+ * loop of the caller: they are still bounded and merged, but their responses are parsed on that one loop.
+ */
+public class SplittingAerospikeClient extends DelegatingAerospikeClient {
+    private final PromiseSelector promiseSelector;
+    private final SplittingOptions options;
+
+    public SplittingAerospikeClient(final AsyncAerospikeClient client,
+                                    final PromiseSelector promiseSelector) {
+        this(client, promiseSelector, new SplittingOptions());
+    }
+
+    public SplittingAerospikeClient(final AsyncAerospikeClient client,
+                                    final PromiseSelector promiseSelector,
+                                    final SplittingOptions options) {
+        super(client);
+        this.promiseSelector = Objects.requireNonNull(promiseSelector, "promiseSelector");
+        this.options = Objects.requireNonNull(options, "options");
+    }
+
+    @Override
+    public Future<BatchRecordArrayValue> delete(BatchPolicy batchPolicy, BatchDeletePolicy deletePolicy, Key[] keys) throws AerospikeException {
+        if (keys.length <= options.chunkSize()) {
+            return client.delete(batchPolicy, deletePolicy, keys);
+        }
+        return new BatchRecordSplit(keys, chunk -> client.delete(batchPolicy, deletePolicy, chunk)).start();
+    }
+
+    @Override
+    public Future<ExistsArrayValue> exists(BatchPolicy policy, Key[] keys) throws AerospikeException {
+        if (keys.length <= options.chunkSize()) {
+            return client.exists(policy, keys);
+        }
+        return new ExistsSplit(keys, chunk -> client.exists(policy, chunk)).start();
+    }
+
+    @Override
+    public Future<RecordArrayValue> get(BatchPolicy policy, Key[] keys) throws AerospikeException {
+        if (keys.length <= options.chunkSize()) {
+            return client.get(policy, keys);
+        }
+        return new RecordSplit(keys, chunk -> client.get(policy, chunk)).start();
+    }
+
+    @Override
+    public Future<RecordArrayValue> get(BatchPolicy policy, Key[] keys, String... binNames) throws AerospikeException {
+        if (keys.length <= options.chunkSize()) {
+            return client.get(policy, keys, binNames);
+        }
+        return new RecordSplit(keys, chunk -> client.get(policy, chunk, binNames)).start();
+    }
+
+    @Override
+    public Future<RecordArrayValue> get(BatchPolicy policy, Key[] keys, Operation... ops) throws AerospikeException {
+        if (keys.length <= options.chunkSize()) {
+            return client.get(policy, keys, ops);
+        }
+        return new RecordSplit(keys, chunk -> client.get(policy, chunk, ops)).start();
+    }
+
+    @Override
+    public Future<RecordArrayValue> getHeader(BatchPolicy policy, Key[] keys) throws AerospikeException {
+        if (keys.length <= options.chunkSize()) {
+            return client.getHeader(policy, keys);
+        }
+        return new RecordSplit(keys, chunk -> client.getHeader(policy, chunk)).start();
+    }
+
+    @Override
+    public Future<BatchRecordArrayValue> operate(BatchPolicy batchPolicy, BatchWritePolicy writePolicy, Key[] keys, Operation... ops) throws AerospikeException {
+        if (keys.length <= options.chunkSize()) {
+            return client.operate(batchPolicy, writePolicy, keys, ops);
+        }
+        return new BatchRecordSplit(keys, chunk -> client.operate(batchPolicy, writePolicy, chunk, ops)).start();
+    }
+
+    @Override
+    public Future<BatchRecordArrayValue> execute(BatchPolicy batchPolicy, BatchUDFPolicy udfPolicy, Key[] keys, String packageName, String functionName, Value... args) throws AerospikeException {
+        if (keys.length <= options.chunkSize()) {
+            return client.execute(batchPolicy, udfPolicy, keys, packageName, functionName, args);
+        }
+        return new BatchRecordSplit(keys,
+                chunk -> client.execute(batchPolicy, udfPolicy, chunk, packageName, functionName, args)).start();
+    }
+
+    /**
+     * Chunks write their results into disjoint ranges of the merged arrays, the last completed chunk
+     * publishes them since every chunk passes the {@code remaining} counter.
+     *
+     * @param <C> the result of a chunk
+     * @param <V> the merged result
+     */
+    private abstract class Split<C, V> {
+        final Key[] keys;
+        private final Function<Key[], Future<C>> sender;
+        private final int chunks;
+        private final AtomicInteger next = new AtomicInteger();
+        private final AtomicInteger sends = new AtomicInteger();
+        private final AtomicInteger remaining;
+        private final ConcurrentLinkedQueue<ChunkFailure> failures = new ConcurrentLinkedQueue<>();
+        private final Promise<V> promise = promiseSelector.select();
+        private final Deadline deadline = Deadline.current();
+
+        Split(final Key[] keys, final Function<Key[], Future<C>> sender) {
+            this.keys = keys;
+            this.sender = sender;
+            this.chunks = (keys.length + options.chunkSize() - 1) / options.chunkSize();
+            this.remaining = new AtomicInteger(chunks);
+        }
+
+        Future<V> start() {
+            for (int i = Math.min(chunks, options.maxConcurrency()); i > 0; i--) {
+                sendNext();
+            }
+            return promise.future();
+        }
+
+        abstract void merge(int offset, C value);
+
+        /**
+         * Called for a chunk which failed before its results are merged.
+         */
+        void failed() {
+        }
+
+        abstract V value();
+
+        /**
+         * A chunk which fails at once, e.g. after the deadline, sends the next one from within this call.
+         * The nested call only counts the send for the loop of the outer one, so the stack doesn't grow with chunks.
+         */
+        private void sendNext() {
+            if (sends.getAndIncrement() != 0) {
+                return;
+            }
+            do {
+                send();
+            } while (sends.decrementAndGet() != 0);
+        }
+
+        private void send() {
+            final int chunk = next.getAndIncrement();
+            if (chunk >= chunks) {
+                return;
+            }
+            final int offset = chunk * options.chunkSize();
+            final int length = Math.min(options.chunkSize(), keys.length - offset);
+            if (deadline != null && deadline.expired()) {
+                done(offset, length, null, new DeadlineExceededException());
+                return;
+            }
+            final Future<C> future;
+            try {
+                future = sender.apply(Arrays.copyOfRange(keys, offset, offset + length));
+            } catch (RuntimeException e) {
+                done(offset, length, null, e);
+                return;
+            }
+            future.onComplete(ar -> done(offset, length, ar.result(), ar.cause()));
+        }
+
+        private void done(final int offset, final int length, final C value, final Throwable failure) {
+            if (failure != null) {
+                failures.add(new ChunkFailure(offset, length, failure instanceof AerospikeException exception
+                        ? exception
+                        : new AerospikeException(failure)));
+                failed();
+            } else {
+                merge(offset, value);
+            }
+            if (remaining.decrementAndGet() == 0) {
+                if (failures.isEmpty()) {
+                    promise.complete(value());
+                } else {
+                    final List<ChunkFailure> failed = failures.stream()
+                            .sorted((left, right) -> Integer.compare(left.offset(), right.offset()))
+                            .toList();
+                    promise.fail(new BatchSplitException(value(), failed));
+                }
+            } else {
+                sendNext();
+            }
+        }
+    }
+
+    private final class RecordSplit extends Split<RecordArrayValue, RecordArrayValue> {
+        private final Record[] records;
+
+        RecordSplit(final Key[] keys, final Function<Key[], Future<RecordArrayValue>> sender) {
+            super(keys, sender);
+            this.records = new Record[keys.length];
+        }
+
+        @Override
+        void merge(final int offset, final RecordArrayValue value) {
+            System.arraycopy(value.records(), 0, records, offset, value.records().length);
+        }
+
+        @Override
+        RecordArrayValue value() {
+            return new RecordArrayValue(keys, records);
+        }
+    }
+
+    private final class ExistsSplit extends Split<ExistsArrayValue, ExistsArrayValue> {
+        private final boolean[] exists;
+
+        ExistsSplit(final Key[] keys, final Function<Key[], Future<ExistsArrayValue>> sender) {
+            super(keys, sender);
+            this.exists = new boolean[keys.length];
+        }
+
+        @Override
+        void merge(final int offset, final ExistsArrayValue value) {
+            System.arraycopy(value.exists(), 0, exists, offset, value.exists().length);
+        }
+
+        @Override
+        ExistsArrayValue value() {
+            return new ExistsArrayValue(keys, exists);
+        }
+    }
+
+    private final class BatchRecordSplit extends Split<BatchRecordArrayValue, BatchRecordArrayValue> {
+        private final BatchRecord[] records;
+        private volatile boolean status = true;
+
+        BatchRecordSplit(final Key[] keys, final Function<Key[], Future<BatchRecordArrayValue>> sender) {
+            super(keys, sender);
+            this.records = new BatchRecord[keys.length];
+        }
+
+        @Override
+        void merge(final int offset, final BatchRecordArrayValue value) {
+            System.arraycopy(value.records(), 0, records, offset, value.records().length);
+            if (!value.exists()) {
+                status = false;
+            }
+        }
+
+        @Override
+        void failed() {
+            status = false;
+        }
+
+        @Override
+        BatchRecordArrayValue value() {
+            return new BatchRecordArrayValue(records, status);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package dev.slesh.vertx.aerospike.client.split;
+
+/**
+ * Tuning of {@link SplittingAerospikeClient}.
+ *
+ * @param chunkSize      the most keys sent in one batch request, larger batches are split
+ * @param maxConcurrency the most chunks of one batch in flight at the same time
+ */
+public record SplittingOptions(int chunkSize, int maxConcurrency) {
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+    public static final int DEFAULT_MAX_CONCURRENCY = 8;
+
+    public SplittingOptions {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+        }
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be positive: " + maxConcurrency);
+        }
+    }
+
+    public SplittingOptions() {
+        this(DEFAULT_CHUNK_SIZE, DEFAULT_MAX_CONCURRENCY);
+    }
+}
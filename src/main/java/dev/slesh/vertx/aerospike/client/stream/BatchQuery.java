@@ -0,0 +1,113 @@
+package dev.slesh.vertx.aerospike.client.stream;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.BatchRead;
+import com.aerospike.client.BatchRecord;
+import com.aerospike.client.IAerospikeClient;
+import com.aerospike.client.Key;
+import com.aerospike.client.Record;
+import com.aerospike.client.async.EventLoop;
+import com.aerospike.client.listener.BatchRecordSequenceListener;
+import com.aerospike.client.listener.BatchSequenceListener;
+import com.aerospike.client.listener.RecordSequenceListener;
+import com.aerospike.client.policy.BatchPolicy;
+import com.aerospike.client.query.KeyRecord;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Issues one chunk of a batch used by {@link BatchStream}.
+ */
+@FunctionalInterface
+public interface BatchQuery<T> {
+    /**
+     * @param offset index of the first item of the chunk in the batch
+     * @param length number of items in the chunk
+     */
+    void query(EventLoop eventLoop, Listener<T> listener, int offset, int length) throws AerospikeException;
+
+    interface Listener<T> {
+        void onRecord(T record);
+
+        void onSuccess();
+
+        void onFailure(AerospikeException exception);
+    }
+
+    static BatchQuery<KeyRecord> get(final IAerospikeClient delegate,
+                                     final BatchPolicy policy,
+                                     final Key[] keys,
+                                     final String... binNames) {
+        return (eventLoop, listener, offset, length) -> {
+            final Key[] chunk = offset == 0 && length == keys.length
+                    ? keys
+                    : Arrays.copyOfRange(keys, offset, offset + length);
+            final var sequenceListener = new RecordSequenceListener() {
+                @Override
+                public void onRecord(final Key key, final Record record) {
+                    listener.onRecord(new KeyRecord(key, record));
+                }
+
+                @Override
+                public void onSuccess() {
+                    listener.onSuccess();
+                }
+
+                @Override
+                public void onFailure(final AerospikeException exception) {
+                    listener.onFailure(exception);
+                }
+            };
+            if (binNames == null || binNames.length == 0) {
+                delegate.get(eventLoop, sequenceListener, policy, chunk);
+            } else {
+                delegate.get(eventLoop, sequenceListener, policy, chunk, binNames);
+            }
+        };
+    }
+
+    static BatchQuery<BatchRead> get(final IAerospikeClient delegate,
+                                     final BatchPolicy policy,
+                                     final List<BatchRead> records) {
+        return (eventLoop, listener, offset, length) ->
+                delegate.get(eventLoop, new BatchSequenceListener() {
+                    @Override
+                    public void onRecord(final BatchRead record) {
+                        listener.onRecord(record);
+                    }
+
+                    @Override
+                    public void onSuccess() {
+                        listener.onSuccess();
+                    }
+
+                    @Override
+                    public void onFailure(final AerospikeException exception) {
+                        listener.onFailure(exception);
+                    }
+                }, policy, records.subList(offset, offset + length));
+    }
+
+    static BatchQuery<BatchRecord> operate(final IAerospikeClient delegate,
+                                           final BatchPolicy policy,
+                                           final List<BatchRecord> records) {
+        return (eventLoop, listener, offset, length) ->
+                delegate.operate(eventLoop, new BatchRecordSequenceListener() {
+                    @Override
+                    public void onRecord(final BatchRecord record, final int index) {
+                        listener.onRecord(record);
+                    }
+
+                    @Override
+                    public void onSuccess() {
+                        listener.onSuccess();
+                    }
+
+                    @Override
+                    public void onFailure(final AerospikeException exception) {
+                        listener.onFailure(exception);
+                    }
+                }, policy, records.subList(offset, offset + length));
+    }
+}
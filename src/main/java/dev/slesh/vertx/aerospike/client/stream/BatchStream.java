@@ -0,0 +1,223 @@
+package dev.slesh.vertx.aerospike.client.stream;
+
+import com.aerospike.client.AerospikeException;
+import dev.slesh.vertx.aerospike.deadline.Deadline;
+import dev.slesh.vertx.aerospike.deadline.DeadlineExceededException;
+import dev.slesh.vertx.aerospike.eventloop.EventLoopSelector;
+import io.vertx.core.Handler;
+import io.vertx.core.impl.ContextInternal;
+import io.vertx.core.streams.ReadStream;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Batch results as a {@link ReadStream} which emits records as soon as their nodes respond,
+ * so one slow node doesn't hold back the records of the others.
+ * <p>
+ * A batch can't be paused once sent, so the stream sends the batch in chunks of {@code chunkSize} items.
+ * The next chunk is requested only when the previous one is complete and consumed and there is demand,
+ * so at most one chunk is kept in memory.
+ * <p>
+ * Records are delivered on the vert.x context which created the stream, the ones arrived while the context
+ * is busy are handed over in one task, and the stream must be used from that context.
+ */
+public class BatchStream<T> implements ReadStream<T> {
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    private final ContextInternal context;
+    private final Deadline deadline;
+    private final EventLoopSelector eventLoopSelector;
+    private final BatchQuery<T> query;
+    private final int size;
+    private final int chunkSize;
+    private final ArrayDeque<T> buffer = new ArrayDeque<>();
+    private int offset;
+    private long demand = Long.MAX_VALUE;
+    private boolean fetching;
+    private boolean draining;
+    private boolean ended;
+    private Handler<T> handler;
+    private Handler<Void> endHandler;
+    private Handler<Throwable> exceptionHandler;
+
+    /**
+     * @param size the number of items in the batch
+     */
+    public BatchStream(final EventLoopSelector eventLoopSelector,
+                       final BatchQuery<T> query,
+                       final int size,
+                       final int chunkSize) {
+        this.context = ContextInternal.current();
+        if (context == null) {
+            throw new IllegalStateException("Batch stream must be created on a vert.x context");
+        }
+        this.deadline = Deadline.current();
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+        }
+        this.eventLoopSelector = Objects.requireNonNull(eventLoopSelector, "eventLoopSelector");
+        this.query = Objects.requireNonNull(query, "query");
+        this.size = size;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public BatchStream<T> exceptionHandler(final Handler<Throwable> handler) {
+        this.exceptionHandler = handler;
+        return this;
+    }
+
+    @Override
+    public BatchStream<T> handler(final Handler<T> handler) {
+        this.handler = handler;
+        if (handler != null) {
+            drain();
+        }
+        return this;
+    }
+
+    @Override
+    public BatchStream<T> pause() {
+        demand = 0;
+        return this;
+    }
+
+    @Override
+    public BatchStream<T> resume() {
+        return fetch(Long.MAX_VALUE);
+    }
+
+    @Override
+    public BatchStream<T> fetch(final long amount) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("amount must not be negative: " + amount);
+        }
+        demand += amount;
+        if (demand < 0) {
+            demand = Long.MAX_VALUE;
+        }
+        drain();
+        return this;
+    }
+
+    @Override
+    public BatchStream<T> endHandler(final Handler<Void> endHandler) {
+        this.endHandler = endHandler;
+        return this;
+    }
+
+    private void drain() {
+        if (draining) {
+            // fetch() called from the handler, the loop below picks up the new demand
+            return;
+        }
+        draining = true;
+        try {
+            while (!ended && handler != null && demand > 0 && !buffer.isEmpty()) {
+                if (demand != Long.MAX_VALUE) {
+                    demand--;
+                }
+                handler.handle(buffer.poll());
+            }
+        } finally {
+            draining = false;
+        }
+        if (ended || handler == null || !buffer.isEmpty() || fetching) {
+            return;
+        }
+        if (offset >= size) {
+            end();
+        } else if (demand > 0) {
+            fetchChunk();
+        }
+    }
+
+    private void fetchChunk() {
+        if (deadline != null && deadline.expired()) {
+            // nobody waits for the rest anymore
+            fail(new DeadlineExceededException());
+            return;
+        }
+        fetching = true;
+        final int length = Math.min(chunkSize, size - offset);
+        final var chunk = new Chunk();
+        try {
+            query.query(eventLoopSelector.select(), chunk, offset, length);
+            offset += length;
+        } catch (RuntimeException e) {
+            // e.g. a closed client, the stream must still end
+            fail(e);
+        }
+    }
+
+    private void onRecords(final List<T> records) {
+        if (ended) {
+            return;
+        }
+        buffer.addAll(records);
+        drain();
+    }
+
+    private void onChunk(final List<T> records) {
+        fetching = false;
+        onRecords(records);
+    }
+
+    private void end() {
+        ended = true;
+        final Handler<Void> endHandler = this.endHandler;
+        if (endHandler != null) {
+            endHandler.handle(null);
+        }
+    }
+
+    private void fail(final Throwable cause) {
+        fetching = false;
+        ended = true;
+        buffer.clear();
+        final Handler<Throwable> exceptionHandler = this.exceptionHandler;
+        if (exceptionHandler != null) {
+            exceptionHandler.handle(cause);
+        }
+    }
+
+    /**
+     * Collects records of one chunk on the aerospike event loop. The context is notified once per run of
+     * records, the records which arrive before it takes them are handed over in the same task.
+     */
+    private final class Chunk implements BatchQuery.Listener<T> {
+        private List<T> arrived = new ArrayList<>();
+
+        @Override
+        public void onRecord(final T record) {
+            final boolean notify;
+            synchronized (this) {
+                notify = arrived.isEmpty();
+                arrived.add(record);
+            }
+            if (notify) {
+                context.runOnContext(v -> onRecords(take()));
+            }
+        }
+
+        @Override
+        public void onSuccess() {
+            // tasks run in order, so the records scheduled before are delivered first
+            context.runOnContext(v -> onChunk(take()));
+        }
+
+        @Override
+        public void onFailure(final AerospikeException exception) {
+            context.runOnContext(v -> fail(exception));
+        }
+
+        private synchronized List<T> take() {
+            final List<T> records = arrived;
+            arrived = new ArrayList<>();
+            return records;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package dev.slesh.vertx.aerospike.client.stream;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.IAerospikeClient;
+import com.aerospike.client.async.EventLoop;
+import com.aerospike.client.listener.RecordSequenceListener;
+import com.aerospike.client.policy.QueryPolicy;
+import com.aerospike.client.policy.ScanPolicy;
+import com.aerospike.client.query.PartitionFilter;
+import com.aerospike.client.query.Statement;
+
+/**
+ * Issues one page of a partition scan or query used by {@link RecordStream}.
+ */
+@FunctionalInterface
+public interface PageQuery {
+    void query(EventLoop eventLoop, RecordSequenceListener listener, PartitionFilter filter, long maxRecords)
+            throws AerospikeException;
+
+    /**
+     * The policy is copied, so the page limit doesn't leak to the caller's policy.
+     */
+    static PageQuery scan(final IAerospikeClient delegate,
+                          final ScanPolicy policy,
+                          final String namespace,
+                          final String setName,
+                          final String... binNames) {
+        final var pagePolicy = new ScanPolicy(policy != null ? policy : delegate.getScanPolicyDefault());
+        return (eventLoop, listener, filter, maxRecords) -> {
+            pagePolicy.maxRecords = maxRecords;
+            delegate.scanPartitions(eventLoop, listener, pagePolicy, filter, namespace, setName, binNames);
+        };
+    }
+
+    /**
+     * The statement is copied, so the page limit doesn't leak to the caller's statement.
+     */
+    static PageQuery query(final IAerospikeClient delegate,
+                           final QueryPolicy policy,
+                           final Statement statement) {
+        final var pageStatement = new Statement();
+        pageStatement.setNamespace(statement.getNamespace());
+        pageStatement.setSetName(statement.getSetName());
+        pageStatement.setIndexName(statement.getIndexName());
+        pageStatement.setBinNames(statement.getBinNames());
+        pageStatement.setFilter(statement.getFilter());
+        pageStatement.setRecordsPerSecond(statement.getRecordsPerSecond());
+        return (eventLoop, listener, filter, maxRecords) -> {
+            pageStatement.setMaxRecords(maxRecords);
+            delegate.queryPartitions(eventLoop, listener, policy, pageStatement, filter);
+        };
+    }
+}
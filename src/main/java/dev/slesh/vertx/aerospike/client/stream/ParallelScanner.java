@@ -0,0 +1,81 @@
+package dev.slesh.vertx.aerospike.client.stream;
+
+import com.aerospike.client.IAerospikeClient;
+import com.aerospike.client.async.EventLoop;
+import com.aerospike.client.async.EventLoops;
+import com.aerospike.client.cluster.Node;
+import com.aerospike.client.policy.QueryPolicy;
+import com.aerospike.client.policy.ScanPolicy;
+import com.aerospike.client.query.PartitionFilter;
+import com.aerospike.client.query.Statement;
+import dev.slesh.vertx.aerospike.eventloop.EventLoopSelector;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Splits a scan or query into partition ranges and runs every range on its own aerospike event loop,
+ * so parsing of the responses is spread over the loops instead of piling up on one.
+ * <p>
+ * The record limit of the policy or the statement, if any, is divided evenly between the ranges, the earlier ranges
+ * get the remainder. A limit lower than the parallelism lowers the number of ranges, so every range reads a record.
+ * A retried range reads only what is left of its limit.
+ */
+public class ParallelScanner {
+    private final IAerospikeClient delegate;
+    private final EventLoops eventLoops;
+    private final int pageSize;
+
+    public ParallelScanner(final IAerospikeClient delegate) {
+        this(delegate, delegate.getCluster().eventLoops, RecordStream.DEFAULT_PAGE_SIZE);
+    }
+
+    public ParallelScanner(final IAerospikeClient delegate,
+                           final EventLoops eventLoops,
+                           final int pageSize) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.eventLoops = Objects.requireNonNull(eventLoops, "eventLoops");
+        this.pageSize = pageSize;
+    }
+
+    public PartitionedRecordStream scan(final ScanPolicy policy,
+                                        final int parallelism,
+                                        final String namespace,
+                                        final String setName,
+                                        final String... binNames) {
+        final long maxRecords = policy != null ? policy.maxRecords : delegate.getScanPolicyDefault().maxRecords;
+        return split(parallelism, maxRecords, () -> PageQuery.scan(delegate, policy, namespace, setName, binNames));
+    }
+
+    public PartitionedRecordStream query(final QueryPolicy policy,
+                                         final int parallelism,
+                                         final Statement statement) {
+        return split(parallelism, statement.getMaxRecords(), () -> PageQuery.query(delegate, policy, statement));
+    }
+
+    private PartitionedRecordStream split(final int requestedParallelism,
+                                          final long maxRecords,
+                                          final Supplier<PageQuery> queries) {
+        if (requestedParallelism < 1 || requestedParallelism > Node.PARTITIONS) {
+            throw new IllegalArgumentException(
+                    "parallelism must be in [1, " + Node.PARTITIONS + "]: " + requestedParallelism);
+        }
+        // 0 stands for no limit of a range, so every range must get a record at least
+        final int parallelism = maxRecords > 0
+                ? (int) Math.min(requestedParallelism, maxRecords)
+                : requestedParallelism;
+        final var filters = new PartitionFilter[parallelism];
+        for (int i = 0; i < parallelism; i++) {
+            final int begin = i * Node.PARTITIONS / parallelism;
+            final int end = (i + 1) * Node.PARTITIONS / parallelism;
+            filters[i] = PartitionFilter.range(begin, end - begin);
+        }
+        return new PartitionedRecordStream(filters, Math.max(0, maxRecords), (index, filter, rangeMaxRecords) -> {
+            // a range keeps its event loop when it's retried
+            final EventLoop eventLoop = eventLoops.get(index % eventLoops.getSize());
+            final EventLoopSelector eventLoopSelector = () -> eventLoop;
+            // every range gets its own copy of the policy or the statement, pages of the ranges run concurrently
+            return new RecordStream(eventLoopSelector, queries.get(), filter, rangeMaxRecords, pageSize);
+        });
+    }
+}
@@ -0,0 +1,277 @@
+package dev.slesh.vertx.aerospike.client.stream;
+
+import com.aerospike.client.query.KeyRecord;
+import com.aerospike.client.query.PartitionFilter;
+import io.vertx.core.Handler;
+import io.vertx.core.streams.ReadStream;
+
+import java.util.Objects;
+
+/**
+ * Scan or query split into partition ranges which are read in parallel.
+ * <p>
+ * Each range is a {@link RecordStream} of its own and can be consumed separately via {@link #range(int)}.
+ * Alternatively this stream merges all the ranges: as soon as a handler is set here, the ranges are
+ * subscribed and paused/resumed together with this stream. A bounded demand of {@link #fetch(long)} is split
+ * between the ranges which haven't ended, so no more pages are requested than the demand needs.
+ * <p>
+ * A record limit is divided evenly between the ranges, the earlier ranges get the remainder.
+ * <p>
+ * A failure of one range is reported to the {@link #exceptionHandler(Handler)} as {@link RangeException}
+ * and doesn't stop the other ranges. The failed range may be resumed from its cursor with {@link #retry(int)},
+ * the records it has delivered count against its limit; the merged stream ends once every range has ended.
+ */
+public class PartitionedRecordStream implements ReadStream<KeyRecord> {
+    private final RangeFactory factory;
+    private final RecordStream[] ranges;
+    private final boolean[] ended;
+    private final boolean[] failed;
+    private final long[] granted;
+    private final long[] limits;
+    private int pending;
+    private long demand = Long.MAX_VALUE;
+    private Handler<KeyRecord> handler;
+    private Handler<Void> endHandler;
+    private Handler<Throwable> exceptionHandler;
+
+    /**
+     * @param maxRecords the total number of records to read, {@code 0} reads everything, it must not be lower
+     *                   than the number of ranges
+     * @param factory    creates the stream of one range
+     */
+    public PartitionedRecordStream(final PartitionFilter[] filters,
+                                   final long maxRecords,
+                                   final RangeFactory factory) {
+        if (maxRecords < 0 || maxRecords > 0 && maxRecords < filters.length) {
+            throw new IllegalArgumentException(
+                    "maxRecords must be 0 or at least " + filters.length + ": " + maxRecords);
+        }
+        this.factory = Objects.requireNonNull(factory, "factory");
+        this.ranges = new RecordStream[filters.length];
+        this.ended = new boolean[filters.length];
+        this.failed = new boolean[filters.length];
+        this.granted = new long[filters.length];
+        this.limits = new long[filters.length];
+        this.pending = filters.length;
+        for (int i = 0; i < filters.length; i++) {
+            limits[i] = maxRecords > 0 ? maxRecords / filters.length + (i < maxRecords % filters.length ? 1 : 0) : 0;
+            ranges[i] = factory.create(i, filters[i], limits[i]);
+        }
+    }
+
+    public int size() {
+        return ranges.length;
+    }
+
+    public RecordStream range(final int index) {
+        return ranges[index];
+    }
+
+    /**
+     * @return the cursor of the range, it tracks progress of every partition of the range
+     */
+    public PartitionFilter cursor(final int index) {
+        return ranges[index].cursor();
+    }
+
+    /**
+     * Resumes the failed range from its cursor, partitions which were fully read are not read again.
+     * The range ends right away when it has delivered its limit.
+     */
+    public RecordStream retry(final int index) {
+        if (ended[index]) {
+            throw new IllegalStateException("Range " + index + " has already ended");
+        }
+        failed[index] = false;
+        granted[index] = 0;
+        if (limits[index] > 0) {
+            limits[index] -= ranges[index].delivered();
+            if (limits[index] <= 0) {
+                onEnd(index);
+                return ranges[index];
+            }
+        }
+        ranges[index] = factory.create(index, ranges[index].cursor(), limits[index]);
+        if (handler != null) {
+            subscribe(index);
+            grant();
+        }
+        return ranges[index];
+    }
+
+    @Override
+    public PartitionedRecordStream exceptionHandler(final Handler<Throwable> handler) {
+        this.exceptionHandler = handler;
+        return this;
+    }
+
+    @Override
+    public PartitionedRecordStream handler(final Handler<KeyRecord> handler) {
+        final boolean subscribed = this.handler != null;
+        this.handler = handler;
+        if (handler != null && !subscribed) {
+            for (int i = 0; i < ranges.length; i++) {
+                subscribe(i);
+            }
+            grant();
+        }
+        return this;
+    }
+
+    @Override
+    public PartitionedRecordStream pause() {
+        demand = 0;
+        for (int i = 0; i < ranges.length; i++) {
+            granted[i] = 0;
+            ranges[i].pause();
+        }
+        return this;
+    }
+
+    @Override
+    public PartitionedRecordStream resume() {
+        return fetch(Long.MAX_VALUE);
+    }
+
+    @Override
+    public PartitionedRecordStream fetch(final long amount) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("amount must not be negative: " + amount);
+        }
+        demand += amount;
+        if (demand < 0) {
+            demand = Long.MAX_VALUE;
+        }
+        if (handler != null) {
+            grant();
+        }
+        return this;
+    }
+
+    @Override
+    public PartitionedRecordStream endHandler(final Handler<Void> endHandler) {
+        this.endHandler = endHandler;
+        return this;
+    }
+
+    private void subscribe(final int index) {
+        final RecordStream range = ranges[index];
+        if (demand != Long.MAX_VALUE) {
+            // the range gets its part of the demand from grant()
+            range.pause();
+        }
+        range.exceptionHandler(cause -> onFailure(index, cause))
+                .endHandler(v -> onEnd(index))
+                .handler(record -> onRecord(index, record));
+    }
+
+    /**
+     * Hands the demand not granted yet to the ranges still reading, the earlier ranges get the remainder.
+     * Ranges left without demand stay paused and don't request pages.
+     */
+    private void grant() {
+        if (demand == Long.MAX_VALUE) {
+            for (int i = 0; i < ranges.length; i++) {
+                if (reading(i)) {
+                    ranges[i].resume();
+                }
+            }
+            return;
+        }
+        long ungranted = demand;
+        int active = 0;
+        for (int i = 0; i < ranges.length; i++) {
+            ungranted -= granted[i];
+            if (reading(i)) {
+                active++;
+            }
+        }
+        if (ungranted <= 0 || active == 0) {
+            return;
+        }
+        final long share = ungranted / active;
+        long remainder = ungranted % active;
+        for (int i = 0; i < ranges.length; i++) {
+            if (!reading(i)) {
+                continue;
+            }
+            final long amount = remainder-- > 0 ? share + 1 : share;
+            if (amount > 0) {
+                granted[i] += amount;
+                ranges[i].fetch(amount);
+            }
+        }
+    }
+
+    private boolean reading(final int index) {
+        return !ended[index] && !failed[index];
+    }
+
+    private void onRecord(final int index, final KeyRecord record) {
+        if (demand != Long.MAX_VALUE) {
+            // a range emits only within its granted demand, so nothing is delivered beyond the demand
+            demand--;
+            granted[index]--;
+        }
+        final Handler<KeyRecord> handler = this.handler;
+        if (handler != null) {
+            handler.handle(record);
+        }
+    }
+
+    private void onFailure(final int index, final Throwable cause) {
+        // the failed range reads nothing more until it's retried, its demand goes to the others
+        failed[index] = true;
+        granted[index] = 0;
+        grant();
+        final Handler<Throwable> exceptionHandler = this.exceptionHandler;
+        if (exceptionHandler != null) {
+            exceptionHandler.handle(new RangeException(index, ranges[index].cursor(), cause));
+        }
+    }
+
+    private void onEnd(final int index) {
+        ended[index] = true;
+        if (granted[index] > 0) {
+            granted[index] = 0;
+            grant();
+        }
+        if (--pending == 0) {
+            final Handler<Void> endHandler = this.endHandler;
+            if (endHandler != null) {
+                endHandler.handle(null);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface RangeFactory {
+        /**
+         * @param cursor     where the range starts or resumes
+         * @param maxRecords the limit of the range, {@code 0} reads everything
+         */
+        RecordStream create(int index, PartitionFilter cursor, long maxRecords);
+    }
+
+    /**
+     * Failure of one partition range, the cursor allows to resume the range.
+     */
+    public static class RangeException extends RuntimeException {
+        private final int range;
+        private final transient PartitionFilter cursor;
+
+        public RangeException(final int range, final PartitionFilter cursor, final Throwable cause) {
+            super("Partition range " + range + " failed", cause);
+            this.range = range;
+            this.cursor = cursor;
+        }
+
+        public int range() {
+            return range;
+        }
+
+        public PartitionFilter cursor() {
+            return cursor;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package dev.slesh.vertx.aerospike.client.stream;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.Key;
+import com.aerospike.client.Record;
+import com.aerospike.client.listener.RecordSequenceListener;
+import com.aerospike.client.query.KeyRecord;
+import com.aerospike.client.query.PartitionFilter;
+import dev.slesh.vertx.aerospike.deadline.Deadline;
+import dev.slesh.vertx.aerospike.deadline.DeadlineExceededException;
+import dev.slesh.vertx.aerospike.eventloop.EventLoopSelector;
+import io.vertx.core.Handler;
+import io.vertx.core.impl.ContextInternal;
+import io.vertx.core.streams.ReadStream;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Scan or query results as a {@link ReadStream}.
+ * <p>
+ * Aerospike can't pause a running scan, so the stream reads the partitions page by page:
+ * every page is a partition scan/query limited to {@code pageSize} records, and the {@link PartitionFilter}
+ * remembers where the page stopped. The next page is requested only when the previous one is fully consumed
+ * and there is demand, so at most one page is kept in memory.
+ * <p>
+ * Records are delivered on the vert.x context which created the stream, one task per page,
+ * and the stream must be used from that context.
+ */
+public class RecordStream implements ReadStream<KeyRecord> {
+    public static final int DEFAULT_PAGE_SIZE = 1000;
+
+    private final ContextInternal context;
+    private final Deadline deadline;
+    private final EventLoopSelector eventLoopSelector;
+    private final PageQuery query;
+    private final PartitionFilter filter;
+    private final int pageSize;
+    private final ArrayDeque<KeyRecord> buffer = new ArrayDeque<>();
+    private long remaining;
+    private long delivered;
+    private long demand = Long.MAX_VALUE;
+    private boolean fetching;
+    private boolean draining;
+    private boolean ended;
+    private Handler<KeyRecord> handler;
+    private Handler<Void> endHandler;
+    private Handler<Throwable> exceptionHandler;
+
+    /**
+     * @param maxRecords the total number of records to read, {@code 0} reads everything
+     */
+    public RecordStream(final EventLoopSelector eventLoopSelector,
+                        final PageQuery query,
+                        final PartitionFilter filter,
+                        final long maxRecords,
+                        final int pageSize) {
+        this.context = ContextInternal.current();
+        if (context == null) {
+            throw new IllegalStateException("Record stream must be created on a vert.x context");
+        }
+        this.deadline = Deadline.current();
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("pageSize must be positive: " + pageSize);
+        }
+        this.eventLoopSelector = Objects.requireNonNull(eventLoopSelector, "eventLoopSelector");
+        this.query = Objects.requireNonNull(query, "query");
+        this.filter = Objects.requireNonNull(filter, "filter");
+        this.remaining = maxRecords > 0 ? maxRecords : Long.MAX_VALUE;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * @return number of records handed to the handler so far
+     */
+    public long delivered() {
+        return delivered;
+    }
+
+    /**
+     * @return the cursor of the stream, it can be passed to a new stream to resume reading after a failure
+     */
+    public PartitionFilter cursor() {
+        return filter;
+    }
+
+    @Override
+    public RecordStream exceptionHandler(final Handler<Throwable> handler) {
+        this.exceptionHandler = handler;
+        return this;
+    }
+
+    @Override
+    public RecordStream handler(final Handler<KeyRecord> handler) {
+        this.handler = handler;
+        if (handler != null) {
+            drain();
+        }
+        return this;
+    }
+
+    @Override
+    public RecordStream pause() {
+        demand = 0;
+        return this;
+    }
+
+    @Override
+    public RecordStream resume() {
+        return fetch(Long.MAX_VALUE);
+    }
+
+    @Override
+    public RecordStream fetch(final long amount) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("amount must not be negative: " + amount);
+        }
+        demand += amount;
+        if (demand < 0) {
+            demand = Long.MAX_VALUE;
+        }
+        drain();
+        return this;
+    }
+
+    @Override
+    public RecordStream endHandler(final Handler<Void> endHandler) {
+        this.endHandler = endHandler;
+        return this;
+    }
+
+    private void drain() {
+        if (draining) {
+            // fetch() called from the handler, the loop below picks up the new demand
+            return;
+        }
+        draining = true;
+        try {
+            while (!ended && handler != null && demand > 0 && !buffer.isEmpty()) {
+                if (demand != Long.MAX_VALUE) {
+                    demand--;
+                }
+                delivered++;
+                handler.handle(buffer.poll());
+            }
+        } finally {
+            draining = false;
+        }
+        if (ended || handler == null || !buffer.isEmpty()) {
+            return;
+        }
+        if (remaining == 0 || filter.isDone()) {
+            end();
+        } else if (demand > 0 && !fetching) {
+            fetchPage();
+        }
+    }
+
+    private void fetchPage() {
+        if (deadline != null && deadline.expired()) {
+            // nobody waits for the rest anymore
+            fail(new DeadlineExceededException());
+            return;
+        }
+        fetching = true;
+        final var page = new Page();
+        try {
+            query.query(eventLoopSelector.select(), page, filter, Math.min(pageSize, remaining));
+        } catch (RuntimeException e) {
+            // e.g. a closed client, the stream must still end
+            fail(e);
+        }
+    }
+
+    private void onPage(final List<KeyRecord> records) {
+        fetching = false;
+        remaining -= records.size();
+        buffer.addAll(records);
+        drain();
+    }
+
+    private void end() {
+        ended = true;
+        final Handler<Void> endHandler = this.endHandler;
+        if (endHandler != null) {
+            endHandler.handle(null);
+        }
+    }
+
+    private void fail(final Throwable cause) {
+        fetching = false;
+        ended = true;
+        buffer.clear();
+        final Handler<Throwable> exceptionHandler = this.exceptionHandler;
+        if (exceptionHandler != null) {
+            exceptionHandler.handle(cause);
+        }
+    }
+
+    /**
+     * Collects records of one page on the aerospike event loop and hands them over to the context at once.
+     */
+    private final class Page implements RecordSequenceListener {
+        private final List<KeyRecord> records = new ArrayList<>();
+
+        @Override
+        public void onRecord(final Key key, final Record record) {
+            records.add(new KeyRecord(key, record));
+        }
+
+        @Override
+        public void onSuccess() {
+            context.runOnContext(v -> onPage(records));
+        }
+
+        @Override
+        public void onFailure(final AerospikeException exception) {
+            context.runOnContext(v -> fail(exception));
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package dev.slesh.vertx.aerospike.deadline;
+
+import io.vertx.core.Context;
+import io.vertx.core.impl.ContextInternal;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The point in time after which the result of a command is of no use to the caller.
+ * <p>
+ * A deadline attached to a vert.x context, e.g. by the handler of an HTTP request, applies to all the commands
+ * issued on that context. It is kept in the local data of a duplicated context, so with vert.x web every request
+ * has its own one. Outside of a request, attach it to a duplicate, e.g. {@code ((ContextInternal) ctx).duplicate()},
+ * and issue the commands on it.
+ */
+public final class Deadline {
+    private static final Object KEY = Deadline.class;
+
+    private final long nanoTime;
+
+    private Deadline(final long nanoTime) {
+        this.nanoTime = nanoTime;
+    }
+
+    public static Deadline after(final Duration timeout) {
+        Objects.requireNonNull(timeout, "timeout");
+        return new Deadline(System.nanoTime() + timeout.toNanos());
+    }
+
+    /**
+     * @return the deadline attached to the current context, {@code null} if there is none
+     */
+    public static Deadline current() {
+        final ContextInternal ctx = ContextInternal.current();
+        return ctx == null ? null : (Deadline) ctx.localContextData().get(KEY);
+    }
+
+    /**
+     * Attaches the deadline to the context, an earlier deadline attached before is kept.
+     *
+     * @param context a duplicated context, the local data of an event loop context is shared by all its tasks, so
+     *                an expired deadline would fail every later command on that event loop
+     */
+    public static void attach(final Context context, final Deadline deadline) {
+        Objects.requireNonNull(context, "context");
+        Objects.requireNonNull(deadline, "deadline");
+        final var ctx = (ContextInternal) context;
+        if (!ctx.isDuplicate()) {
+            throw new IllegalArgumentException("Deadline must be attached to a duplicated context");
+        }
+        ctx.localContextData()
+                .merge(KEY, deadline, (existing, added) -> ((Deadline) existing).min((Deadline) added));
+    }
+
+    /**
+     * @return the earlier of the two deadlines, either of them may be {@code null}
+     */
+    public static Deadline earliest(final Deadline left, final Deadline right) {
+        if (left == null) {
+            return right;
+        }
+        return right == null ? left : left.min(right);
+    }
+
+    public Deadline min(final Deadline other) {
+        return nanoTime - other.nanoTime <= 0 ? this : other;
+    }
+
+    public long remainingNanos() {
+        return nanoTime - System.nanoTime();
+    }
+
+    /**
+     * @return the remaining time rounded up, so it is {@code 0} only once the deadline has passed
+     */
+    public long remainingMillis() {
+        final long nanos = remainingNanos();
+        return nanos <= 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(nanos + TimeUnit.MILLISECONDS.toNanos(1) - 1);
+    }
+
+    public boolean expired() {
+        return remainingNanos() <= 0;
+    }
+}
@@ -0,0 +1,225 @@
+package dev.slesh.vertx.aerospike.deadline;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.BatchRead;
+import com.aerospike.client.BatchRecord;
+import com.aerospike.client.Bin;
+import com.aerospike.client.Key;
+import com.aerospike.client.Operation;
+import com.aerospike.client.Value;
+import com.aerospike.client.cluster.Node;
+import com.aerospike.client.policy.BatchDeletePolicy;
+import com.aerospike.client.policy.BatchPolicy;
+import com.aerospike.client.policy.BatchUDFPolicy;
+import com.aerospike.client.policy.BatchWritePolicy;
+import com.aerospike.client.policy.InfoPolicy;
+import com.aerospike.client.policy.Policy;
+import com.aerospike.client.policy.WritePolicy;
+import dev.slesh.vertx.aerospike.client.AsyncAerospikeClient;
+import dev.slesh.vertx.aerospike.client.DelegatingAerospikeClient;
+import dev.slesh.vertx.aerospike.client.result.BatchOperateListValue;
+import dev.slesh.vertx.aerospike.client.result.BatchRecordArrayValue;
+import dev.slesh.vertx.aerospike.client.result.DeleteValue;
+import dev.slesh.vertx.aerospike.client.result.ExecuteValue;
+import dev.slesh.vertx.aerospike.client.result.ExistsArrayValue;
+import dev.slesh.vertx.aerospike.client.result.ReadValue;
+import dev.slesh.vertx.aerospike.client.result.RecordArrayValue;
+import io.vertx.core.Future;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Bounds commands by the {@link Deadline} of the caller.
+ * <p>
+ * The deadline is the one attached to the current vert.x context or the one given to
+ * {@link #withDeadline(Deadline)}, whichever is earlier. A command issued after it has passed fails with
+ * {@link DeadlineExceededException} without being sent, otherwise {@code totalTimeout} and {@code socketTimeout}
+ * of a copy of its policy are clamped to the remaining time, so the server doesn't work for a caller who
+ * has given up. Commands without a deadline are passed to the wrapped client as is.
+ * <p>
+ * Retries, hedges, split batches and streams check the deadline of the context too and stop once it has passed.
+ */
+public class DeadlineAerospikeClient extends DelegatingAerospikeClient {
+    private final Deadline deadline;
+
+    public DeadlineAerospikeClient(final AsyncAerospikeClient client) {
+        this(client, null);
+    }
+
+    private DeadlineAerospikeClient(final AsyncAerospikeClient client, final Deadline deadline) {
+        super(client);
+        this.deadline = deadline;
+    }
+
+    /**
+     * @return a view of this client which bounds every command by the given deadline as well
+     */
+    public DeadlineAerospikeClient withDeadline(final Deadline deadline) {
+        return new DeadlineAerospikeClient(client, Deadline.earliest(this.deadline, Objects.requireNonNull(deadline, "deadline")));
+    }
+
+    @Override
+    public Future<Key> put(WritePolicy policy, Key key, Bin... bins) throws AerospikeException {
+        return bounded(policy, delegate()::getWritePolicyDefault, WritePolicy::new, p -> client.put(p, key, bins));
+    }
+
+    @Override
+    public Future<Key> append(WritePolicy policy, Key key, Bin... bins) throws AerospikeException {
+        return bounded(policy, delegate()::getWritePolicyDefault, WritePolicy::new, p -> client.append(p, key, bins));
+    }
+
+    @Override
+    public Future<Key> prepend(WritePolicy policy, Key key, Bin... bins) throws AerospikeException {
+        return bounded(policy, delegate()::getWritePolicyDefault, WritePolicy::new, p -> client.prepend(p, key, bins));
+    }
+
+    @Override
+    public Future<Key> add(WritePolicy policy, Key key, Bin... bins) throws AerospikeException {
+        return bounded(policy, delegate()::getWritePolicyDefault, WritePolicy::new, p -> client.add(p, key, bins));
+    }
+
+    @Override
+    public Future<DeleteValue> delete(WritePolicy policy, Key key) throws AerospikeException {
+        return bounded(policy, delegate()::getWritePolicyDefault, WritePolicy::new, p -> client.delete(p, key));
+    }
+
+    @Override
+    public Future<BatchRecordArrayValue> delete(BatchPolicy batchPolicy, BatchDeletePolicy deletePolicy, Key[] keys) throws AerospikeException {
+        return bounded(batchPolicy, delegate()::getBatchParentPolicyWriteDefault, BatchPolicy::new,
+                p -> client.delete(p, deletePolicy, keys));
+    }
+
+    @Override
+    public Future<Key> touch(WritePolicy policy, Key key) throws AerospikeException {
+        return bounded(policy, delegate()::getWritePolicyDefault, WritePolicy::new, p -> client.touch(p, key));
+    }
+
+    @Override
+    public Future<Boolean> exists(Policy policy, Key key) throws AerospikeException {
+        return bounded(policy, delegate()::getReadPolicyDefault, Policy::new, p -> client.exists(p, key));
+    }
+
+    @Override
+    public Future<ExistsArrayValue> exists(BatchPolicy policy, Key[] keys) throws AerospikeException {
+        return bounded(policy, delegate()::getBatchPolicyDefault, BatchPolicy::new, p -> client.exists(p, keys));
+    }
+
+    @Override
+    public Future<ReadValue> get(Policy policy, Key key) throws AerospikeException {
+        return bounded(policy, delegate()::getReadPolicyDefault, Policy::new, p -> client.get(p, key));
+    }
+
+    @Override
+    public Future<ReadValue> get(Policy policy, Key key, String... binNames) throws AerospikeException {
+        return bounded(policy, delegate()::getReadPolicyDefault, Policy::new, p -> client.get(p, key, binNames));
+    }
+
+    @Override
+    public Future<ReadValue> getHeader(Policy policy, Key key) throws AerospikeException {
+        return bounded(policy, delegate()::getReadPolicyDefault, Policy::new, p -> client.getHeader(p, key));
+    }
+
+    @Override
+    public Future<List<BatchRead>> get(BatchPolicy policy, List<BatchRead> records) throws AerospikeException {
+        return bounded(policy, delegate()::getBatchPolicyDefault, BatchPolicy::new, p -> client.get(p, records));
+    }
+
+    @Override
+    public Future<RecordArrayValue> get(BatchPolicy policy, Key[] keys) throws AerospikeException {
+        return bounded(policy, delegate()::getBatchPolicyDefault, BatchPolicy::new, p -> client.get(p, keys));
+    }
+
+    @Override
+    public Future<RecordArrayValue> get(BatchPolicy policy, Key[] keys, String... binNames) throws AerospikeException {
+        return bounded(policy, delegate()::getBatchPolicyDefault, BatchPolicy::new, p -> client.get(p, keys, binNames));
+    }
+
+    @Override
+    public Future<RecordArrayValue> get(BatchPolicy policy, Key[] keys, Operation... ops) throws AerospikeException {
+        return bounded(policy, delegate()::getBatchPolicyDefault, BatchPolicy::new, p -> client.get(p, keys, ops));
+    }
+
+    @Override
+    public Future<RecordArrayValue> getHeader(BatchPolicy policy, Key[] keys) throws AerospikeException {
+        return bounded(policy, delegate()::getBatchPolicyDefault, BatchPolicy::new, p -> client.getHeader(p, keys));
+    }
+
+    @Override
+    public Future<ReadValue> operate(WritePolicy policy, Key key, Operation... operations) throws AerospikeException {
+        return bounded(policy, delegate()::getWritePolicyDefault, WritePolicy::new, p -> client.operate(p, key, operations));
+    }
+
+    @Override
+    public Future<BatchOperateListValue> operate(BatchPolicy policy, List<BatchRecord> records) throws AerospikeException {
+        return bounded(policy, delegate()::getBatchParentPolicyWriteDefault, BatchPolicy::new,
+                p -> client.operate(p, records));
+    }
+
+    @Override
+    public Future<BatchRecordArrayValue> operate(BatchPolicy batchPolicy, BatchWritePolicy writePolicy, Key[] keys, Operation... ops) throws AerospikeException {
+        return bounded(batchPolicy, delegate()::getBatchParentPolicyWriteDefault, BatchPolicy::new,
+                p -> client.operate(p, writePolicy, keys, ops));
+    }
+
+    @Override
+    public Future<ExecuteValue> execute(WritePolicy policy, Key key, String packageName, String functionName, Value... args) throws AerospikeException {
+        return bounded(policy, delegate()::getWritePolicyDefault, WritePolicy::new,
+                p -> client.execute(p, key, packageName, functionName, args));
+    }
+
+    @Override
+    public Future<BatchRecordArrayValue> execute(BatchPolicy batchPolicy, BatchUDFPolicy udfPolicy, Key[] keys, String packageName, String functionName, Value... args) throws AerospikeException {
+        return bounded(batchPolicy, delegate()::getBatchParentPolicyWriteDefault, BatchPolicy::new,
+                p -> client.execute(p, udfPolicy, keys, packageName, functionName, args));
+    }
+
+    @Override
+    public Future<Map<String, String>> info(InfoPolicy policy, Node node, String... commands) throws AerospikeException {
+        final Deadline deadline = deadline();
+        if (deadline == null) {
+            return client.info(policy, node, commands);
+        }
+        final long remaining = deadline.remainingMillis();
+        if (remaining <= 0) {
+            return Future.failedFuture(new DeadlineExceededException());
+        }
+        final var bounded = new InfoPolicy(policy != null ? policy : delegate().getInfoPolicyDefault());
+        bounded.timeout = clamp(bounded.timeout, remaining);
+        return client.info(bounded, node, commands);
+    }
+
+    private <P extends Policy, T> Future<T> bounded(final P policy,
+                                                    final Supplier<P> defaultPolicy,
+                                                    final UnaryOperator<P> copy,
+                                                    final Function<P, Future<T>> command) {
+        final Deadline deadline = deadline();
+        if (deadline == null) {
+            return command.apply(policy);
+        }
+        final long remaining = deadline.remainingMillis();
+        if (remaining <= 0) {
+            return Future.failedFuture(new DeadlineExceededException());
+        }
+        final P bounded = copy.apply(policy != null ? policy : defaultPolicy.get());
+        bounded.totalTimeout = clamp(bounded.totalTimeout, remaining);
+        bounded.socketTimeout = clamp(bounded.socketTimeout, bounded.totalTimeout);
+        return command.apply(bounded);
+    }
+
+    private Deadline deadline() {
+        return Deadline.earliest(deadline, Deadline.current());
+    }
+
+    /**
+     * @param timeout {@code 0} stands for no timeout in aerospike policies
+     */
+    private static int clamp(final int timeout, final long limit) {
+        final int bounded = (int) Math.min(Integer.MAX_VALUE, limit);
+        return timeout == 0 ? bounded : Math.min(timeout, bounded);
+    }
+}
@@ -0,0 +1,13 @@
+package dev.slesh.vertx.aerospike.deadline;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.ResultCode;
+
+/**
+ * Fails a command which was not sent because its {@link Deadline} had passed.
+ */
+public class DeadlineExceededException extends AerospikeException {
+    public DeadlineExceededException() {
+        super(ResultCode.TIMEOUT, "Deadline exceeded, the command was not sent");
+    }
+}
@@ -30,7 +30,16 @@ public class ContextEventLoop implements EventLoopSelector {
     private final Fallback fallback;
 
     public ContextEventLoop(final NettyEventLoops eventLoops) {
-        this(eventLoops, eventLoops::next);
+        this(eventLoops, new NextEventLoopSelector(eventLoops));
+    }
+
+    /**
+     * @param fallback selects the event loop when the caller is not on a vert.x event loop,
+     *                 e.g. {@link LeastLoadedEventLoop}
+     */
+    public ContextEventLoop(final NettyEventLoops eventLoops,
+                            final EventLoopSelector fallback) {
+        this(eventLoops, (Fallback) Objects.requireNonNull(fallback, "fallback")::select);
     }
 
     public ContextEventLoop(final NettyEventLoops eventLoops,
@@ -1,7 +1,15 @@
 package dev.slesh.vertx.aerospike.eventloop;
 
+import com.aerospike.client.Key;
 import com.aerospike.client.async.EventLoop;
 
 public interface EventLoopSelector {
     EventLoop select();
+
+    /**
+     * Selects the event loop for a single key command, by default the key is not taken into account.
+     */
+    default EventLoop select(final Key key) {
+        return select();
+    }
 }
@@ -0,0 +1,42 @@
+package dev.slesh.vertx.aerospike.eventloop;
+
+import com.aerospike.client.Key;
+import com.aerospike.client.async.EventLoop;
+import com.aerospike.client.async.EventLoops;
+import com.aerospike.client.cluster.Partition;
+
+import java.util.Objects;
+
+/**
+ * Pins every key to one event loop by the partition of the key.
+ * <p>
+ * All single key commands for the same key are issued in order on one event loop, e.g. the per key state of
+ * a decorator can be confined to that loop. This doesn't order them on the server: the commands of other callers
+ * for the same key still interleave with them, so a read-modify-write sequence needs a generation check.
+ * The partitions of every node are spread over all the event loops, so each loop still talks to every node.
+ * <p>
+ * Commands without a single key, e.g. batches, are given to the fallback selector.
+ */
+public class KeyAffinityEventLoop implements EventLoopSelector {
+    private final EventLoops eventLoops;
+    private final EventLoopSelector fallback;
+
+    public KeyAffinityEventLoop(final EventLoops eventLoops) {
+        this(eventLoops, new NextEventLoopSelector(eventLoops));
+    }
+
+    public KeyAffinityEventLoop(final EventLoops eventLoops, final EventLoopSelector fallback) {
+        this.eventLoops = Objects.requireNonNull(eventLoops, "eventLoops");
+        this.fallback = Objects.requireNonNull(fallback, "fallback");
+    }
+
+    @Override
+    public EventLoop select() {
+        return fallback.select();
+    }
+
+    @Override
+    public EventLoop select(final Key key) {
+        return eventLoops.get(Partition.getPartitionId(key.digest) % eventLoops.getSize());
+    }
+}
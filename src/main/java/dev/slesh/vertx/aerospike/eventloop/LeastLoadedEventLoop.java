@@ -0,0 +1,92 @@
+package dev.slesh.vertx.aerospike.eventloop;
+
+import com.aerospike.client.async.EventLoop;
+import com.aerospike.client.async.EventLoops;
+
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Selects the event loop with the fewest commands in process or waiting in its queue.
+ * <p>
+ * Instead of comparing every event loop, which costs O(n) per command, it samples {@code choices}
+ * random loops and takes the least loaded of them (power of two choices by default). That is nearly
+ * as good at spreading load as the full scan while the selection stays O(1).
+ * <p>
+ * The load is read with {@link EventLoop#getProcessSize()} and {@link EventLoop#getQueueSize()} which
+ * are owned by the event loop threads, so the value seen from another thread may be slightly stale.
+ * It is good enough as a heuristic. The load changes only once a loop starts a command, so a burst from another
+ * thread sees the same load everywhere: the scan starts at the next loop for every selection, so equally loaded
+ * loops are taken round-robin.
+ * <p>
+ * Can be used as the primary selector or as the fallback of {@link ContextEventLoop} for calls made
+ * outside of vert.x event loops, e.g. from worker verticles:
+ * <pre>{@code new ContextEventLoop(nettyEventLoops, new LeastLoadedEventLoop(nettyEventLoops))}</pre>
+ */
+public class LeastLoadedEventLoop implements EventLoopSelector {
+    public static final int DEFAULT_CHOICES = 2;
+
+    private final EventLoops eventLoops;
+    private final int choices;
+    private final AtomicInteger start = new AtomicInteger();
+
+    public LeastLoadedEventLoop(final EventLoops eventLoops) {
+        this(eventLoops, DEFAULT_CHOICES);
+    }
+
+    /**
+     * @param choices number of event loops sampled per selection, every event loop is compared
+     *                if it is not less than the number of event loops
+     */
+    public LeastLoadedEventLoop(final EventLoops eventLoops, final int choices) {
+        this.eventLoops = Objects.requireNonNull(eventLoops, "eventLoops");
+        if (choices < 1) {
+            throw new IllegalArgumentException("choices must be positive: " + choices);
+        }
+        this.choices = choices;
+    }
+
+    @Override
+    public EventLoop select() {
+        final int size = eventLoops.getSize();
+        if (size == 1) {
+            return eventLoops.get(0);
+        }
+        return choices >= size ? scan(size) : sample(size);
+    }
+
+    private EventLoop scan(final int size) {
+        final int first = Math.floorMod(start.getAndIncrement(), size);
+        EventLoop best = eventLoops.get(first);
+        int bestLoad = load(best);
+        for (int i = 1; i < size && bestLoad > 0; i++) {
+            final EventLoop candidate = eventLoops.get((first + i) % size);
+            final int candidateLoad = load(candidate);
+            if (candidateLoad < bestLoad) {
+                best = candidate;
+                bestLoad = candidateLoad;
+            }
+        }
+        return best;
+    }
+
+    private EventLoop sample(final int size) {
+        final var random = ThreadLocalRandom.current();
+        EventLoop best = eventLoops.get(random.nextInt(size));
+        int bestLoad = load(best);
+        for (int i = 1; i < choices && bestLoad > 0; i++) {
+            final EventLoop candidate = eventLoops.get(random.nextInt(size));
+            final int candidateLoad = load(candidate);
+            if (candidateLoad < bestLoad) {
+                best = candidate;
+                bestLoad = candidateLoad;
+            }
+        }
+        return best;
+    }
+
+    private static int load(final EventLoop eventLoop) {
+        return eventLoop.getProcessSize() + eventLoop.getQueueSize();
+    }
+}
@@ -0,0 +1,48 @@
+package dev.slesh.vertx.aerospike.limiter;
+
+/**
+ * Additive increase, multiplicative decrease limit.
+ * <p>
+ * The limit grows by one with every fast command completed while at least half of the limit is in use,
+ * and shrinks by {@code backoffRatio} when a command is dropped or slower than {@code latencyThresholdNanos}.
+ */
+public class AimdLimit implements Limit {
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+    private int limit;
+
+    public AimdLimit(final int initialLimit,
+                     final int minLimit,
+                     final int maxLimit,
+                     final double backoffRatio,
+                     final long latencyThresholdNanos) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException(
+                    "Expected 1 <= minLimit <= initialLimit <= maxLimit: " + minLimit + ", " + initialLimit + ", " + maxLimit);
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("backoffRatio must be in (0, 1): " + backoffRatio);
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+    }
+
+    @Override
+    public int limit() {
+        return limit;
+    }
+
+    @Override
+    public void onSample(final long latencyNanos, final int inFlight, final boolean dropped) {
+        if (dropped || latencyNanos > latencyThresholdNanos) {
+            limit = Math.max(minLimit, (int) (limit * backoffRatio));
+        } else if (inFlight * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+}
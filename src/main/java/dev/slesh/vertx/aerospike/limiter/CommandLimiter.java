@@ -0,0 +1,31 @@
+package dev.slesh.vertx.aerospike.limiter;
+
+import com.aerospike.client.async.EventLoop;
+
+/**
+ * Caps the number of commands which are in process on an aerospike event loop.
+ */
+public interface CommandLimiter {
+    CommandLimiter UNLIMITED = new CommandLimiter() {
+        @Override
+        public void submit(final EventLoop eventLoop, final LimitedCommand command) {
+            command.run();
+        }
+
+        @Override
+        public void release(final EventLoop eventLoop, final long latencyNanos, final boolean dropped) {
+        }
+    };
+
+    /**
+     * Runs the command right away when the event loop has a free slot, queues it or rejects it otherwise.
+     */
+    void submit(EventLoop eventLoop, LimitedCommand command);
+
+    /**
+     * Frees the slot taken by a command which has completed. Called on the event loop of the command.
+     *
+     * @param dropped {@code true} when the command has timed out or was refused because of overload
+     */
+    void release(EventLoop eventLoop, long latencyNanos, boolean dropped);
+}
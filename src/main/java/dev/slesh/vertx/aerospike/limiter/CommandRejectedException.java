@@ -0,0 +1,15 @@
+package dev.slesh.vertx.aerospike.limiter;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.ResultCode;
+
+/**
+ * The command was shed by {@link EventLoopLimiter} because the queue of its event loop is full.
+ * The command has not been sent to the server, so it's always safe to retry it.
+ */
+public class CommandRejectedException extends AerospikeException {
+    public CommandRejectedException(final int eventLoopIndex, final int queueSize) {
+        super(ResultCode.ASYNC_QUEUE_FULL,
+                "Command rejected: event loop " + eventLoopIndex + " has " + queueSize + " commands queued");
+    }
+}
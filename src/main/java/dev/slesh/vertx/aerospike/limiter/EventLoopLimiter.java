@@ -0,0 +1,87 @@
+package dev.slesh.vertx.aerospike.limiter;
+
+import com.aerospike.client.async.EventLoop;
+import com.aerospike.client.async.EventLoops;
+
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * {@link CommandLimiter} with a separate limit and a bounded FIFO queue per aerospike event loop.
+ * <p>
+ * All the state of an event loop is touched only from the event loop itself: submissions from other threads
+ * are handed over to it and completions arrive there anyway, so no locking is involved.
+ * When the queue is full the command fails immediately with {@link CommandRejectedException}.
+ */
+public class EventLoopLimiter implements CommandLimiter {
+    private final Slots[] slots;
+    private final int maxQueueSize;
+
+    /**
+     * @param limits creates the limit of every event loop, e.g. {@code () -> new FixedLimit(64)}
+     */
+    public EventLoopLimiter(final EventLoops eventLoops,
+                            final Supplier<Limit> limits,
+                            final int maxQueueSize) {
+        Objects.requireNonNull(eventLoops, "eventLoops");
+        Objects.requireNonNull(limits, "limits");
+        if (maxQueueSize < 0) {
+            throw new IllegalArgumentException("maxQueueSize must not be negative: " + maxQueueSize);
+        }
+        this.maxQueueSize = maxQueueSize;
+        this.slots = new Slots[eventLoops.getSize()];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = new Slots(limits.get());
+        }
+    }
+
+    @Override
+    public void submit(final EventLoop eventLoop, final LimitedCommand command) {
+        if (eventLoop.inEventLoop()) {
+            submit(eventLoop.getIndex(), command);
+        } else {
+            eventLoop.execute(() -> submit(eventLoop.getIndex(), command));
+        }
+    }
+
+    @Override
+    public void release(final EventLoop eventLoop, final long latencyNanos, final boolean dropped) {
+        final Slots slots = this.slots[eventLoop.getIndex()];
+        slots.limit.onSample(latencyNanos, slots.inFlight, dropped);
+        slots.inFlight--;
+        while (!slots.queue.isEmpty() && slots.inFlight < slots.limit.limit()) {
+            slots.inFlight++;
+            slots.queue.poll().run();
+        }
+    }
+
+    /**
+     * @return the current limit of the event loop, meant for monitoring
+     */
+    public int limit(final int eventLoopIndex) {
+        return slots[eventLoopIndex].limit.limit();
+    }
+
+    private void submit(final int eventLoopIndex, final LimitedCommand command) {
+        final Slots slots = this.slots[eventLoopIndex];
+        if (slots.inFlight < slots.limit.limit()) {
+            slots.inFlight++;
+            command.run();
+        } else if (slots.queue.size() < maxQueueSize) {
+            slots.queue.add(command);
+        } else {
+            command.reject(new CommandRejectedException(eventLoopIndex, slots.queue.size()));
+        }
+    }
+
+    private static final class Slots {
+        private final ArrayDeque<LimitedCommand> queue = new ArrayDeque<>();
+        private final Limit limit;
+        private int inFlight;
+
+        private Slots(final Limit limit) {
+            this.limit = limit;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package dev.slesh.vertx.aerospike.limiter;
+
+public class FixedLimit implements Limit {
+    private final int limit;
+
+    public FixedLimit(final int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be positive: " + limit);
+        }
+        this.limit = limit;
+    }
+
+    @Override
+    public int limit() {
+        return limit;
+    }
+
+    @Override
+    public void onSample(final long latencyNanos, final int inFlight, final boolean dropped) {
+    }
+}
@@ -0,0 +1,13 @@
+package dev.slesh.vertx.aerospike.limiter;
+
+/**
+ * Concurrency limit of one event loop. Confined to the event loop, so implementations don't need to be thread safe.
+ */
+public interface Limit {
+    int limit();
+
+    /**
+     * @param inFlight the number of commands in process including the completed one
+     */
+    void onSample(long latencyNanos, int inFlight, boolean dropped);
+}
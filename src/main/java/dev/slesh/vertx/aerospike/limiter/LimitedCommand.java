@@ -0,0 +1,16 @@
+package dev.slesh.vertx.aerospike.limiter;
+
+/**
+ * Command waiting for a free slot of {@link CommandLimiter}.
+ */
+public interface LimitedCommand {
+    /**
+     * Sends the command, the slot is taken until {@link CommandLimiter#release} is called.
+     */
+    void run();
+
+    /**
+     * Fails the command without sending it.
+     */
+    void reject(Throwable cause);
+}
@@ -0,0 +1,51 @@
+package dev.slesh.vertx.aerospike.limiter;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps extra attempts, e.g. hedges or retries, to a fraction of regular ones.
+ * Every regular attempt deposits {@code ratio} of a token and an extra attempt takes a whole one.
+ */
+public final class TokenBucket {
+    private static final long TOKEN = 1000;
+
+    private final long deposit;
+    private final long capacity;
+    private final AtomicLong tokens;
+
+    /**
+     * @param ratio extra attempts allowed per regular attempt
+     * @param burst extra attempts allowed back to back when the bucket is full
+     */
+    public TokenBucket(final double ratio, final int burst) {
+        if (!(ratio > 0)) {
+            throw new IllegalArgumentException("ratio must be positive: " + ratio);
+        }
+        if (burst < 1) {
+            throw new IllegalArgumentException("burst must be positive: " + burst);
+        }
+        this.deposit = Math.max(1, Math.round(ratio * TOKEN));
+        this.capacity = burst * TOKEN;
+        this.tokens = new AtomicLong(capacity);
+    }
+
+    public void deposit() {
+        long current;
+        // a full bucket is the common case, it costs a read of a shared cache line only
+        while ((current = tokens.get()) < capacity) {
+            if (tokens.compareAndSet(current, Math.min(capacity, current + deposit))) {
+                return;
+            }
+        }
+    }
+
+    public boolean tryAcquire() {
+        long current;
+        while ((current = tokens.get()) >= TOKEN) {
+            if (tokens.compareAndSet(current, current - TOKEN)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,32 @@
+package dev.slesh.vertx.aerospike.metrics;
+
+import dev.slesh.vertx.aerospike.client.CommandType;
+import dev.slesh.vertx.aerospike.client.breaker.CircuitState;
+
+/**
+ * Sink of the client measurements, an adapter to Micrometer, vert.x metrics SPI or any other
+ * metrics library implements it. The callbacks are invoked on the hot path from aerospike and vert.x
+ * event loops, so an implementation must be thread safe and should neither block nor allocate.
+ */
+public interface ClientMetrics {
+    /**
+     * @param batchSize number of records of a batch command, {@code 1} for a single record command
+     */
+    void onStart(CommandType type, int batchSize);
+
+    void onSuccess(CommandType type, long latencyNanos);
+
+    /**
+     * @param resultCode {@link com.aerospike.client.AerospikeException#getResultCode()},
+     *                   {@link com.aerospike.client.ResultCode#CLIENT_ERROR} for non aerospike failures
+     */
+    void onFailure(CommandType type, long latencyNanos, int resultCode);
+
+    void onEventLoopSelected(int eventLoopIndex);
+
+    /**
+     * A circuit of {@link dev.slesh.vertx.aerospike.client.breaker.CircuitBreakerAerospikeClient} changed its state.
+     */
+    default void onCircuitStateChange(final String nodeName, final CircuitState from, final CircuitState to) {
+    }
+}
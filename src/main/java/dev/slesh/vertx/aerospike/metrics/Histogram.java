@@ -0,0 +1,92 @@
+package dev.slesh.vertx.aerospike.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Log-linear histogram of non-negative longs in the spirit of HdrHistogram.
+ * <p>
+ * Each power of two is divided into 8 linear sub-buckets, so a recorded value is off by 12.5% at most.
+ * Counts are kept in stripes selected by the recording thread, which keeps event loops from contending
+ * on the same cache lines. Recording never allocates.
+ */
+public class Histogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts;
+    private final int stripeMask;
+
+    /**
+     * @param stripes rounded up to a power of two, a good value is the number of event loops
+     */
+    public Histogram(final int stripes) {
+        final int size = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.stripeMask = size - 1;
+        this.counts = new AtomicLongArray(size * BUCKETS);
+    }
+
+    public void record(final long value) {
+        final int stripe = (int) Thread.currentThread().getId() & stripeMask;
+        counts.incrementAndGet(stripe * BUCKETS + bucket(Math.max(0, value)));
+    }
+
+    public long count() {
+        long count = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * @param percentile in range [0, 100]
+     * @return the upper bound of the bucket holding the percentile, {@code 0} if nothing was recorded
+     */
+    public long valueAtPercentile(final double percentile) {
+        final long[] merged = merge();
+        long total = 0;
+        for (final long count : merged) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(total * Math.min(100, Math.max(0, percentile)) / 100));
+        long seen = 0;
+        for (int bucket = 0; bucket < merged.length; bucket++) {
+            seen += merged[bucket];
+            if (seen >= rank) {
+                return upperBound(bucket);
+            }
+        }
+        return upperBound(merged.length - 1);
+    }
+
+    private long[] merge() {
+        final long[] merged = new long[BUCKETS];
+        for (int i = 0; i < counts.length(); i++) {
+            merged[i % BUCKETS] += counts.get(i);
+        }
+        return merged;
+    }
+
+    static int bucket(final long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long upperBound(final int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        final int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        final long subBucket = bucket % SUB_BUCKETS;
+        final long lowerBound = (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+        return lowerBound + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
@@ -0,0 +1,136 @@
+package dev.slesh.vertx.aerospike.metrics;
+
+import dev.slesh.vertx.aerospike.client.CommandType;
+import dev.slesh.vertx.aerospike.client.breaker.CircuitState;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory {@link ClientMetrics}: latency and batch size histograms, in-flight gauges and error counters
+ * per command type, command counters per aerospike event loop and the states of the node circuits.
+ * Meant to be polled by a reporter.
+ */
+public class HistogramMetrics implements ClientMetrics {
+    /**
+     * Key of {@link #errors(CommandType)} counting the result codes out of range [-32, 255],
+     * the client and the server define none of them.
+     */
+    public static final int OTHER_RESULT_CODE = Integer.MIN_VALUE;
+
+    private static final int MIN_RESULT_CODE = -32;
+    private static final int MAX_RESULT_CODE = 255;
+    // one counter per known result code and the last one for the others
+    private static final int ERROR_SLOTS = MAX_RESULT_CODE - MIN_RESULT_CODE + 2;
+
+    private final Histogram[] latencies;
+    private final Histogram[] batchSizes;
+    private final LongAdder[] inFlight;
+    private final AtomicLongArray errors;
+    private final AtomicLongArray eventLoopCommands;
+    private final Map<String, CircuitState> circuits = new ConcurrentHashMap<>();
+    private final LongAdder[] circuitTransitions;
+
+    public HistogramMetrics(final int eventLoops) {
+        final CommandType[] types = CommandType.values();
+        this.latencies = new Histogram[types.length];
+        this.batchSizes = new Histogram[types.length];
+        this.inFlight = new LongAdder[types.length];
+        this.errors = new AtomicLongArray(types.length * ERROR_SLOTS);
+        for (final CommandType type : types) {
+            latencies[type.ordinal()] = new Histogram(eventLoops);
+            batchSizes[type.ordinal()] = new Histogram(eventLoops);
+            inFlight[type.ordinal()] = new LongAdder();
+        }
+        this.eventLoopCommands = new AtomicLongArray(eventLoops);
+        this.circuitTransitions = new LongAdder[CircuitState.values().length];
+        for (int i = 0; i < circuitTransitions.length; i++) {
+            circuitTransitions[i] = new LongAdder();
+        }
+    }
+
+    @Override
+    public void onStart(final CommandType type, final int batchSize) {
+        inFlight[type.ordinal()].increment();
+        if (type.isBatch()) {
+            batchSizes[type.ordinal()].record(batchSize);
+        }
+    }
+
+    @Override
+    public void onSuccess(final CommandType type, final long latencyNanos) {
+        inFlight[type.ordinal()].decrement();
+        latencies[type.ordinal()].record(latencyNanos);
+    }
+
+    @Override
+    public void onFailure(final CommandType type, final long latencyNanos, final int resultCode) {
+        inFlight[type.ordinal()].decrement();
+        latencies[type.ordinal()].record(latencyNanos);
+        final int slot = resultCode >= MIN_RESULT_CODE && resultCode <= MAX_RESULT_CODE
+                ? resultCode - MIN_RESULT_CODE
+                : ERROR_SLOTS - 1;
+        errors.incrementAndGet(type.ordinal() * ERROR_SLOTS + slot);
+    }
+
+    @Override
+    public void onEventLoopSelected(final int eventLoopIndex) {
+        if (eventLoopIndex < eventLoopCommands.length()) {
+            eventLoopCommands.incrementAndGet(eventLoopIndex);
+        }
+    }
+
+    @Override
+    public void onCircuitStateChange(final String nodeName, final CircuitState from, final CircuitState to) {
+        circuits.put(nodeName, to);
+        circuitTransitions[to.ordinal()].increment();
+    }
+
+    public Histogram latency(final CommandType type) {
+        return latencies[type.ordinal()];
+    }
+
+    public Histogram batchSize(final CommandType type) {
+        return batchSizes[type.ordinal()];
+    }
+
+    public long inFlight(final CommandType type) {
+        return inFlight[type.ordinal()].sum();
+    }
+
+    /**
+     * @return number of failures by aerospike result code, the codes which never failed are left out
+     */
+    public Map<Integer, Long> errors(final CommandType type) {
+        final Map<Integer, Long> snapshot = new TreeMap<>();
+        final int offset = type.ordinal() * ERROR_SLOTS;
+        for (int slot = 0; slot < ERROR_SLOTS; slot++) {
+            final long count = errors.get(offset + slot);
+            if (count > 0) {
+                snapshot.put(slot == ERROR_SLOTS - 1 ? OTHER_RESULT_CODE : slot + MIN_RESULT_CODE, count);
+            }
+        }
+        return snapshot;
+    }
+
+    public long eventLoopCommands(final int eventLoopIndex) {
+        return eventLoopCommands.get(eventLoopIndex);
+    }
+
+    /**
+     * @return the state of the circuit by node name, only nodes whose circuit has left the initial state are listed
+     */
+    public Map<String, CircuitState> circuits() {
+        return new TreeMap<>(circuits);
+    }
+
+    /**
+     * @return number of transitions of all the node circuits into the state
+     */
+    public long circuitTransitions(final CircuitState to) {
+        return circuitTransitions[to.ordinal()].sum();
+    }
+}
@@ -0,0 +1,34 @@
+package dev.slesh.vertx.aerospike.metrics;
+
+import com.aerospike.client.Key;
+import com.aerospike.client.async.EventLoop;
+import dev.slesh.vertx.aerospike.eventloop.EventLoopSelector;
+
+import java.util.Objects;
+
+/**
+ * Counts commands per aerospike event loop by reporting every selection of the wrapped selector.
+ */
+public class MeteredEventLoopSelector implements EventLoopSelector {
+    private final EventLoopSelector delegate;
+    private final ClientMetrics metrics;
+
+    public MeteredEventLoopSelector(final EventLoopSelector delegate, final ClientMetrics metrics) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.metrics = Objects.requireNonNull(metrics, "metrics");
+    }
+
+    @Override
+    public EventLoop select() {
+        final EventLoop eventLoop = delegate.select();
+        metrics.onEventLoopSelected(eventLoop.getIndex());
+        return eventLoop;
+    }
+
+    @Override
+    public EventLoop select(final Key key) {
+        final EventLoop eventLoop = delegate.select(key);
+        metrics.onEventLoopSelected(eventLoop.getIndex());
+        return eventLoop;
+    }
+}
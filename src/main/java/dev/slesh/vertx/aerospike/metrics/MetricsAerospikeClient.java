@@ -0,0 +1,344 @@
+package dev.slesh.vertx.aerospike.metrics;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.BatchRead;
+import com.aerospike.client.BatchRecord;
+import com.aerospike.client.Bin;
+import com.aerospike.client.Key;
+import com.aerospike.client.Operation;
+import com.aerospike.client.ResultCode;
+import com.aerospike.client.Value;
+import com.aerospike.client.async.AsyncIndexTask;
+import com.aerospike.client.cluster.Node;
+import com.aerospike.client.policy.BatchDeletePolicy;
+import com.aerospike.client.policy.BatchPolicy;
+import com.aerospike.client.policy.BatchUDFPolicy;
+import com.aerospike.client.policy.BatchWritePolicy;
+import com.aerospike.client.policy.InfoPolicy;
+import com.aerospike.client.policy.Policy;
+import com.aerospike.client.policy.WritePolicy;
+import com.aerospike.client.query.IndexCollectionType;
+import com.aerospike.client.query.IndexType;
+import dev.slesh.vertx.aerospike.client.AsyncAerospikeClient;
+import dev.slesh.vertx.aerospike.client.CommandType;
+import dev.slesh.vertx.aerospike.client.DelegatingAerospikeClient;
+import dev.slesh.vertx.aerospike.client.result.BatchOperateListValue;
+import dev.slesh.vertx.aerospike.client.result.BatchRecordArrayValue;
+import dev.slesh.vertx.aerospike.client.result.DeleteValue;
+import dev.slesh.vertx.aerospike.client.result.ExecuteValue;
+import dev.slesh.vertx.aerospike.client.result.ExistsArrayValue;
+import dev.slesh.vertx.aerospike.client.result.ReadValue;
+import dev.slesh.vertx.aerospike.client.result.RecordArrayValue;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Reports latency, outcome and batch size of every command to {@link ClientMetrics}.
+ * <p>
+ * Combine with {@link MeteredEventLoopSelector} passed to
+ * {@link dev.slesh.vertx.aerospike.client.VertxAerospikeClient} to get command counts per event loop.
+ */
+public class MetricsAerospikeClient extends DelegatingAerospikeClient {
+    private final ClientMetrics metrics;
+
+    public MetricsAerospikeClient(final AsyncAerospikeClient client, final ClientMetrics metrics) {
+        super(client);
+        this.metrics = Objects.requireNonNull(metrics, "metrics");
+    }
+
+    @Override
+    public Future<Key> put(WritePolicy policy, Key key, Bin... bins) throws AerospikeException {
+        final Timer<Key> timer = start(CommandType.PUT, 1);
+        try {
+            return timer.stop(client.put(policy, key, bins));
+        } catch (RuntimeException e) {
+            throw timer.fail(e);
+        }
+    }
+
+    @Override
+    public Future<Key> append(WritePolicy policy, Key key, Bin... bins) throws AerospikeException {
+        final Timer<Key> timer = start(CommandType.APPEND, 1);
+        try {
+            return timer.stop(client.append(policy, key, bins));
+        } catch (RuntimeException e) {
+            throw timer.fail(e);
+        }
+    }
+
+    @Override
+    public Future<Key> prepend(WritePolicy policy, Key key, Bin... bins) throws AerospikeException {
+        final Timer<Key> timer = start(CommandType.PREPEND, 1);
+        try {
+            return timer.stop(client.prepend(policy, key, bins));
+        } catch (RuntimeException e) {
+            throw timer.fail(e);
+        }
+    }
+
+    @Override
+    public Future<Key> add(WritePolicy policy, Key key, Bin... bins) throws AerospikeException {
+        final Timer<Key> timer = start(CommandType.ADD, 1);
+        try {
+            return timer.stop(client.add(policy, key, bins));
+        } catch (RuntimeException e) {
+            throw timer.fail(e);
+        }
+    }
+
+    @Override
+    public Future<DeleteValue> delete(WritePolicy policy, Key key) throws AerospikeException {
+        final Timer<DeleteValue> timer = start(CommandType.DELETE, 1);
+        try {
+            return timer.stop(client.delete(policy, key));
+        } catch (RuntimeException e) {
+            throw timer.fail(e);
+        }
+    }
+
+    @Override
+    public Future<BatchRecordArrayValue> delete(BatchPolicy batchPolicy, BatchDeletePolicy deletePolicy, Key[] keys) throws AerospikeException {
+        final Timer<BatchRecordArrayValue> timer = start(CommandType.BATCH_DELETE, keys.length);
+        try {
+            return timer.stop(client.delete(batchPolicy, deletePolicy, keys));
+        } catch (RuntimeException e) {
+            throw timer.fail(e);
+        }
+    }
+
+    @Override
+    public Future<Key> touch(WritePolicy policy, Key key) throws AerospikeException {
+        final Timer<Key> timer = start(CommandType.TOUCH, 1);
+        try {
+            return timer.stop(client.touch(policy, key));
+        } catch (RuntimeException e) {
+            throw timer.fail(e);
+        }
+    }
+
+    @Override
+    public Future<Boolean> exists(Policy policy, Key key) throws AerospikeException {
+        final Timer<Boolean> timer = start(CommandType.EXISTS, 1);
+        try {
+            return timer.stop(client.exists(policy, key));
+        } catch (RuntimeException e) {
+            throw timer.fail(e);
+        }
+    }
+
+    @Override
+    public Future<ExistsArrayValue> exists(BatchPolicy policy, Key[] keys) throws AerospikeException {
+        final Timer<ExistsArrayValue> timer = start(CommandType.BATCH_EXISTS, keys.length);
+        try {
+            return timer.stop(client.exists(policy, keys));
+        } catch (RuntimeException e) {
+            throw timer.fail(e);
+        }
+    }
+
+    @Override
+    public Future<ReadValue> get(Policy policy, Key key) throws AerospikeException {
+        final Timer<ReadValue> timer = start(CommandType.GET, 1);
+        try {
+            return timer.stop(client.get(policy, key));
+        } catch (RuntimeException e) {
+            throw timer.fail(e);
+        }
+    }
+
+    @Override
+    public Future<ReadValue> get(Policy policy, Key key, String... binNames) throws AerospikeException {
+        final Timer<ReadValue> timer = start(CommandType.GET, 1);
+        try {
+            return timer.stop(client.get(policy, key, binNames));
+        } catch (RuntimeException e) {
+            throw timer.fail(e);
+        }
+    }
+
+    @Override
+    public Future<ReadValue> getHeader(Policy policy, Key key) throws AerospikeException {
+        final Timer<ReadValue> timer = start(CommandType.GET_HEADER, 1);
+        try {
+            return timer.stop(client.getHeader(policy, key));
+        } catch (RuntimeException e) {
+            throw timer.fail(e);
+        }
+    }
+
+    @Override
+    public Future<List<BatchRead>> get(BatchPolicy policy, List<BatchRead> records) throws AerospikeException {
+        final Timer<List<BatchRead>> timer = start(CommandType.BATCH_GET, records.size());
+        try {
+            return timer.stop(client.get(policy, records));
+        } catch (RuntimeException e) {
+            throw timer.fail(e);
+        }
+    }
+
+    @Override
+    public Future<RecordArrayValue> get(BatchPolicy policy, Key[] keys) throws AerospikeException {
+        final Timer<RecordArrayValue> timer = start(CommandType.BATCH_GET, keys.length);
+        try {
+            return timer.stop(client.get(policy, keys));
+        } catch (RuntimeException e) {
+            throw timer.fail(e);
+        }
+    }
+
+    @Override
+    public Future<RecordArrayValue> get(BatchPolicy policy, Key[] keys, String... binNames) throws AerospikeException {
+        final Timer<RecordArrayValue> timer = start(CommandType.BATCH_GET, keys.length);
+        try {
+            return timer.stop(client.get(policy, keys, binNames));
+        } catch (RuntimeException e) {
+            throw timer.fail(e);
+        }
+    }
+
+    @Override
+    public Future<RecordArrayValue> get(BatchPolicy policy, Key[] keys, Operation... ops) throws AerospikeException {
+        final Timer<RecordArrayValue> timer = start(CommandType.BATCH_GET, keys.length);
+        try {
+            return timer.stop(client.get(policy, keys, ops));
+        } catch (RuntimeException e) {
+            throw timer.fail(e);
+        }
+    }
+
+    @Override
+    public Future<RecordArrayValue> getHeader(BatchPolicy policy, Key[] keys) throws AerospikeException {
+        final Timer<RecordArrayValue> timer = start(CommandType.BATCH_GET_HEADER, keys.length);
+        try {
+            return timer.stop(client.getHeader(policy, keys));
+        } catch (RuntimeException e) {
+            throw timer.fail(e);
+        }
+    }
+
+    @Override
+    public Future<ReadValue> operate(WritePolicy policy, Key key, Operation... operations) throws AerospikeException {
+        final Timer<ReadValue> timer = start(CommandType.OPERATE, 1);
+        try {
+            return timer.stop(client.operate(policy, key, operations));
+        } catch (RuntimeException e) {
+            throw timer.fail(e);
+        }
+    }
+
+    @Override
+    public Future<BatchOperateListValue> operate(BatchPolicy policy, List<BatchRecord> records) throws AerospikeException {
+        final Timer<BatchOperateListValue> timer = start(CommandType.BATCH_OPERATE, records.size());
+        try {
+            return timer.stop(client.operate(policy, records));
+        } catch (RuntimeException e) {
+            throw timer.fail(e);
+        }
+    }
+
+    @Override
+    public Future<BatchRecordArrayValue> operate(BatchPolicy batchPolicy, BatchWritePolicy writePolicy, Key[] keys, Operation... ops) throws AerospikeException {
+        final Timer<BatchRecordArrayValue> timer = start(CommandType.BATCH_OPERATE, keys.length);
+        try {
+            return timer.stop(client.operate(batchPolicy, writePolicy, keys, ops));
+        } catch (RuntimeException e) {
+            throw timer.fail(e);
+        }
+    }
+
+    @Override
+    public Future<ExecuteValue> execute(WritePolicy policy, Key key, String packageName, String functionName, Value... args) throws AerospikeException {
+        final Timer<ExecuteValue> timer = start(CommandType.EXECUTE, 1);
+        try {
+            return timer.stop(client.execute(policy, key, packageName, functionName, args));
+        } catch (RuntimeException e) {
+            throw timer.fail(e);
+        }
+    }
+
+    @Override
+    public Future<BatchRecordArrayValue> execute(BatchPolicy batchPolicy, BatchUDFPolicy udfPolicy, Key[] keys, String packageName, String functionName, Value... args) throws AerospikeException {
+        final Timer<BatchRecordArrayValue> timer = start(CommandType.BATCH_EXECUTE, keys.length);
+        try {
+            return timer.stop(client.execute(batchPolicy, udfPolicy, keys, packageName, functionName, args));
+        } catch (RuntimeException e) {
+            throw timer.fail(e);
+        }
+    }
+
+    @Override
+    public Future<AsyncIndexTask> createIndex(Policy policy, String namespace, String setName, String indexName, String binName, IndexType indexType, IndexCollectionType indexCollectionType) throws AerospikeException {
+        final Timer<AsyncIndexTask> timer = start(CommandType.CREATE_INDEX, 1);
+        try {
+            return timer.stop(client.createIndex(policy, namespace, setName, indexName, binName, indexType, indexCollectionType));
+        } catch (RuntimeException e) {
+            throw timer.fail(e);
+        }
+    }
+
+    @Override
+    public Future<AsyncIndexTask> dropIndex(Policy policy, String namespace, String setName, String indexName) throws AerospikeException {
+        final Timer<AsyncIndexTask> timer = start(CommandType.DROP_INDEX, 1);
+        try {
+            return timer.stop(client.dropIndex(policy, namespace, setName, indexName));
+        } catch (RuntimeException e) {
+            throw timer.fail(e);
+        }
+    }
+
+    @Override
+    public Future<Map<String, String>> info(InfoPolicy policy, Node node, String... commands) throws AerospikeException {
+        final Timer<Map<String, String>> timer = start(CommandType.INFO, 1);
+        try {
+            return timer.stop(client.info(policy, node, commands));
+        } catch (RuntimeException e) {
+            throw timer.fail(e);
+        }
+    }
+
+    private <T> Timer<T> start(final CommandType type, final int batchSize) {
+        metrics.onStart(type, batchSize);
+        return new Timer<>(type, System.nanoTime());
+    }
+
+    private static int resultCode(final Throwable cause) {
+        return cause instanceof AerospikeException ae ? ae.getResultCode() : ResultCode.CLIENT_ERROR;
+    }
+
+    /**
+     * Times one command and reports its outcome, the only allocation per command.
+     */
+    private final class Timer<T> implements Handler<AsyncResult<T>> {
+        private final CommandType type;
+        private final long start;
+
+        private Timer(final CommandType type, final long start) {
+            this.type = type;
+            this.start = start;
+        }
+
+        Future<T> stop(final Future<T> future) {
+            return future.onComplete(this);
+        }
+
+        RuntimeException fail(final RuntimeException e) {
+            metrics.onFailure(type, System.nanoTime() - start, resultCode(e));
+            return e;
+        }
+
+        @Override
+        public void handle(final AsyncResult<T> ar) {
+            final long latency = System.nanoTime() - start;
+            if (ar.succeeded()) {
+                metrics.onSuccess(type, latency);
+            } else {
+                metrics.onFailure(type, latency, resultCode(ar.cause()));
+            }
+        }
+    }
+}
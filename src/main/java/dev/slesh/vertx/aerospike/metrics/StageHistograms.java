@@ -0,0 +1,82 @@
+package dev.slesh.vertx.aerospike.metrics;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * In-memory {@link StageMetrics}: a histogram of every stage per aerospike event loop. Meant to be polled by
+ * a reporter: a growing {@link #eventLoop(int)} delay means the event loop is saturated, a growing
+ * {@link #handoff(int)} delay means the vert.x event loops of the callers are.
+ */
+public class StageHistograms implements StageMetrics {
+    public static final double DEFAULT_SAMPLE_RATIO = 0.01;
+
+    private final double sampleRatio;
+    private final Histogram[] limiter;
+    private final Histogram[] eventLoop;
+    private final Histogram[] server;
+    private final Histogram[] handoff;
+
+    public StageHistograms(final int eventLoops) {
+        this(eventLoops, DEFAULT_SAMPLE_RATIO);
+    }
+
+    /**
+     * @param sampleRatio share of the commands to time, {@code 1} times every command
+     */
+    public StageHistograms(final int eventLoops, final double sampleRatio) {
+        if (eventLoops < 1) {
+            throw new IllegalArgumentException("eventLoops must be positive: " + eventLoops);
+        }
+        if (!(sampleRatio > 0 && sampleRatio <= 1)) {
+            throw new IllegalArgumentException("sampleRatio must be in (0, 1]: " + sampleRatio);
+        }
+        this.sampleRatio = sampleRatio;
+        this.limiter = histograms(eventLoops);
+        this.eventLoop = histograms(eventLoops);
+        this.server = histograms(eventLoops);
+        this.handoff = histograms(eventLoops);
+    }
+
+    @Override
+    public boolean sample(final int eventLoopIndex) {
+        return eventLoopIndex < limiter.length
+                && (sampleRatio >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRatio);
+    }
+
+    @Override
+    public void onCommand(final int eventLoopIndex,
+                          final long limiterNanos,
+                          final long eventLoopNanos,
+                          final long serverNanos,
+                          final long handoffNanos) {
+        limiter[eventLoopIndex].record(limiterNanos);
+        eventLoop[eventLoopIndex].record(eventLoopNanos);
+        server[eventLoopIndex].record(serverNanos);
+        handoff[eventLoopIndex].record(handoffNanos);
+    }
+
+    public Histogram limiter(final int eventLoopIndex) {
+        return limiter[eventLoopIndex];
+    }
+
+    public Histogram eventLoop(final int eventLoopIndex) {
+        return eventLoop[eventLoopIndex];
+    }
+
+    public Histogram server(final int eventLoopIndex) {
+        return server[eventLoopIndex];
+    }
+
+    public Histogram handoff(final int eventLoopIndex) {
+        return handoff[eventLoopIndex];
+    }
+
+    private static Histogram[] histograms(final int eventLoops) {
+        final Histogram[] histograms = new Histogram[eventLoops];
+        for (int i = 0; i < eventLoops; i++) {
+            // only sampled commands are recorded, a single stripe keeps the footprint small
+            histograms[i] = new Histogram(1);
+        }
+        return histograms;
+    }
+}
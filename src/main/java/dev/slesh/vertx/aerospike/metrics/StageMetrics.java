@@ -0,0 +1,44 @@
+package dev.slesh.vertx.aerospike.metrics;
+
+/**
+ * Sink of the time a command of {@link dev.slesh.vertx.aerospike.client.VertxAerospikeClient} spends in every stage,
+ * from the submission to the execution of the promise handlers. It tells apart a slow server from a saturated
+ * aerospike event loop and from a busy vert.x event loop of the caller.
+ * <p>
+ * Only the sampled commands are timed, and only the ones issued from a vert.x event loop context: otherwise there is
+ * no hop back to the caller to measure and the handoff would be reported as zero. The callbacks are invoked on the
+ * hot path from aerospike and vert.x event loops, so an implementation must be thread safe and should neither block
+ * nor allocate.
+ */
+public interface StageMetrics {
+    StageMetrics NOOP = new StageMetrics() {
+        @Override
+        public boolean sample(final int eventLoopIndex) {
+            return false;
+        }
+
+        @Override
+        public void onCommand(final int eventLoopIndex,
+                              final long limiterNanos,
+                              final long eventLoopNanos,
+                              final long serverNanos,
+                              final long handoffNanos) {
+        }
+    };
+
+    /**
+     * Called on submission of every command issued from a vert.x event loop context.
+     *
+     * @return whether to time the command
+     */
+    boolean sample(int eventLoopIndex);
+
+    /**
+     * @param eventLoopIndex index of the aerospike event loop which ran the command
+     * @param limiterNanos   waiting for a permit of the {@link dev.slesh.vertx.aerospike.limiter.CommandLimiter}
+     * @param eventLoopNanos waiting in the task queue of the aerospike event loop
+     * @param serverNanos    from sending the command to the listener callback: network, server and connection pool
+     * @param handoffNanos   from the listener callback to the promise handlers on the caller's vert.x context
+     */
+    void onCommand(int eventLoopIndex, long limiterNanos, long eventLoopNanos, long serverNanos, long handoffNanos);
+}
@@ -0,0 +1,90 @@
+package dev.slesh.vertx.aerospike.client;
+
+import com.aerospike.client.Key;
+import com.aerospike.client.async.EventLoop;
+import com.aerospike.client.async.NettyEventLoops;
+import com.aerospike.client.listener.RecordListener;
+import dev.slesh.vertx.aerospike.eventloop.NextEventLoopSelector;
+import dev.slesh.vertx.aerospike.future.ContextPromiseSelector;
+import dev.slesh.vertx.aerospike.limiter.EventLoopLimiter;
+import dev.slesh.vertx.aerospike.limiter.FixedLimit;
+import io.vertx.core.Vertx;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@ExtendWith(VertxExtension.class)
+class CommandTest {
+    private final Key key = new Key("ns", "set", "key");
+
+    @Test
+    void failedSendReleasesLimiterSlot(final Vertx vertx, final VertxTestContext context) {
+        final var eventLoops = new NettyEventLoops(vertx.nettyEventLoopGroup());
+        final var calls = new AtomicInteger();
+        final var client = new VertxAerospikeClient(
+                StubAerospikeClient.create((method, args) -> {
+                    if (calls.incrementAndGet() == 1) {
+                        throw new IllegalArgumentException("bad key");
+                    }
+                    ((RecordListener) args[1]).onSuccess(key, null);
+                }),
+                new NextEventLoopSelector(eventLoops),
+                new ContextPromiseSelector(),
+                new EventLoopLimiter(eventLoops, () -> new FixedLimit(1), 0));
+        vertx.runOnContext(v -> client.get(key)
+                .onComplete(context.failing(error -> context.verify(() -> {
+                    Assertions.assertInstanceOf(IllegalArgumentException.class, error);
+                    // the slot of the failed command is free, the limit of 1 would reject otherwise
+                    client.get(key).onComplete(context.succeedingThenComplete());
+                }))));
+    }
+
+    @Test
+    void drainWaitsForDeliveredResults(final Vertx vertx, final VertxTestContext context) {
+        final var eventLoops = new NettyEventLoops(vertx.nettyEventLoopGroup());
+        final var client = new VertxAerospikeClient(
+                StubAerospikeClient.create((method, args) -> {
+                    final var eventLoop = (EventLoop) args[0];
+                    eventLoop.schedule(() -> ((RecordListener) args[1]).onSuccess(key, null),
+                            10, TimeUnit.MILLISECONDS);
+                }),
+                new NextEventLoopSelector(eventLoops),
+                new ContextPromiseSelector());
+        vertx.runOnContext(v -> {
+            final var get = client.get(key);
+            client.drain().onComplete(context.succeeding(ignored -> context.verify(() -> {
+                Assertions.assertTrue(get.succeeded());
+                client.get(key).onComplete(context.failing(error -> context.verify(() -> {
+                    Assertions.assertInstanceOf(ClientClosedException.class, error);
+                    context.completeNow();
+                })));
+            })));
+        });
+    }
+
+    @Test
+    void crossLoopCompletionsRunOnCallerContext(final Vertx vertx, final VertxTestContext context) {
+        final var eventLoops = new NettyEventLoops(vertx.nettyEventLoopGroup());
+        final var client = new VertxAerospikeClient(
+                StubAerospikeClient.create((method, args) ->
+                        ((EventLoop) args[0]).execute(() -> ((RecordListener) args[1]).onSuccess(key, null))),
+                new NextEventLoopSelector(eventLoops),
+                new ContextPromiseSelector());
+        final int commands = 100;
+        final var checkpoint = context.checkpoint(commands);
+        vertx.runOnContext(v -> {
+            final Thread caller = Thread.currentThread();
+            for (int i = 0; i < commands; i++) {
+                client.get(key).onComplete(context.succeeding(value -> context.verify(() -> {
+                    Assertions.assertSame(caller, Thread.currentThread());
+                    checkpoint.flag();
+                })));
+            }
+        });
+    }
+}
@@ -0,0 +1,46 @@
+package dev.slesh.vertx.aerospike.client;
+
+import com.aerospike.client.IAerospikeClient;
+import com.aerospike.client.async.EventLoop;
+
+import java.lang.reflect.Proxy;
+import java.util.function.BiConsumer;
+
+/**
+ * {@link IAerospikeClient} answering the async commands with the given handler, no server involved.
+ * The default policies are new instances of the policy classes.
+ */
+public final class StubAerospikeClient {
+    private StubAerospikeClient() {
+    }
+
+    /**
+     * @param handler gets the method name and the arguments of every async command, the event loop comes first
+     *                and the listener second
+     */
+    public static IAerospikeClient create(final BiConsumer<String, Object[]> handler) {
+        return (IAerospikeClient) Proxy.newProxyInstance(
+                IAerospikeClient.class.getClassLoader(),
+                new Class<?>[]{IAerospikeClient.class},
+                (proxy, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class) {
+                        return switch (method.getName()) {
+                            case "hashCode" -> System.identityHashCode(proxy);
+                            case "equals" -> proxy == args[0];
+                            default -> "StubAerospikeClient";
+                        };
+                    }
+                    if (method.getName().equals("getCluster") || method.getName().equals("close")) {
+                        return null;
+                    }
+                    if (method.getName().endsWith("PolicyDefault")) {
+                        return method.getReturnType().getConstructor().newInstance();
+                    }
+                    if (args == null || args.length < 2 || !(args[0] instanceof EventLoop)) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    handler.accept(method.getName(), args);
+                    return null;
+                });
+    }
+}
@@ -3,9 +3,16 @@ package dev.slesh.vertx.aerospike.client;
 import com.aerospike.client.Bin;
 import com.aerospike.client.Key;
 import com.aerospike.client.async.NettyEventLoops;
+import com.aerospike.client.query.KeyRecord;
+import dev.slesh.vertx.aerospike.client.codec.BinName;
+import dev.slesh.vertx.aerospike.client.codec.RecordCodec;
+import dev.slesh.vertx.aerospike.client.codec.RecordCodecs;
 import dev.slesh.vertx.aerospike.eventloop.ContextEventLoop;
 import dev.slesh.vertx.aerospike.future.ContextPromiseSelector;
+import io.vertx.core.CompositeFuture;
 import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.ReadStream;
 import io.vertx.junit5.VertxExtension;
 import io.vertx.junit5.VertxTestContext;
 import org.junit.jupiter.api.Assertions;
@@ -13,6 +20,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.util.ArrayList;
+import java.util.List;
+
 
 @ExtendWith(VertxExtension.class)
 @Testcontainers(disabledWithoutDocker = true)
@@ -32,4 +42,99 @@ class VertxAerospikeClientTest extends AerospikeITestSuit {
                 }))
                 .onComplete(context.succeedingThenComplete());
     }
+
+    @Test
+    void scanStream(final Vertx vertx, final VertxTestContext context) {
+        final var nettyEventLoops = new NettyEventLoops(vertx.nettyEventLoopGroup());
+        final var asyncAerospike = new VertxAerospikeClient(
+                createClient(nettyEventLoops),
+                new ContextEventLoop(nettyEventLoops),
+                new ContextPromiseSelector());
+        CompositeFuture.all(
+                        asyncAerospike.put(new Key(namespace, set, "user1"), new Bin("age", 10)),
+                        asyncAerospike.put(new Key(namespace, set, "user2"), new Bin("age", 20)),
+                        asyncAerospike.put(new Key(namespace, set, "user3"), new Bin("age", 30)))
+                .onComplete(context.succeeding(ignored -> vertx.runOnContext(v -> {
+                    final List<KeyRecord> records = new ArrayList<>();
+                    final ReadStream<KeyRecord> stream = asyncAerospike.scanStream(namespace, set);
+                    stream.pause()
+                            .handler(record -> {
+                                records.add(record);
+                                stream.fetch(1);
+                            })
+                            .exceptionHandler(context::failNow)
+                            .endHandler(end -> context.verify(() -> {
+                                Assertions.assertEquals(3, records.size());
+                                context.completeNow();
+                            }))
+                            .fetch(1);
+                })));
+    }
+
+    @Test
+    void getStream(final Vertx vertx, final VertxTestContext context) {
+        final var nettyEventLoops = new NettyEventLoops(vertx.nettyEventLoopGroup());
+        final var asyncAerospike = new VertxAerospikeClient(
+                createClient(nettyEventLoops),
+                new ContextEventLoop(nettyEventLoops),
+                new ContextPromiseSelector());
+        final Key[] keys = {
+                new Key(namespace, set, "user1"),
+                new Key(namespace, set, "user2"),
+                new Key(namespace, set, "user3")};
+        CompositeFuture.all(
+                        asyncAerospike.put(keys[0], new Bin("age", 10)),
+                        asyncAerospike.put(keys[1], new Bin("age", 20)),
+                        asyncAerospike.put(keys[2], new Bin("age", 30)))
+                .onComplete(context.succeeding(ignored -> vertx.runOnContext(v -> {
+                    final List<KeyRecord> records = new ArrayList<>();
+                    asyncAerospike.getStream(keys)
+                            .handler(records::add)
+                            .exceptionHandler(context::failNow)
+                            .endHandler(end -> context.verify(() -> {
+                                Assertions.assertEquals(3, records.size());
+                                context.completeNow();
+                            }));
+                })));
+    }
+
+    @Test
+    void drain(final Vertx vertx, final VertxTestContext context) {
+        final var nettyEventLoops = new NettyEventLoops(vertx.nettyEventLoopGroup());
+        final var asyncAerospike = new VertxAerospikeClient(
+                createClient(nettyEventLoops),
+                new ContextEventLoop(nettyEventLoops),
+                new ContextPromiseSelector());
+        final var key = new Key(namespace, set, "user1");
+        final var put = asyncAerospike.put(key, new Bin("age", 10));
+        asyncAerospike.drain()
+                .onComplete(context.succeeding(ignored -> context.verify(() -> {
+                    Assertions.assertTrue(put.succeeded());
+                    asyncAerospike.get(key).onComplete(context.failing(error -> context.verify(() -> {
+                        Assertions.assertInstanceOf(ClientClosedException.class, error);
+                        asyncAerospike.delegate().close();
+                        context.completeNow();
+                    })));
+                })));
+    }
+
+    @Test
+    void codec(final Vertx vertx, final VertxTestContext context) {
+        final var nettyEventLoops = new NettyEventLoops(vertx.nettyEventLoopGroup());
+        final var asyncAerospike = new VertxAerospikeClient(
+                createClient(nettyEventLoops),
+                new ContextEventLoop(nettyEventLoops),
+                new ContextPromiseSelector());
+        final var key = new Key(namespace, set, "user4");
+        final RecordCodec<User> codec = RecordCodecs.of(User.class);
+        asyncAerospike.put(key, new User("Ann", 40, true), codec)
+                .flatMap(ignored -> asyncAerospike.get(key, codec))
+                .onSuccess(user -> context.verify(() -> Assertions.assertEquals(new User("Ann", 40, true), user)))
+                .flatMap(ignored -> asyncAerospike.get(key, RecordCodecs.json("name")))
+                .onSuccess(json -> context.verify(() -> Assertions.assertEquals(new JsonObject().put("name", "Ann"), json)))
+                .onComplete(context.succeedingThenComplete());
+    }
+
+    record User(String name, int age, @BinName("isActive") boolean active) {
+    }
 }
@@ -0,0 +1,73 @@
+package dev.slesh.vertx.aerospike.client.aggregate;
+
+import com.aerospike.client.BatchRecord;
+import com.aerospike.client.BatchWrite;
+import com.aerospike.client.Bin;
+import com.aerospike.client.Key;
+import com.aerospike.client.ResultCode;
+import com.aerospike.client.async.NettyEventLoops;
+import com.aerospike.client.listener.BatchOperateListListener;
+import dev.slesh.vertx.aerospike.client.StubAerospikeClient;
+import dev.slesh.vertx.aerospike.client.VertxAerospikeClient;
+import dev.slesh.vertx.aerospike.eventloop.NextEventLoopSelector;
+import dev.slesh.vertx.aerospike.future.ContextPromiseSelector;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+@ExtendWith(VertxExtension.class)
+class AggregatingAerospikeClientTest {
+    private final Key key = new Key("ns", "set", "counter");
+
+    @Test
+    void closeWritesIncrementsQueuedBeforeIt(final Vertx vertx, final VertxTestContext context)
+            throws InterruptedException {
+        final var eventLoops = new NettyEventLoops(vertx.nettyEventLoopGroup());
+        final var written = new CopyOnWriteArrayList<Long>();
+        final var wrapped = new VertxAerospikeClient(
+                StubAerospikeClient.create((method, args) -> {
+                    @SuppressWarnings("unchecked") final var records = (List<BatchRecord>) args[3];
+                    for (final BatchRecord record : records) {
+                        written.add(((BatchWrite) record).ops[0].value.toLong());
+                        record.resultCode = ResultCode.OK;
+                    }
+                    ((BatchOperateListListener) args[1]).onSuccess(records, true);
+                }),
+                new NextEventLoopSelector(eventLoops),
+                new ContextPromiseSelector());
+        // the window never expires during the test, only the close writes the increments
+        final var client = new AggregatingAerospikeClient(wrapped, eventLoops, () -> eventLoops.get(0),
+                new ContextPromiseSelector(), new AggregationOptions(100, Duration.ofHours(1), null));
+        final var added = new CountDownLatch(1);
+        eventLoops.get(0).execute(() -> {
+            try {
+                Assertions.assertTrue(added.await(5, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            // the increments are queued behind this task, the close must sum them before it writes
+            client.close().onComplete(context.succeeding(ignored -> context.verify(() -> {
+                Assertions.assertEquals(List.of(3L), written);
+                context.completeNow();
+            })));
+        });
+        final List<Future<Key>> increments = List.of(
+                client.add(null, key, new Bin("hits", 1)),
+                client.add(null, key, new Bin("hits", 2)));
+        added.countDown();
+        Assertions.assertTrue(context.awaitCompletion(5, TimeUnit.SECONDS));
+        for (final Future<Key> increment : increments) {
+            Assertions.assertTrue(increment.succeeded());
+        }
+    }
+}
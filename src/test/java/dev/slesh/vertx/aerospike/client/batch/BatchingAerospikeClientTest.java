@@ -0,0 +1,80 @@
+package dev.slesh.vertx.aerospike.client.batch;
+
+import com.aerospike.client.Key;
+import com.aerospike.client.Record;
+import com.aerospike.client.async.EventLoop;
+import com.aerospike.client.async.NettyEventLoops;
+import com.aerospike.client.listener.RecordArrayListener;
+import com.aerospike.client.listener.RecordListener;
+import dev.slesh.vertx.aerospike.client.StubAerospikeClient;
+import dev.slesh.vertx.aerospike.client.VertxAerospikeClient;
+import dev.slesh.vertx.aerospike.client.result.ReadValue;
+import dev.slesh.vertx.aerospike.eventloop.NextEventLoopSelector;
+import dev.slesh.vertx.aerospike.future.ContextPromiseSelector;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@ExtendWith(VertxExtension.class)
+class BatchingAerospikeClientTest {
+
+    @Test
+    void batchesReadsThroughWrappedClient(final Vertx vertx, final VertxTestContext context) {
+        final var eventLoops = new NettyEventLoops(vertx.nettyEventLoopGroup());
+        final var batches = new AtomicInteger();
+        final var wrapped = new VertxAerospikeClient(
+                StubAerospikeClient.create((method, args) -> {
+                    final var eventLoop = (EventLoop) args[0];
+                    if (args[3] instanceof Key key) {
+                        eventLoop.schedule(() -> ((RecordListener) args[1]).onSuccess(key, record(key)),
+                                10, TimeUnit.MILLISECONDS);
+                        return;
+                    }
+                    batches.incrementAndGet();
+                    final Key[] keys = (Key[]) args[3];
+                    final Record[] records = new Record[keys.length];
+                    for (int i = 0; i < keys.length; i++) {
+                        records[i] = record(keys[i]);
+                    }
+                    eventLoop.schedule(() -> ((RecordArrayListener) args[1]).onSuccess(keys, records),
+                            10, TimeUnit.MILLISECONDS);
+                }),
+                new NextEventLoopSelector(eventLoops),
+                new ContextPromiseSelector());
+        final var client = new BatchingAerospikeClient(wrapped, eventLoops, () -> eventLoops.get(0),
+                new ContextPromiseSelector(), new BatchingOptions());
+        vertx.runOnContext(v -> {
+            final List<Future<ReadValue>> reads = List.of(
+                    client.get(null, new Key("ns", "set", 1)),
+                    client.get(null, new Key("ns", "set", 2)),
+                    client.get(null, new Key("ns", "set", 3)));
+            CompositeFuture.all(List.copyOf(reads)).onComplete(context.succeeding(ignored -> context.verify(() -> {
+                Assertions.assertEquals(1, batches.get());
+                for (int i = 0; i < reads.size(); i++) {
+                    Assertions.assertEquals(i + 1L, reads.get(i).result().record().getLong("id"));
+                }
+                // the read answers later, the drain of the wrapped client has to wait for it
+                final var get = client.get(null, new Key("ns", "set", 4));
+                client.drain().onComplete(context.succeeding(drained -> context.verify(() -> {
+                    Assertions.assertTrue(get.succeeded());
+                    Assertions.assertEquals(4L, get.result().record().getLong("id"));
+                    context.completeNow();
+                })));
+            })));
+        });
+    }
+
+    private static Record record(final Key key) {
+        return new Record(Map.of("id", key.userKey.toLong()), 1, 0);
+    }
+}
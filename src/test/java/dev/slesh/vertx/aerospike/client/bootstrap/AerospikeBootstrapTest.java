@@ -0,0 +1,36 @@
+package dev.slesh.vertx.aerospike.client.bootstrap;
+
+import com.aerospike.client.policy.ClientPolicy;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class AerospikeBootstrapTest {
+
+    @Test
+    void keepsConnectionsOfEveryEventLoop() {
+        final var policy = new ClientPolicy();
+        AerospikeBootstrap.keepConnections(policy, 8, 2);
+        Assertions.assertEquals(16, policy.asyncMinConnsPerNode);
+    }
+
+    @Test
+    void keepsHigherConfiguredMinimum() {
+        final var policy = new ClientPolicy();
+        policy.asyncMinConnsPerNode = 50;
+        AerospikeBootstrap.keepConnections(policy, 8, 2);
+        Assertions.assertEquals(50, policy.asyncMinConnsPerNode);
+    }
+
+    @Test
+    void capsMinimumByMaxConnections() {
+        final var policy = new ClientPolicy();
+        policy.asyncMaxConnsPerNode = 10;
+        AerospikeBootstrap.keepConnections(policy, 8, 2);
+        Assertions.assertEquals(10, policy.asyncMinConnsPerNode);
+        policy.asyncMaxConnsPerNode = -1;
+        policy.maxConnsPerNode = 12;
+        policy.asyncMinConnsPerNode = 0;
+        AerospikeBootstrap.keepConnections(policy, 8, 2);
+        Assertions.assertEquals(12, policy.asyncMinConnsPerNode);
+    }
+}
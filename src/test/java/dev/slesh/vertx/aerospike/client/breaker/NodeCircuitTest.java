@@ -0,0 +1,100 @@
+package dev.slesh.vertx.aerospike.client.breaker;
+
+import dev.slesh.vertx.aerospike.metrics.HistogramMetrics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+class NodeCircuitTest {
+    private static final Duration OPEN_DURATION = Duration.ofMillis(20);
+
+    private final List<CircuitState> transitions = new ArrayList<>();
+    private final NodeCircuit circuit = new NodeCircuit("node",
+            new CircuitBreakerOptions(0.5, 4, Duration.ofMinutes(1), OPEN_DURATION, 2, null),
+            (node, from, to) -> transitions.add(to));
+
+    @Test
+    void opensAtFailureRatio() {
+        circuit.onSuccess(circuit.tryAcquire());
+        circuit.onSuccess(circuit.tryAcquire());
+        circuit.onFailure(circuit.tryAcquire());
+        Assertions.assertEquals(CircuitState.CLOSED, circuit.state());
+        circuit.onFailure(circuit.tryAcquire());
+        Assertions.assertEquals(CircuitState.OPEN, circuit.state());
+        Assertions.assertNull(circuit.tryAcquire());
+        Assertions.assertEquals(List.of(CircuitState.OPEN), transitions);
+    }
+
+    @Test
+    void limitsProbesOfHalfOpenCircuit() throws InterruptedException {
+        open();
+        Thread.sleep(OPEN_DURATION.toMillis() * 2);
+        final var first = circuit.tryAcquire();
+        final var second = circuit.tryAcquire();
+        Assertions.assertNotNull(first);
+        Assertions.assertNotNull(second);
+        Assertions.assertNull(circuit.tryAcquire());
+        Assertions.assertEquals(CircuitState.HALF_OPEN, circuit.state());
+        circuit.onIgnored(first);
+        Assertions.assertNotNull(circuit.tryAcquire());
+    }
+
+    @Test
+    void closesOnProbeSuccess() throws InterruptedException {
+        open();
+        Thread.sleep(OPEN_DURATION.toMillis() * 2);
+        circuit.onSuccess(circuit.tryAcquire());
+        Assertions.assertEquals(CircuitState.CLOSED, circuit.state());
+        Assertions.assertEquals(List.of(CircuitState.OPEN, CircuitState.HALF_OPEN, CircuitState.CLOSED), transitions);
+    }
+
+    @Test
+    void reopensOnProbeFailure() throws InterruptedException {
+        open();
+        Thread.sleep(OPEN_DURATION.toMillis() * 2);
+        final var probe = circuit.tryAcquire();
+        circuit.onFailure(probe);
+        Assertions.assertEquals(CircuitState.OPEN, circuit.state());
+        Assertions.assertNull(circuit.tryAcquire());
+        // the second outcome of the same phase doesn't move the circuit again
+        circuit.onSuccess(probe);
+        Assertions.assertEquals(CircuitState.OPEN, circuit.state());
+        Assertions.assertEquals(List.of(CircuitState.OPEN, CircuitState.HALF_OPEN, CircuitState.OPEN), transitions);
+    }
+
+    @Test
+    void ignoresCommandsAdmittedBeforeOpening() throws InterruptedException {
+        final var stale = circuit.tryAcquire();
+        open();
+        Thread.sleep(OPEN_DURATION.toMillis() * 2);
+        final var probe = circuit.tryAcquire();
+        Assertions.assertEquals(CircuitState.HALF_OPEN, circuit.state());
+        circuit.onSuccess(stale);
+        circuit.onFailure(stale);
+        Assertions.assertEquals(CircuitState.HALF_OPEN, circuit.state());
+        circuit.onSuccess(probe);
+        Assertions.assertEquals(CircuitState.CLOSED, circuit.state());
+    }
+
+    @Test
+    void publishesTransitionsToMetrics() {
+        final var metrics = new HistogramMetrics(1);
+        final var metered = new NodeCircuit("node",
+                new CircuitBreakerOptions(1, 1, Duration.ofMinutes(1), OPEN_DURATION, 1, null),
+                metrics::onCircuitStateChange);
+        metered.onFailure(metered.tryAcquire());
+        Assertions.assertEquals(CircuitState.OPEN, metrics.circuits().get("node"));
+        Assertions.assertEquals(1, metrics.circuitTransitions(CircuitState.OPEN));
+        Assertions.assertEquals(0, metrics.circuitTransitions(CircuitState.CLOSED));
+    }
+
+    private void open() {
+        for (int i = 0; i < 4; i++) {
+            circuit.onFailure(circuit.tryAcquire());
+        }
+        Assertions.assertEquals(CircuitState.OPEN, circuit.state());
+    }
+}
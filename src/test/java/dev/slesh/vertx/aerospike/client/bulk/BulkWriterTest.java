@@ -0,0 +1,169 @@
+package dev.slesh.vertx.aerospike.client.bulk;
+
+import com.aerospike.client.BatchRecord;
+import com.aerospike.client.Bin;
+import com.aerospike.client.Key;
+import com.aerospike.client.ResultCode;
+import com.aerospike.client.async.EventLoop;
+import com.aerospike.client.async.NettyEventLoops;
+import com.aerospike.client.listener.BatchOperateListListener;
+import dev.slesh.vertx.aerospike.client.StubAerospikeClient;
+import dev.slesh.vertx.aerospike.client.VertxAerospikeClient;
+import dev.slesh.vertx.aerospike.eventloop.ContextEventLoop;
+import dev.slesh.vertx.aerospike.eventloop.NextEventLoopSelector;
+import dev.slesh.vertx.aerospike.future.ContextPromiseSelector;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@ExtendWith(VertxExtension.class)
+class BulkWriterTest {
+
+    @Test
+    void pausesSourceWhileWindowIsFull(final Vertx vertx, final VertxTestContext context) {
+        final var eventLoops = new NettyEventLoops(vertx.nettyEventLoopGroup());
+        final var requests = new AtomicInteger();
+        final var maxRequests = new AtomicInteger();
+        final var client = new VertxAerospikeClient(
+                StubAerospikeClient.create((method, args) -> {
+                    maxRequests.accumulateAndGet(requests.incrementAndGet(), Math::max);
+                    @SuppressWarnings("unchecked") final var records = (List<BatchRecord>) args[3];
+                    ((EventLoop) args[0]).schedule(() -> {
+                        for (final BatchRecord record : records) {
+                            record.resultCode = (long) record.key.userKey.getObject() % 10 == 0
+                                    ? ResultCode.KEY_EXISTS_ERROR
+                                    : ResultCode.OK;
+                        }
+                        requests.decrementAndGet();
+                        ((BatchOperateListListener) args[1]).onSuccess(records, true);
+                    }, 1, TimeUnit.MILLISECONDS);
+                }),
+                new NextEventLoopSelector(eventLoops),
+                new ContextPromiseSelector());
+        final int window = eventLoops.getSize();
+        final var writer = new BulkWriter(client, new BulkWriteOptions(5, window, null, null));
+        final var failures = new AtomicInteger();
+        vertx.runOnContext(v -> {
+            final var source = new Source(vertx.getOrCreateContext(), 20 * 5 * window);
+            writer.write(source, record -> {
+                failures.incrementAndGet();
+                throw new IllegalStateException("the load must go on");
+            }).onComplete(context.succeeding(result -> context.verify(() -> {
+                Assertions.assertEquals(new BulkWriteResult(90L * window, 10L * window), result);
+                Assertions.assertEquals(10 * window, failures.get());
+                Assertions.assertTrue(maxRequests.get() <= window, "requests in flight: " + maxRequests.get());
+                Assertions.assertTrue(source.pauses > 0);
+                context.completeNow();
+            })));
+        });
+    }
+
+    @Test
+    void windowIsTotalWithContextEventLoop(final Vertx vertx, final VertxTestContext context) {
+        final var eventLoops = new NettyEventLoops(vertx.nettyEventLoopGroup());
+        final var requests = new AtomicInteger();
+        final var maxRequests = new AtomicInteger();
+        final Set<Integer> usedLoops = ConcurrentHashMap.newKeySet();
+        final var client = new VertxAerospikeClient(
+                StubAerospikeClient.create((method, args) -> {
+                    maxRequests.accumulateAndGet(requests.incrementAndGet(), Math::max);
+                    final var eventLoop = (EventLoop) args[0];
+                    usedLoops.add(eventLoop.getIndex());
+                    @SuppressWarnings("unchecked") final var records = (List<BatchRecord>) args[3];
+                    eventLoop.schedule(() -> {
+                        records.forEach(record -> record.resultCode = ResultCode.OK);
+                        requests.decrementAndGet();
+                        ((BatchOperateListListener) args[1]).onSuccess(records, true);
+                    }, 1, TimeUnit.MILLISECONDS);
+                }),
+                new ContextEventLoop(eventLoops),
+                new ContextPromiseSelector());
+        final var writer = new BulkWriter(client, new BulkWriteOptions(5, 3, null, null));
+        vertx.runOnContext(v -> {
+            final var source = new Source(vertx.getOrCreateContext(), 500);
+            writer.write(source).onComplete(context.succeeding(result -> context.verify(() -> {
+                Assertions.assertEquals(new BulkWriteResult(500, 0), result);
+                // every request runs on the loop of the caller and the window bounds them there
+                Assertions.assertEquals(1, usedLoops.size());
+                Assertions.assertEquals(3, maxRequests.get());
+                context.completeNow();
+            })));
+        });
+    }
+
+    /**
+     * Emits the records on its context while it is not paused.
+     */
+    private static final class Source implements ReadStream<BulkWrite> {
+        private final Context context;
+        private final long total;
+        private Handler<BulkWrite> handler;
+        private Handler<Void> endHandler;
+        private long emitted;
+        private boolean paused = true;
+        private int pauses;
+
+        private Source(final Context context, final long total) {
+            this.context = context;
+            this.total = total;
+        }
+
+        @Override
+        public ReadStream<BulkWrite> exceptionHandler(final Handler<Throwable> handler) {
+            return this;
+        }
+
+        @Override
+        public ReadStream<BulkWrite> handler(final Handler<BulkWrite> handler) {
+            this.handler = handler;
+            return this;
+        }
+
+        @Override
+        public ReadStream<BulkWrite> pause() {
+            paused = true;
+            pauses++;
+            return this;
+        }
+
+        @Override
+        public ReadStream<BulkWrite> resume() {
+            paused = false;
+            context.runOnContext(v -> emit());
+            return this;
+        }
+
+        @Override
+        public ReadStream<BulkWrite> fetch(final long amount) {
+            return resume();
+        }
+
+        @Override
+        public ReadStream<BulkWrite> endHandler(final Handler<Void> endHandler) {
+            this.endHandler = endHandler;
+            return this;
+        }
+
+        private void emit() {
+            while (!paused && emitted < total) {
+                handler.handle(BulkWrite.put(new Key("ns", "set", emitted++), new Bin("bin", 1)));
+            }
+            if (emitted == total) {
+                emitted++;
+                endHandler.handle(null);
+            }
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package dev.slesh.vertx.aerospike.client.cache;
+
+import com.aerospike.client.Bin;
+import com.aerospike.client.Key;
+import com.aerospike.client.Record;
+import com.aerospike.client.async.NettyEventLoops;
+import com.aerospike.client.exp.Exp;
+import com.aerospike.client.listener.ExistsListener;
+import com.aerospike.client.listener.RecordListener;
+import com.aerospike.client.listener.WriteListener;
+import com.aerospike.client.policy.Policy;
+import dev.slesh.vertx.aerospike.client.StubAerospikeClient;
+import dev.slesh.vertx.aerospike.client.VertxAerospikeClient;
+import dev.slesh.vertx.aerospike.client.codec.RecordCodecs;
+import dev.slesh.vertx.aerospike.eventloop.NextEventLoopSelector;
+import dev.slesh.vertx.aerospike.future.ContextPromiseSelector;
+import io.vertx.core.Vertx;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+@ExtendWith(VertxExtension.class)
+class NearCacheAerospikeClientTest {
+    private final Key key = new Key("ns", "set", "key");
+    private final AtomicInteger reads = new AtomicInteger();
+    private final AtomicInteger generation = new AtomicInteger(1);
+    private final AtomicReference<Runnable> heldRead = new AtomicReference<>();
+    private volatile boolean holdReads;
+    private NearCacheAerospikeClient client;
+
+    @BeforeEach
+    void setUp(final Vertx vertx) {
+        final var eventLoops = new NettyEventLoops(vertx.nettyEventLoopGroup());
+        client = new NearCacheAerospikeClient(new VertxAerospikeClient(
+                StubAerospikeClient.create((method, args) -> {
+                    if (method.equals("put")) {
+                        generation.incrementAndGet();
+                        ((WriteListener) args[1]).onSuccess(key);
+                        return;
+                    }
+                    reads.incrementAndGet();
+                    if (method.equals("exists")) {
+                        ((ExistsListener) args[1]).onSuccess(key, true);
+                        return;
+                    }
+                    final var record = new Record(new HashMap<>(Map.of("bin", 1)), generation.get(), 0);
+                    final Runnable answer = () -> ((RecordListener) args[1]).onSuccess(key, record);
+                    if (holdReads) {
+                        heldRead.set(answer);
+                    } else {
+                        answer.run();
+                    }
+                }),
+                new NextEventLoopSelector(eventLoops),
+                new ContextPromiseSelector()),
+                new StripedNearCache(4, new NearCacheOptions(100, Duration.ofMinutes(1))));
+    }
+
+    @Test
+    void writeInvalidatesCachedRecord(final Vertx vertx, final VertxTestContext context) {
+        vertx.runOnContext(v -> client.get(null, key)
+                .compose(ignored -> client.get(null, key))
+                .onComplete(context.succeeding(cached -> context.verify(() -> {
+                    Assertions.assertEquals(1, reads.get());
+                    Assertions.assertEquals(1, cached.record().generation);
+                })))
+                .compose(ignored -> client.put(null, key, new Bin("bin", 2)))
+                .compose(ignored -> client.get(null, key))
+                .onComplete(context.succeeding(read -> context.verify(() -> {
+                    Assertions.assertEquals(2, reads.get());
+                    Assertions.assertEquals(2, read.record().generation);
+                    context.completeNow();
+                }))));
+    }
+
+    @Test
+    void readRacingWithWriteIsNotCached(final Vertx vertx, final VertxTestContext context) {
+        holdReads = true;
+        vertx.runOnContext(v -> {
+            final var racing = client.get(null, key);
+            client.put(null, key, new Bin("bin", 2))
+                    .compose(ignored -> {
+                        // the read was sent before the write and is answered after it with the old generation
+                        heldRead.get().run();
+                        return racing;
+                    })
+                    .compose(stale -> {
+                        Assertions.assertEquals(1, stale.record().generation);
+                        holdReads = false;
+                        return client.get(null, key);
+                    })
+                    .onComplete(context.succeeding(read -> context.verify(() -> {
+                        Assertions.assertEquals(2, reads.get());
+                        Assertions.assertEquals(2, read.record().generation);
+                        context.completeNow();
+                    })));
+        });
+    }
+
+    @Test
+    void filteredReadsBypassCache(final Vertx vertx, final VertxTestContext context) {
+        final var policy = new Policy();
+        policy.filterExp = Exp.build(Exp.eq(Exp.intBin("bin"), Exp.val(1)));
+        vertx.runOnContext(v -> client.get(null, key)
+                .compose(ignored -> client.get(policy, key))
+                .compose(ignored -> client.exists(policy, key))
+                .onComplete(context.succeeding(ignored -> context.verify(() -> {
+                    Assertions.assertEquals(3, reads.get());
+                    context.completeNow();
+                }))));
+    }
+
+    @Test
+    void readsAllCachedBinsWithoutBinNames(final Vertx vertx, final VertxTestContext context) {
+        vertx.runOnContext(v -> client.get(null, key)
+                .compose(ignored -> client.get(null, key, (String[]) null))
+                .onComplete(context.succeeding(read -> context.verify(() ->
+                        Assertions.assertEquals(Map.of("bin", 1), read.record().bins))))
+                .compose(ignored -> client.get(null, key, new String[0]))
+                .onComplete(context.succeeding(read -> context.verify(() -> {
+                    Assertions.assertEquals(Map.of("bin", 1), read.record().bins);
+                    Assertions.assertEquals(1, reads.get());
+                    context.completeNow();
+                }))));
+    }
+
+    @Test
+    void callersDoNotShareCachedBins(final Vertx vertx, final VertxTestContext context) {
+        vertx.runOnContext(v -> client.get(null, key)
+                .compose(miss -> {
+                    miss.record().bins.put("bin", 2);
+                    return client.get(null, key);
+                })
+                .compose(hit -> {
+                    context.verify(() -> Assertions.assertEquals(1, hit.record().getValue("bin")));
+                    RecordCodecs.json().decode(hit.record()).put("bin", 3);
+                    return client.get(null, key);
+                })
+                .onComplete(context.succeeding(hit -> context.verify(() -> {
+                    Assertions.assertEquals(1, hit.record().getValue("bin"));
+                    Assertions.assertEquals(1, reads.get());
+                    context.completeNow();
+                }))));
+    }
+}
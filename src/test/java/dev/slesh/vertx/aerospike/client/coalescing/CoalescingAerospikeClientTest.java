@@ -0,0 +1,105 @@
+package dev.slesh.vertx.aerospike.client.coalescing;
+
+import com.aerospike.client.Key;
+import com.aerospike.client.Record;
+import com.aerospike.client.async.NettyEventLoops;
+import com.aerospike.client.listener.RecordListener;
+import dev.slesh.vertx.aerospike.client.StubAerospikeClient;
+import dev.slesh.vertx.aerospike.client.VertxAerospikeClient;
+import dev.slesh.vertx.aerospike.eventloop.NextEventLoopSelector;
+import dev.slesh.vertx.aerospike.future.ContextPromiseSelector;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Vertx;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+@ExtendWith(VertxExtension.class)
+class CoalescingAerospikeClientTest {
+    private final Key key = new Key("ns", "set", "key");
+    // the reads sent to the server which are answered when the test says so
+    private final Queue<RecordListener> sent = new ConcurrentLinkedQueue<>();
+    private CoalescingAerospikeClient client;
+
+    @BeforeEach
+    void setUp(final Vertx vertx) {
+        final var eventLoops = new NettyEventLoops(vertx.nettyEventLoopGroup());
+        client = new CoalescingAerospikeClient(new VertxAerospikeClient(
+                StubAerospikeClient.create((method, args) -> sent.add((RecordListener) args[1])),
+                new NextEventLoopSelector(eventLoops),
+                new ContextPromiseSelector()));
+    }
+
+    @Test
+    void identicalReadsShareOneRequest(final Vertx vertx, final VertxTestContext context) {
+        vertx.runOnContext(v -> {
+            final var first = client.get(null, key);
+            final var second = client.get(null, key);
+            context.verify(() -> {
+                Assertions.assertEquals(1, sent.size());
+                Assertions.assertEquals(1, client.coalesced());
+            });
+            answer();
+            CompositeFuture.all(first, second).onComplete(context.succeeding(all -> context.verify(() -> {
+                Assertions.assertSame(first.result().record(), second.result().record());
+                context.completeNow();
+            })));
+        });
+    }
+
+    @Test
+    void readsOfOtherBinsAreNotShared(final Vertx vertx, final VertxTestContext context) {
+        vertx.runOnContext(v -> {
+            final var all = client.get(null, key);
+            final var bin = client.get(null, key, "bin");
+            final var header = client.getHeader(null, key);
+            context.verify(() -> {
+                Assertions.assertEquals(3, sent.size());
+                Assertions.assertEquals(0, client.coalesced());
+            });
+            answer();
+            answer();
+            answer();
+            CompositeFuture.all(all, bin, header).onComplete(context.succeedingThenComplete());
+        });
+    }
+
+    @Test
+    void completedReadIsNotReused(final Vertx vertx, final VertxTestContext context) {
+        vertx.runOnContext(v -> {
+            final var first = client.get(null, key);
+            answer();
+            first.compose(ignored -> {
+                final var second = client.get(null, key);
+                context.verify(() -> Assertions.assertEquals(1, sent.size()));
+                answer();
+                return second;
+            }).onComplete(context.succeeding(read -> context.verify(() -> {
+                Assertions.assertEquals(0, client.coalesced());
+                context.completeNow();
+            })));
+        });
+    }
+
+    @Test
+    void readOutsideOfContextIsPassedThrough(final VertxTestContext context) {
+        final var first = client.get(null, key);
+        final var second = client.get(null, key);
+        Assertions.assertEquals(2, sent.size());
+        answer();
+        answer();
+        CompositeFuture.all(List.of(first, second)).onComplete(context.succeedingThenComplete());
+    }
+
+    private void answer() {
+        sent.poll().onSuccess(key, new Record(Map.of("bin", 1), 1, 0));
+    }
+}
@@ -0,0 +1,48 @@
+package dev.slesh.vertx.aerospike.client.codec;
+
+import com.aerospike.client.Bin;
+import com.aerospike.client.Record;
+import com.aerospike.client.Value;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+class RecordCodecsTest {
+
+    public record User(String name, @BinName("yrs") Integer age) {
+    }
+
+    @Test
+    void encodesNullFieldAsBinDelete() {
+        final Bin[] bins = RecordCodecs.of(User.class).encode(new User("bob", null));
+        Assertions.assertEquals(2, bins.length);
+        Assertions.assertEquals(new Bin("name", "bob"), bins[0]);
+        Assertions.assertEquals("yrs", bins[1].name);
+        Assertions.assertEquals(Value.getAsNull(), bins[1].value);
+    }
+
+    @Test
+    void decodesMissingBinAsNull() {
+        final User user = RecordCodecs.of(User.class).decode(new Record(Map.of("name", "bob"), 1, 0));
+        Assertions.assertEquals(new User("bob", null), user);
+    }
+
+    @Test
+    void encodesNullJsonValueAsBinDelete() {
+        final Bin[] bins = RecordCodecs.json().encode(new JsonObject().put("name", "bob").putNull("age"));
+        Assertions.assertEquals(2, bins.length);
+        Assertions.assertEquals(new Bin("name", "bob"), bins[0]);
+        Assertions.assertEquals("age", bins[1].name);
+        Assertions.assertEquals(Value.getAsNull(), bins[1].value);
+    }
+
+    @Test
+    void unwrapsJsonArray() {
+        final var json = new JsonArray().add(1).add(new JsonArray().add("a"));
+        Assertions.assertEquals(List.of(1, List.of("a")), BinConverter.plain(json));
+    }
+}
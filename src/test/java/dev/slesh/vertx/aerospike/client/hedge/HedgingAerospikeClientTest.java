@@ -0,0 +1,136 @@
+package dev.slesh.vertx.aerospike.client.hedge;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.Key;
+import com.aerospike.client.Record;
+import com.aerospike.client.ResultCode;
+import com.aerospike.client.async.NettyEventLoops;
+import com.aerospike.client.listener.RecordListener;
+import com.aerospike.client.policy.Policy;
+import com.aerospike.client.policy.Replica;
+import dev.slesh.vertx.aerospike.client.StubAerospikeClient;
+import dev.slesh.vertx.aerospike.client.VertxAerospikeClient;
+import dev.slesh.vertx.aerospike.eventloop.NextEventLoopSelector;
+import dev.slesh.vertx.aerospike.future.ContextPromiseSelector;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+@ExtendWith(VertxExtension.class)
+class HedgingAerospikeClientTest {
+    private static final Replica HEDGE_REPLICA = Replica.MASTER_PROLES;
+
+    private final Key key = new Key("ns", "set", "key");
+    // the first attempts which are not answered until the test says so
+    private final Queue<RecordListener> held = new ConcurrentLinkedQueue<>();
+    private volatile boolean holdFirst = true;
+    private volatile boolean failHedge;
+
+    @Test
+    void hedgeWinsOverSlowFirstAttempt(final Vertx vertx, final VertxTestContext context) {
+        final var client = client(vertx);
+        vertx.runOnContext(v -> client.get(policy(), key)
+                .onComplete(context.succeeding(read -> vertx.runOnContext(ignored -> context.verify(() -> {
+                    // the win is counted once the promise is completed, after its handlers
+                    Assertions.assertEquals("hedge", read.record().getString("by"));
+                    Assertions.assertEquals(1, client.hedged());
+                    Assertions.assertEquals(1, client.won());
+                    context.completeNow();
+                })))));
+    }
+
+    @Test
+    void fastFirstAttemptIsNotHedged(final Vertx vertx, final VertxTestContext context) {
+        holdFirst = false;
+        final var client = client(vertx);
+        vertx.runOnContext(v -> client.get(policy(), key)
+                .onComplete(context.succeeding(read -> vertx.setTimer(50, ignored -> context.verify(() -> {
+                    Assertions.assertEquals("first", read.record().getString("by"));
+                    Assertions.assertEquals(0, client.hedged());
+                    context.completeNow();
+                })))));
+    }
+
+    @Test
+    void budgetLimitsHedgedAttempts(final Vertx vertx, final VertxTestContext context) {
+        final var client = client(vertx);
+        vertx.runOnContext(v -> {
+            final List<Future<?>> reads = List.of(
+                    client.get(policy(), key), client.get(policy(), key), client.get(policy(), key));
+            vertx.setTimer(100, ignored -> {
+                context.verify(() -> {
+                    // the bucket holds one token and three reads don't save up another one
+                    Assertions.assertEquals(1, client.hedged());
+                    Assertions.assertEquals(3, held.size());
+                });
+                held.forEach(listener -> listener.onSuccess(key, record("first")));
+                CompositeFuture.all(List.copyOf(reads))
+                        .onComplete(context.succeeding(all -> context.verify(() -> {
+                            Assertions.assertEquals(1, client.won());
+                            context.completeNow();
+                        })));
+            });
+        });
+    }
+
+    @Test
+    void failsWhenBothAttemptsFail(final Vertx vertx, final VertxTestContext context) {
+        failHedge = true;
+        final var client = client(vertx);
+        vertx.runOnContext(v -> {
+            final var read = client.get(policy(), key);
+            vertx.setTimer(100, ignored -> {
+                context.verify(() -> Assertions.assertFalse(read.isComplete()));
+                held.poll().onFailure(new AerospikeException(ResultCode.TIMEOUT));
+                read.onComplete(context.failing(cause -> context.verify(() -> {
+                    Assertions.assertEquals(ResultCode.SERVER_NOT_AVAILABLE,
+                            ((AerospikeException) cause).getResultCode());
+                    context.completeNow();
+                })));
+            });
+        });
+    }
+
+    private HedgingAerospikeClient client(final Vertx vertx) {
+        final var eventLoops = new NettyEventLoops(vertx.nettyEventLoopGroup());
+        final var stub = StubAerospikeClient.create((method, args) -> {
+            final var listener = (RecordListener) args[1];
+            if (((Policy) args[2]).replica == HEDGE_REPLICA) {
+                if (failHedge) {
+                    listener.onFailure(new AerospikeException(ResultCode.SERVER_NOT_AVAILABLE));
+                } else {
+                    listener.onSuccess(key, record("hedge"));
+                }
+            } else if (holdFirst) {
+                held.add(listener);
+            } else {
+                listener.onSuccess(key, record("first"));
+            }
+        });
+        return new HedgingAerospikeClient(
+                new VertxAerospikeClient(stub, new NextEventLoopSelector(eventLoops), new ContextPromiseSelector()),
+                vertx,
+                new HedgingOptions(HedgeDelay.fixed(Duration.ofMillis(10)), 0.05, 1, HEDGE_REPLICA));
+    }
+
+    private static Policy policy() {
+        final var policy = new Policy();
+        policy.replica = Replica.SEQUENCE;
+        return policy;
+    }
+
+    private static Record record(final String by) {
+        return new Record(Map.of("by", by), 1, 0);
+    }
+}
@@ -0,0 +1,161 @@
+package dev.slesh.vertx.aerospike.client.retry;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.Bin;
+import com.aerospike.client.Key;
+import com.aerospike.client.Record;
+import com.aerospike.client.ResultCode;
+import com.aerospike.client.async.NettyEventLoops;
+import com.aerospike.client.listener.RecordListener;
+import com.aerospike.client.listener.WriteListener;
+import com.aerospike.client.policy.Policy;
+import dev.slesh.vertx.aerospike.client.StubAerospikeClient;
+import dev.slesh.vertx.aerospike.client.VertxAerospikeClient;
+import dev.slesh.vertx.aerospike.deadline.DeadlineExceededException;
+import dev.slesh.vertx.aerospike.eventloop.NextEventLoopSelector;
+import dev.slesh.vertx.aerospike.future.ContextPromiseSelector;
+import io.vertx.core.Vertx;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+@ExtendWith(VertxExtension.class)
+class RetryingAerospikeClientTest {
+    private static final long BASE_DELAY_MILLIS = 20;
+
+    private final Key key = new Key("ns", "set", "key");
+    // the failures of the next attempts, an attempt succeeds once it is empty
+    private final Queue<AerospikeException> failures = new ConcurrentLinkedQueue<>();
+    private final List<Long> attempts = new CopyOnWriteArrayList<>();
+    private final Set<Integer> maxRetries = ConcurrentHashMap.newKeySet();
+
+    @Test
+    void retriesKeyBusyWithGrowingBackoff(final Vertx vertx, final VertxTestContext context) {
+        failures.add(new AerospikeException(ResultCode.KEY_BUSY));
+        failures.add(new AerospikeException(ResultCode.KEY_BUSY));
+        final var client = client(vertx, 3);
+        vertx.runOnContext(v -> client.get(null, key)
+                .onComplete(context.succeeding(read -> context.verify(() -> {
+                    Assertions.assertEquals(3, attempts.size());
+                    Assertions.assertEquals(2, client.retries());
+                    // half of the backoff is fixed: base / 2 before the first retry, base before the second one
+                    Assertions.assertTrue(gapMillis(0) >= BASE_DELAY_MILLIS / 2, "first backoff " + gapMillis(0));
+                    Assertions.assertTrue(gapMillis(1) >= BASE_DELAY_MILLIS, "second backoff " + gapMillis(1));
+                    context.completeNow();
+                }))));
+    }
+
+    @Test
+    void sendsAttemptsWithoutClientRetries(final Vertx vertx, final VertxTestContext context) {
+        for (int i = 0; i < 5; i++) {
+            failures.add(new AerospikeException(ResultCode.KEY_BUSY));
+        }
+        final var policy = new Policy();
+        policy.maxRetries = 2;
+        final var client = client(vertx, 3);
+        vertx.runOnContext(v -> client.get(policy, key)
+                .onComplete(context.failing(cause -> context.verify(() -> {
+                    // each attempt is sent once, the aerospike client doesn't retry it right away
+                    Assertions.assertEquals(3, attempts.size());
+                    Assertions.assertEquals(List.of(0), List.copyOf(maxRetries));
+                    Assertions.assertEquals(2, policy.maxRetries);
+                    context.completeNow();
+                }))));
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts(final Vertx vertx, final VertxTestContext context) {
+        for (int i = 0; i < 5; i++) {
+            failures.add(new AerospikeException(ResultCode.DEVICE_OVERLOAD));
+        }
+        final var client = client(vertx, 2);
+        vertx.runOnContext(v -> client.get(null, key)
+                .onComplete(context.failing(cause -> context.verify(() -> {
+                    Assertions.assertEquals(ResultCode.DEVICE_OVERLOAD, ((AerospikeException) cause).getResultCode());
+                    Assertions.assertEquals(2, attempts.size());
+                    context.completeNow();
+                }))));
+    }
+
+    @Test
+    void doesNotRetryNonRetryableFailure(final Vertx vertx, final VertxTestContext context) {
+        failures.add(new AerospikeException(ResultCode.GENERATION_ERROR));
+        final var client = client(vertx, 3);
+        vertx.runOnContext(v -> client.put(null, key, new Bin("bin", 1))
+                .onComplete(context.failing(cause -> context.verify(() -> {
+                    Assertions.assertEquals(1, attempts.size());
+                    Assertions.assertEquals(0, client.retries());
+                    context.completeNow();
+                }))));
+    }
+
+    @Test
+    void doesNotRetryTimeoutOfNonIdempotentWriteInDoubt(final Vertx vertx, final VertxTestContext context) {
+        failures.add(timeoutInDoubt());
+        final var client = client(vertx, 3);
+        vertx.runOnContext(v -> client.add(null, key, new Bin("bin", 1))
+                .onComplete(context.failing(cause -> context.verify(() -> {
+                    Assertions.assertEquals(1, attempts.size());
+                    context.completeNow();
+                }))));
+    }
+
+    @Test
+    void classifiesFailures(final Vertx vertx) {
+        final var client = client(vertx, 3);
+        Assertions.assertTrue(client.retryable(new AerospikeException(ResultCode.KEY_BUSY), false));
+        Assertions.assertTrue(client.retryable(new AerospikeException(ResultCode.ASYNC_QUEUE_FULL), false));
+        Assertions.assertTrue(client.retryable(new AerospikeException(ResultCode.TIMEOUT), false));
+        Assertions.assertTrue(client.retryable(timeoutInDoubt(), true));
+        Assertions.assertFalse(client.retryable(timeoutInDoubt(), false));
+        Assertions.assertFalse(client.retryable(new AerospikeException(ResultCode.KEY_NOT_FOUND_ERROR), true));
+        Assertions.assertFalse(client.retryable(new DeadlineExceededException(), true));
+    }
+
+    private RetryingAerospikeClient client(final Vertx vertx, final int maxAttempts) {
+        final var eventLoops = new NettyEventLoops(vertx.nettyEventLoopGroup());
+        final var stub = StubAerospikeClient.create((method, args) -> {
+            attempts.add(System.nanoTime());
+            maxRetries.add(((Policy) args[2]).maxRetries);
+            final AerospikeException failure = failures.poll();
+            if (args[1] instanceof RecordListener listener) {
+                if (failure != null) {
+                    listener.onFailure(failure);
+                } else {
+                    listener.onSuccess(key, new Record(Map.of("bin", 1), 1, 0));
+                }
+            } else if (failure != null) {
+                ((WriteListener) args[1]).onFailure(failure);
+            } else {
+                ((WriteListener) args[1]).onSuccess(key);
+            }
+        });
+        return new RetryingAerospikeClient(
+                new VertxAerospikeClient(stub, new NextEventLoopSelector(eventLoops), new ContextPromiseSelector()),
+                vertx,
+                new RetryOptions(maxAttempts, Duration.ofMillis(BASE_DELAY_MILLIS), Duration.ofSeconds(1),
+                        Duration.ofSeconds(5), RetryOptions.DEFAULT_BUDGET, RetryOptions.DEFAULT_BURST));
+    }
+
+    private long gapMillis(final int retry) {
+        return TimeUnit.NANOSECONDS.toMillis(attempts.get(retry + 1) - attempts.get(retry));
+    }
+
+    private static AerospikeException timeoutInDoubt() {
+        final var exception = new AerospikeException(ResultCode.TIMEOUT);
+        exception.setInDoubt(true, 2);
+        return exception;
+    }
+}
@@ -0,0 +1,121 @@
+package dev.slesh.vertx.aerospike.client.shared;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.ResultCode;
+import com.aerospike.client.async.NettyEventLoops;
+import dev.slesh.vertx.aerospike.client.AsyncAerospikeClient;
+import dev.slesh.vertx.aerospike.client.DelegatingAerospikeClient;
+import dev.slesh.vertx.aerospike.client.StubAerospikeClient;
+import dev.slesh.vertx.aerospike.client.VertxAerospikeClient;
+import dev.slesh.vertx.aerospike.eventloop.NextEventLoopSelector;
+import dev.slesh.vertx.aerospike.future.ContextPromiseSelector;
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+@ExtendWith(VertxExtension.class)
+class SharedAerospikeClientsTest {
+    private final AtomicInteger created = new AtomicInteger();
+    private final AtomicInteger shutdown = new AtomicInteger();
+
+    @Test
+    void sharesClientUntilLastReferenceIsReleased(final Vertx vertx, final VertxTestContext context) {
+        final var factory = factory(vertx);
+        SharedAerospikeClients.createShared(vertx, "shared", factory)
+                .compose(first -> SharedAerospikeClients.createShared(vertx, "shared", factory)
+                        .compose(second -> {
+                            context.verify(() -> Assertions.assertEquals(1, created.get()));
+                            return first.close()
+                                    .compose(ignored -> first.close())
+                                    .compose(ignored -> {
+                                        context.verify(() -> Assertions.assertEquals(0, shutdown.get()));
+                                        return second.close();
+                                    });
+                        }))
+                .compose(ignored -> {
+                    context.verify(() -> Assertions.assertEquals(1, shutdown.get()));
+                    // the name is free again, the next caller creates a new client
+                    return SharedAerospikeClients.createShared(vertx, "shared", factory);
+                })
+                .compose(SharedAerospikeClient::close)
+                .onComplete(context.succeeding(ignored -> context.verify(() -> {
+                    Assertions.assertEquals(2, created.get());
+                    Assertions.assertEquals(2, shutdown.get());
+                    context.completeNow();
+                })));
+    }
+
+    @Test
+    void namesAreNotShared(final Vertx vertx, final VertxTestContext context) {
+        final var factory = factory(vertx);
+        CompositeFuture.all(SharedAerospikeClients.createShared(vertx, "users", factory),
+                        SharedAerospikeClients.createShared(vertx, "orders", factory))
+                .onComplete(context.succeeding(ignored -> context.verify(() -> {
+                    Assertions.assertEquals(2, created.get());
+                    context.completeNow();
+                })));
+    }
+
+    @Test
+    void releasesReferenceOnUndeploy(final Vertx vertx, final VertxTestContext context) {
+        final var factory = factory(vertx);
+        vertx.deployVerticle(new AbstractVerticle() {
+                    @Override
+                    public void start(final Promise<Void> startPromise) {
+                        SharedAerospikeClients.createShared(vertx, "verticle", factory)
+                                .<Void>mapEmpty()
+                                .onComplete(startPromise);
+                    }
+                })
+                .compose(vertx::undeploy)
+                .onComplete(context.succeeding(ignored -> context.verify(() -> {
+                    Assertions.assertEquals(1, shutdown.get());
+                    context.completeNow();
+                })));
+    }
+
+    @Test
+    void failedCreationIsNotKept(final Vertx vertx, final VertxTestContext context) {
+        final Supplier<Future<AsyncAerospikeClient>> failing = () -> {
+            created.incrementAndGet();
+            return Future.failedFuture(new AerospikeException(ResultCode.SERVER_NOT_AVAILABLE));
+        };
+        SharedAerospikeClients.createShared(vertx, "failing", failing)
+                .recover(ignored -> SharedAerospikeClients.createShared(vertx, "failing", failing))
+                .onComplete(context.failing(cause -> context.verify(() -> {
+                    Assertions.assertEquals(2, created.get());
+                    context.completeNow();
+                })));
+    }
+
+    private Supplier<Future<AsyncAerospikeClient>> factory(final Vertx vertx) {
+        return () -> {
+            created.incrementAndGet();
+            final var eventLoops = new NettyEventLoops(vertx.nettyEventLoopGroup());
+            final var client = new VertxAerospikeClient(
+                    StubAerospikeClient.create((method, args) -> {
+                        throw new UnsupportedOperationException(method);
+                    }),
+                    new NextEventLoopSelector(eventLoops),
+                    new ContextPromiseSelector());
+            return Future.succeededFuture(new DelegatingAerospikeClient(client) {
+                @Override
+                public Future<Void> shutdown(final Vertx vertx, final Duration timeout) {
+                    shutdown.incrementAndGet();
+                    return super.shutdown(vertx, timeout);
+                }
+            });
+        };
+    }
+}
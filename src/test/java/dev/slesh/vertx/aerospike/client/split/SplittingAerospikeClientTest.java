@@ -0,0 +1,144 @@
+package dev.slesh.vertx.aerospike.client.split;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.Key;
+import com.aerospike.client.Record;
+import com.aerospike.client.ResultCode;
+import com.aerospike.client.async.EventLoop;
+import com.aerospike.client.async.NettyEventLoops;
+import com.aerospike.client.listener.RecordArrayListener;
+import dev.slesh.vertx.aerospike.client.StubAerospikeClient;
+import dev.slesh.vertx.aerospike.client.VertxAerospikeClient;
+import dev.slesh.vertx.aerospike.client.result.RecordArrayValue;
+import dev.slesh.vertx.aerospike.deadline.Deadline;
+import dev.slesh.vertx.aerospike.deadline.DeadlineExceededException;
+import dev.slesh.vertx.aerospike.eventloop.NextEventLoopSelector;
+import dev.slesh.vertx.aerospike.future.ContextPromiseSelector;
+import io.vertx.core.Vertx;
+import io.vertx.core.impl.ContextInternal;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@ExtendWith(VertxExtension.class)
+class SplittingAerospikeClientTest {
+    private static final long FAILING_KEY = 13;
+
+    private final AtomicInteger chunks = new AtomicInteger();
+    private final Set<Integer> usedLoops = ConcurrentHashMap.newKeySet();
+    private VertxAerospikeClient wrapped;
+
+    @BeforeEach
+    void setUp(final Vertx vertx) {
+        final var eventLoops = new NettyEventLoops(vertx.nettyEventLoopGroup());
+        wrapped = new VertxAerospikeClient(
+                StubAerospikeClient.create((method, args) -> {
+                    chunks.incrementAndGet();
+                    usedLoops.add(((EventLoop) args[0]).getIndex());
+                    final Key[] keys = (Key[]) args[3];
+                    final var listener = (RecordArrayListener) args[1];
+                    final Record[] records = new Record[keys.length];
+                    boolean failing = false;
+                    for (int i = 0; i < keys.length; i++) {
+                        records[i] = new Record(Map.of("id", keys[i].userKey.toLong()), 1, 0);
+                        failing |= keys[i].userKey.toLong() == FAILING_KEY;
+                    }
+                    final boolean fail = failing;
+                    // the earlier chunks are answered later, so they complete out of order
+                    ((EventLoop) args[0]).schedule(() -> {
+                        if (fail) {
+                            listener.onFailure(new AerospikeException(ResultCode.TIMEOUT));
+                        } else {
+                            listener.onSuccess(keys, records);
+                        }
+                    }, 100 - keys[0].userKey.toLong(), TimeUnit.MILLISECONDS);
+                }),
+                new NextEventLoopSelector(eventLoops),
+                new ContextPromiseSelector());
+    }
+
+    @Test
+    void mergesChunksInKeyOrder(final Vertx vertx, final VertxTestContext context) {
+        final var client = new SplittingAerospikeClient(wrapped, new ContextPromiseSelector(),
+                new SplittingOptions(3, 4));
+        vertx.runOnContext(v -> client.get(null, keys(0, 12))
+                .onComplete(context.succeeding(value -> context.verify(() -> {
+                    Assertions.assertEquals(4, chunks.get());
+                    assertRecords(value, 0, 12);
+                    context.completeNow();
+                }))));
+    }
+
+    @Test
+    void spreadsChunksOverEventLoops(final Vertx vertx, final VertxTestContext context) {
+        final var client = new SplittingAerospikeClient(wrapped, new ContextPromiseSelector(),
+                new SplittingOptions(3, 4));
+        vertx.runOnContext(v -> client.get(null, keys(0, 12))
+                .onComplete(context.succeeding(value -> context.verify(() -> {
+                    // the wrapped client picks the loops round-robin
+                    Assertions.assertTrue(usedLoops.size() > 1, "event loops used: " + usedLoops);
+                    context.completeNow();
+                }))));
+    }
+
+    @Test
+    void keepsResultsOfOtherChunksOnPartialFailure(final Vertx vertx, final VertxTestContext context) {
+        final var client = new SplittingAerospikeClient(wrapped, new ContextPromiseSelector(),
+                new SplittingOptions(5, 2));
+        vertx.runOnContext(v -> client.get(null, keys(0, 20))
+                .onComplete(context.failing(error -> context.verify(() -> {
+                    final var failure = Assertions.assertInstanceOf(BatchSplitException.class, error);
+                    Assertions.assertEquals(1, failure.failures().size());
+                    final ChunkFailure chunk = failure.failures().get(0);
+                    Assertions.assertEquals(10, chunk.offset());
+                    Assertions.assertEquals(5, chunk.length());
+                    Assertions.assertEquals(ResultCode.TIMEOUT, chunk.cause().getResultCode());
+                    final RecordArrayValue partial = failure.partialValue();
+                    assertRecords(partial, 0, 10);
+                    Assertions.assertNull(partial.records()[10]);
+                    assertRecords(partial, 15, 20);
+                    context.completeNow();
+                }))));
+    }
+
+    @Test
+    void failsManyChunksAfterDeadlineWithoutRecursion(final Vertx vertx, final VertxTestContext context) {
+        final var client = new SplittingAerospikeClient(wrapped, new ContextPromiseSelector(),
+                new SplittingOptions(1, 1));
+        final ContextInternal request = ((ContextInternal) vertx.getOrCreateContext()).duplicate();
+        Deadline.attach(request, Deadline.after(Duration.ZERO));
+        request.runOnContext(v -> client.get(null, keys(0, 100_000))
+                .onComplete(context.failing(error -> context.verify(() -> {
+                    final var failure = Assertions.assertInstanceOf(BatchSplitException.class, error);
+                    Assertions.assertEquals(100_000, failure.failures().size());
+                    Assertions.assertInstanceOf(DeadlineExceededException.class, failure.failures().get(0).cause());
+                    Assertions.assertEquals(0, chunks.get());
+                    context.completeNow();
+                }))));
+    }
+
+    private static Key[] keys(final int from, final int to) {
+        final Key[] keys = new Key[to - from];
+        for (int i = from; i < to; i++) {
+            keys[i - from] = new Key("ns", "set", i);
+        }
+        return keys;
+    }
+
+    private static void assertRecords(final RecordArrayValue value, final int from, final int to) {
+        for (int i = from; i < to; i++) {
+            Assertions.assertEquals(i, value.keys()[i].userKey.toLong());
+            Assertions.assertEquals(i, value.records()[i].getLong("id"));
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package dev.slesh.vertx.aerospike.client.stream;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.Key;
+import com.aerospike.client.Record;
+import com.aerospike.client.ResultCode;
+import com.aerospike.client.async.NettyEventLoops;
+import com.aerospike.client.listener.RecordSequenceListener;
+import com.aerospike.client.query.KeyRecord;
+import dev.slesh.vertx.aerospike.client.StubAerospikeClient;
+import dev.slesh.vertx.aerospike.deadline.Deadline;
+import dev.slesh.vertx.aerospike.deadline.DeadlineExceededException;
+import dev.slesh.vertx.aerospike.eventloop.NextEventLoopSelector;
+import io.vertx.core.Vertx;
+import io.vertx.core.impl.ContextInternal;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@ExtendWith(VertxExtension.class)
+class BatchStreamTest {
+    private static final int CHUNK_SIZE = 2;
+
+    private final Key[] keys = keys(5);
+    // the offsets of the chunks which were sent
+    private final List<Integer> chunks = new CopyOnWriteArrayList<>();
+    // the chunk which fails, -1 fails none
+    private volatile int failingChunk = -1;
+    // thrown when the failing chunk is sent, otherwise the chunk fails in its listener
+    private volatile RuntimeException sendFailure;
+    private BatchQuery<KeyRecord> query;
+    private NextEventLoopSelector eventLoopSelector;
+
+    @BeforeEach
+    void setUp(final Vertx vertx) {
+        eventLoopSelector = new NextEventLoopSelector(new NettyEventLoops(vertx.nettyEventLoopGroup()));
+        query = BatchQuery.get(StubAerospikeClient.create((method, args) -> {
+            final var chunk = (Key[]) args[3];
+            final int offset = (int) chunk[0].userKey.toLong();
+            chunks.add(offset);
+            final var listener = (RecordSequenceListener) args[1];
+            if (chunks.size() - 1 == failingChunk) {
+                if (sendFailure != null) {
+                    throw sendFailure;
+                }
+                listener.onFailure(new AerospikeException(ResultCode.TIMEOUT));
+                return;
+            }
+            for (final Key key : chunk) {
+                listener.onRecord(key, new Record(Map.of(), 1, 0));
+            }
+            listener.onSuccess();
+        }), null, keys);
+    }
+
+    @Test
+    void sendsNextChunkOnlyOnDemand(final Vertx vertx, final VertxTestContext context) {
+        final List<Long> received = new ArrayList<>();
+        vertx.runOnContext(v -> {
+            final var stream = new BatchStream<>(eventLoopSelector, query, keys.length, CHUNK_SIZE);
+            stream.pause();
+            stream.exceptionHandler(context::failNow);
+            stream.endHandler(ignored -> context.verify(() -> {
+                Assertions.assertEquals(List.of(0L, 1L, 2L, 3L, 4L), received);
+                Assertions.assertEquals(List.of(0, 2, 4), chunks);
+                context.completeNow();
+            }));
+            stream.handler(record -> {
+                final long index = record.key.userKey.toLong();
+                received.add(index);
+                context.verify(() -> Assertions.assertEquals(index / CHUNK_SIZE + 1, chunks.size(),
+                        "the next chunk is sent once the records of the previous one are consumed"));
+                vertx.runOnContext(ignored -> stream.fetch(1));
+            });
+            stream.fetch(1);
+        });
+    }
+
+    @Test
+    void failsWhenChunkFails(final Vertx vertx, final VertxTestContext context) {
+        failingChunk = 1;
+        final List<Long> received = new ArrayList<>();
+        vertx.runOnContext(v -> new BatchStream<>(eventLoopSelector, query, keys.length, CHUNK_SIZE)
+                .endHandler(ignored -> context.failNow("the stream must fail"))
+                .exceptionHandler(error -> context.verify(() -> {
+                    Assertions.assertEquals(ResultCode.TIMEOUT, ((AerospikeException) error).getResultCode());
+                    Assertions.assertEquals(List.of(0L, 1L), received);
+                    Assertions.assertEquals(List.of(0, 2), chunks);
+                    context.completeNow();
+                }))
+                .handler(record -> received.add(record.key.userKey.toLong())));
+    }
+
+    @Test
+    void failsWhenChunkCannotBeSent(final Vertx vertx, final VertxTestContext context) {
+        failingChunk = 1;
+        sendFailure = new IllegalStateException("closed");
+        vertx.runOnContext(v -> new BatchStream<>(eventLoopSelector, query, keys.length, CHUNK_SIZE)
+                .endHandler(ignored -> context.failNow("the stream must fail"))
+                .exceptionHandler(error -> context.verify(() -> {
+                    Assertions.assertSame(sendFailure, error);
+                    Assertions.assertEquals(List.of(0, 2), chunks);
+                    context.completeNow();
+                }))
+                .handler(record -> {
+                }));
+    }
+
+    @Test
+    void stopsAfterDeadline(final Vertx vertx, final VertxTestContext context) {
+        final ContextInternal request = ((ContextInternal) vertx.getOrCreateContext()).duplicate();
+        Deadline.attach(request, Deadline.after(Duration.ofMillis(50)));
+        final List<Long> received = new ArrayList<>();
+        request.runOnContext(v -> {
+            final var stream = new BatchStream<>(eventLoopSelector, query, keys.length, CHUNK_SIZE);
+            stream.endHandler(ignored -> context.failNow("the stream must fail"));
+            stream.exceptionHandler(error -> context.verify(() -> {
+                Assertions.assertInstanceOf(DeadlineExceededException.class, error);
+                Assertions.assertEquals(List.of(0L, 1L), received);
+                // the rest of the batch is not sent once nobody waits for it
+                Assertions.assertEquals(List.of(0), chunks);
+                context.completeNow();
+            }));
+            stream.handler(record -> {
+                received.add(record.key.userKey.toLong());
+                if (received.size() == CHUNK_SIZE) {
+                    stream.pause();
+                    vertx.setTimer(100, ignored -> stream.resume());
+                }
+            });
+        });
+    }
+
+    private static Key[] keys(final int count) {
+        final Key[] keys = new Key[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = new Key("ns", "set", i);
+        }
+        return keys;
+    }
+}
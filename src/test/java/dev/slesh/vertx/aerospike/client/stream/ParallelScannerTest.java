@@ -0,0 +1,129 @@
+package dev.slesh.vertx.aerospike.client.stream;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.Key;
+import com.aerospike.client.Record;
+import com.aerospike.client.ResultCode;
+import com.aerospike.client.async.NettyEventLoops;
+import com.aerospike.client.listener.RecordSequenceListener;
+import com.aerospike.client.policy.ScanPolicy;
+import com.aerospike.client.query.PartitionFilter;
+import dev.slesh.vertx.aerospike.client.StubAerospikeClient;
+import io.vertx.core.Vertx;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@ExtendWith(VertxExtension.class)
+class ParallelScannerTest {
+    private final List<Long> pages = new CopyOnWriteArrayList<>();
+    // the page of the first range which fails, 0 fails none
+    private volatile int failingPage;
+    private ParallelScanner scanner;
+
+    @BeforeEach
+    void setUp(final Vertx vertx) {
+        final var records = new AtomicInteger();
+        final var firstRangePages = new AtomicInteger();
+        scanner = new ParallelScanner(
+                StubAerospikeClient.create((method, args) -> {
+                    // a server with more records than any page asks for
+                    final long maxRecords = ((ScanPolicy) args[2]).maxRecords;
+                    pages.add(maxRecords);
+                    final var listener = (RecordSequenceListener) args[1];
+                    if (((PartitionFilter) args[3]).getBegin() == 0
+                            && firstRangePages.incrementAndGet() == failingPage) {
+                        listener.onFailure(new AerospikeException(ResultCode.TIMEOUT));
+                        return;
+                    }
+                    for (long i = 0; i < maxRecords; i++) {
+                        listener.onRecord(new Key("ns", "set", records.incrementAndGet()),
+                                new Record(Map.of(), 1, 0));
+                    }
+                    listener.onSuccess();
+                }),
+                new NettyEventLoops(vertx.nettyEventLoopGroup()),
+                2);
+    }
+
+    @Test
+    void splitsMaxRecordsExactly(final Vertx vertx, final VertxTestContext context) {
+        final var policy = new ScanPolicy();
+        policy.maxRecords = 10;
+        final var received = new AtomicInteger();
+        vertx.runOnContext(v -> {
+            final var stream = scanner.scan(policy, 4, "ns", "set");
+            stream.endHandler(ignored -> context.verify(() -> {
+                Assertions.assertEquals(10, received.get());
+                // pages of 2 records at most, ranges of 3, 3, 2 and 2 records
+                Assertions.assertEquals(10, pages.stream().mapToLong(Long::longValue).sum());
+                Assertions.assertEquals(6, pages.size());
+                context.completeNow();
+            })).handler(record -> received.incrementAndGet());
+        });
+    }
+
+    @Test
+    void retriedRangeReadsWhatIsLeftOfItsLimit(final Vertx vertx, final VertxTestContext context) {
+        final var policy = new ScanPolicy();
+        policy.maxRecords = 10;
+        // the first range of 3 records delivers a page of 2 and fails on the next one
+        failingPage = 2;
+        final var received = new AtomicInteger();
+        vertx.runOnContext(v -> {
+            final var stream = scanner.scan(policy, 4, "ns", "set");
+            stream.exceptionHandler(cause -> context.verify(() -> {
+                final var failure = (PartitionedRecordStream.RangeException) cause;
+                Assertions.assertEquals(0, failure.range());
+                Assertions.assertEquals(2, stream.range(0).delivered());
+                stream.retry(failure.range());
+            }));
+            stream.endHandler(ignored -> context.verify(() -> {
+                // the retried range reads the one record left, not its whole share again
+                Assertions.assertEquals(10, received.get());
+                context.completeNow();
+            })).handler(record -> received.incrementAndGet());
+        });
+    }
+
+    @Test
+    void limitLowerThanParallelismLowersRanges(final Vertx vertx, final VertxTestContext context) {
+        final var policy = new ScanPolicy();
+        policy.maxRecords = 2;
+        vertx.runOnContext(v -> context.verify(() -> {
+            Assertions.assertEquals(2, scanner.scan(policy, 4, "ns", "set").size());
+            context.completeNow();
+        }));
+    }
+
+    @Test
+    void boundedDemandRequestsPagesOfSomeRanges(final Vertx vertx, final VertxTestContext context) {
+        final var received = new AtomicInteger();
+        vertx.runOnContext(v -> {
+            final var stream = scanner.scan(new ScanPolicy(), 4, "ns", "set");
+            stream.pause();
+            stream.handler(record -> received.incrementAndGet());
+            stream.fetch(1);
+            vertx.setTimer(50, first -> context.verify(() -> {
+                Assertions.assertEquals(1, received.get());
+                // the other three ranges didn't ask for a page
+                Assertions.assertEquals(1, pages.size());
+                stream.fetch(2);
+                vertx.setTimer(50, second -> context.verify(() -> {
+                    Assertions.assertEquals(3, received.get());
+                    // the first range had a record left from its page, the second one asked for a page
+                    Assertions.assertEquals(2, pages.size());
+                    context.completeNow();
+                }));
+            }));
+        });
+    }
+}
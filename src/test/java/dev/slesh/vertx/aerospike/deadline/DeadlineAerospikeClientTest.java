@@ -0,0 +1,96 @@
+package dev.slesh.vertx.aerospike.deadline;
+
+import com.aerospike.client.Key;
+import com.aerospike.client.async.NettyEventLoops;
+import com.aerospike.client.listener.RecordListener;
+import com.aerospike.client.policy.Policy;
+import dev.slesh.vertx.aerospike.client.StubAerospikeClient;
+import dev.slesh.vertx.aerospike.client.VertxAerospikeClient;
+import dev.slesh.vertx.aerospike.eventloop.NextEventLoopSelector;
+import dev.slesh.vertx.aerospike.future.ContextPromiseSelector;
+import io.vertx.core.Vertx;
+import io.vertx.core.impl.ContextInternal;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.time.Duration;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@ExtendWith(VertxExtension.class)
+class DeadlineAerospikeClientTest {
+    private final Key key = new Key("ns", "set", "key");
+    private final CopyOnWriteArrayList<Policy> sent = new CopyOnWriteArrayList<>();
+    private DeadlineAerospikeClient client;
+
+    @BeforeEach
+    void setUp(final Vertx vertx) {
+        final var eventLoops = new NettyEventLoops(vertx.nettyEventLoopGroup());
+        client = new DeadlineAerospikeClient(new VertxAerospikeClient(
+                StubAerospikeClient.create((method, args) -> {
+                    sent.add((Policy) args[2]);
+                    ((RecordListener) args[1]).onSuccess(key, null);
+                }),
+                new NextEventLoopSelector(eventLoops),
+                new ContextPromiseSelector()));
+    }
+
+    @Test
+    void clampsTimeoutsToDeadline(final VertxTestContext context) {
+        final var policy = new Policy();
+        policy.totalTimeout = 0;
+        policy.socketTimeout = 30_000;
+        client.withDeadline(Deadline.after(Duration.ofMinutes(1))).get(policy, key)
+                .onComplete(context.succeeding(value -> context.verify(() -> {
+                    final Policy bounded = sent.get(0);
+                    Assertions.assertNotSame(policy, bounded);
+                    Assertions.assertTrue(bounded.totalTimeout > 50_000 && bounded.totalTimeout <= 60_000,
+                            "totalTimeout: " + bounded.totalTimeout);
+                    Assertions.assertEquals(30_000, bounded.socketTimeout);
+                    Assertions.assertEquals(0, policy.totalTimeout);
+                    context.completeNow();
+                })));
+    }
+
+    @Test
+    void keepsShorterTimeouts(final VertxTestContext context) {
+        final var policy = new Policy();
+        policy.totalTimeout = 100;
+        policy.socketTimeout = 0;
+        client.withDeadline(Deadline.after(Duration.ofMinutes(1))).get(policy, key)
+                .onComplete(context.succeeding(value -> context.verify(() -> {
+                    Assertions.assertEquals(100, sent.get(0).totalTimeout);
+                    Assertions.assertEquals(100, sent.get(0).socketTimeout);
+                    context.completeNow();
+                })));
+    }
+
+    @Test
+    void failsFastOncePassed(final VertxTestContext context) {
+        client.withDeadline(Deadline.after(Duration.ZERO)).get(new Policy(), key)
+                .onComplete(context.failing(error -> context.verify(() -> {
+                    Assertions.assertInstanceOf(DeadlineExceededException.class, error);
+                    Assertions.assertTrue(sent.isEmpty());
+                    context.completeNow();
+                })));
+    }
+
+    @Test
+    void appliesDeadlineOfDuplicatedContext(final Vertx vertx, final VertxTestContext context) {
+        final var eventLoopContext = (ContextInternal) vertx.getOrCreateContext();
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> Deadline.attach(eventLoopContext, Deadline.after(Duration.ZERO)));
+        final ContextInternal request = eventLoopContext.duplicate();
+        Deadline.attach(request, Deadline.after(Duration.ZERO));
+        request.runOnContext(v -> client.get(new Policy(), key)
+                .onComplete(context.failing(error -> context.verify(() -> {
+                    Assertions.assertInstanceOf(DeadlineExceededException.class, error);
+                    // the other tasks of the event loop are not bound by the deadline of the request
+                    eventLoopContext.runOnContext(ignored -> client.get(new Policy(), key)
+                            .onComplete(context.succeedingThenComplete()));
+                }))));
+    }
+}
@@ -0,0 +1,44 @@
+package dev.slesh.vertx.aerospike.eventloop;
+
+import com.aerospike.client.Key;
+import com.aerospike.client.async.EventLoop;
+import com.aerospike.client.async.NettyEventLoops;
+import com.aerospike.client.cluster.Partition;
+import io.netty.channel.nio.NioEventLoopGroup;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+class KeyAffinityEventLoopTest {
+    private final NioEventLoopGroup group = new NioEventLoopGroup(4);
+    private final NettyEventLoops eventLoops = new NettyEventLoops(group);
+
+    @AfterEach
+    void tearDown() {
+        group.shutdownGracefully();
+    }
+
+    @Test
+    void routesKeyByPartition() {
+        final var selector = new KeyAffinityEventLoop(eventLoops);
+        final Set<EventLoop> used = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            final var key = new Key("ns", "set", i);
+            final EventLoop eventLoop = selector.select(key);
+            Assertions.assertSame(eventLoop, selector.select(new Key("ns", "set", i)));
+            Assertions.assertEquals(Partition.getPartitionId(key.digest) % eventLoops.getSize(), eventLoop.getIndex());
+            used.add(eventLoop);
+        }
+        Assertions.assertEquals(eventLoops.getSize(), used.size());
+    }
+
+    @Test
+    void givesCommandsWithoutKeyToFallback() {
+        final EventLoop fallback = eventLoops.get(2);
+        final var selector = new KeyAffinityEventLoop(eventLoops, () -> fallback);
+        Assertions.assertSame(fallback, selector.select());
+    }
+}
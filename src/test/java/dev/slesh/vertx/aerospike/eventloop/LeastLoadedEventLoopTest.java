@@ -0,0 +1,93 @@
+package dev.slesh.vertx.aerospike.eventloop;
+
+import com.aerospike.client.async.EventLoop;
+import com.aerospike.client.async.EventLoops;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+
+class LeastLoadedEventLoopTest {
+
+    @Test
+    void scansEveryLoopWhenChoicesCoverThem() {
+        final int[] loads = {5, 3, 0, 7};
+        final var selector = new LeastLoadedEventLoop(eventLoops(loads), loads.length);
+        for (int i = 0; i < loads.length; i++) {
+            Assertions.assertEquals(2, selector.select().getIndex());
+        }
+        loads[2] = 4;
+        Assertions.assertEquals(1, selector.select().getIndex());
+    }
+
+    @Test
+    void spreadsBurstOverEquallyLoadedLoops() {
+        final int[] loads = {0, 0};
+        // the default two choices cover both loops, so every selection scans them
+        final var selector = new LeastLoadedEventLoop(eventLoops(loads));
+        final int[] selected = new int[loads.length];
+        for (int i = 0; i < 100; i++) {
+            selected[selector.select().getIndex()]++;
+        }
+        Assertions.assertArrayEquals(new int[]{50, 50}, selected);
+        loads[0] = 1;
+        loads[1] = 1;
+        for (int i = 0; i < 100; i++) {
+            selected[selector.select().getIndex()]++;
+        }
+        Assertions.assertArrayEquals(new int[]{100, 100}, selected);
+    }
+
+    @Test
+    void sampledSelectionAvoidsBusyLoop() {
+        final int[] loads = {100, 0, 0, 0};
+        final var selector = new LeastLoadedEventLoop(eventLoops(loads));
+        final int[] selected = new int[loads.length];
+        final int selections = 10_000;
+        for (int i = 0; i < selections; i++) {
+            selected[selector.select().getIndex()]++;
+        }
+        // the busy loop is taken only when both samples hit it, 1/16 of the selections
+        Assertions.assertTrue(selected[0] < selections / 10, "busy loop selected " + selected[0]);
+        for (int i = 1; i < loads.length; i++) {
+            Assertions.assertTrue(selected[i] > selections / 5, "loop " + i + " selected " + selected[i]);
+        }
+    }
+
+    @Test
+    void singleLoopIsAlwaysSelected() {
+        Assertions.assertEquals(0, new LeastLoadedEventLoop(eventLoops(new int[]{10})).select().getIndex());
+    }
+
+    @Test
+    void rejectsNonPositiveChoices() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new LeastLoadedEventLoop(eventLoops(new int[]{0}), 0));
+    }
+
+    /**
+     * @param loads commands in process of every event loop, read on every selection
+     */
+    private static EventLoops eventLoops(final int[] loads) {
+        final EventLoop[] array = new EventLoop[loads.length];
+        for (int i = 0; i < array.length; i++) {
+            final int index = i;
+            array[i] = (EventLoop) Proxy.newProxyInstance(EventLoop.class.getClassLoader(),
+                    new Class<?>[]{EventLoop.class},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "getIndex" -> index;
+                        case "getProcessSize" -> loads[index];
+                        case "getQueueSize" -> 0;
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    });
+        }
+        return (EventLoops) Proxy.newProxyInstance(EventLoops.class.getClassLoader(),
+                new Class<?>[]{EventLoops.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getSize" -> array.length;
+                    case "get" -> array[(int) args[0]];
+                    case "getArray" -> array;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,76 @@
+package dev.slesh.vertx.aerospike.limiter;
+
+import com.aerospike.client.async.NettyEventLoops;
+import io.vertx.core.Vertx;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@ExtendWith(VertxExtension.class)
+class EventLoopLimiterTest {
+    @Test
+    void queuesAndRejectsOverLimit(final Vertx vertx, final VertxTestContext context) {
+        final var eventLoops = new NettyEventLoops(vertx.nettyEventLoopGroup());
+        final var eventLoop = eventLoops.get(0);
+        final var limiter = new EventLoopLimiter(eventLoops, () -> new FixedLimit(1), 1);
+        final List<String> events = new ArrayList<>();
+        eventLoop.execute(() -> context.verify(() -> {
+            limiter.submit(eventLoop, new Recording("first", events));
+            limiter.submit(eventLoop, new Recording("second", events));
+            limiter.submit(eventLoop, new Recording("third", events));
+            Assertions.assertEquals(List.of("run first", "reject third"), events);
+
+            limiter.release(eventLoop, 0, false);
+            Assertions.assertEquals(List.of("run first", "reject third", "run second"), events);
+
+            limiter.release(eventLoop, 0, false);
+            limiter.submit(eventLoop, new Recording("fourth", events));
+            Assertions.assertEquals(List.of("run first", "reject third", "run second", "run fourth"), events);
+            context.completeNow();
+        }));
+    }
+
+    @Test
+    void aimdLimitShrinksOnDropAndGrowsUnderLoad() {
+        final var limit = new AimdLimit(10, 2, 20, 0.5, 1_000_000);
+        limit.onSample(0, 10, true);
+        Assertions.assertEquals(5, limit.limit());
+        limit.onSample(2_000_000, 5, false);
+        Assertions.assertEquals(2, limit.limit());
+        limit.onSample(0, 2, false);
+        Assertions.assertEquals(3, limit.limit());
+        limit.onSample(0, 1, false);
+        Assertions.assertEquals(3, limit.limit());
+    }
+
+    @Test
+    void tokenBucketCapsExtraAttempts() {
+        final var bucket = new TokenBucket(0.1, 2);
+        Assertions.assertTrue(bucket.tryAcquire());
+        Assertions.assertTrue(bucket.tryAcquire());
+        Assertions.assertFalse(bucket.tryAcquire());
+        for (int i = 0; i < 10; i++) {
+            bucket.deposit();
+        }
+        Assertions.assertTrue(bucket.tryAcquire());
+        Assertions.assertFalse(bucket.tryAcquire());
+    }
+
+    private record Recording(String name, List<String> events) implements LimitedCommand {
+        @Override
+        public void run() {
+            events.add("run " + name);
+        }
+
+        @Override
+        public void reject(final Throwable cause) {
+            Assertions.assertInstanceOf(CommandRejectedException.class, cause);
+            events.add("reject " + name);
+        }
+    }
+}
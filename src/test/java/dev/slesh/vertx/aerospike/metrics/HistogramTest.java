@@ -0,0 +1,52 @@
+package dev.slesh.vertx.aerospike.metrics;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class HistogramTest {
+
+    @Test
+    void smallValuesHaveOwnBuckets() {
+        for (int value = 0; value < 16; value++) {
+            Assertions.assertEquals(value, Histogram.bucket(value));
+            Assertions.assertEquals(value, Histogram.upperBound(value));
+        }
+    }
+
+    @Test
+    void splitsPowersOfTwoIntoEightLinearBuckets() {
+        // [16, 32) is split into buckets of 2
+        Assertions.assertEquals(Histogram.bucket(16), Histogram.bucket(17));
+        Assertions.assertNotEquals(Histogram.bucket(17), Histogram.bucket(18));
+        Assertions.assertEquals(17, Histogram.upperBound(Histogram.bucket(16)));
+        Assertions.assertEquals(31, Histogram.upperBound(Histogram.bucket(30)));
+        Assertions.assertEquals(Histogram.bucket(31) + 1, Histogram.bucket(32));
+        Assertions.assertEquals(1023, Histogram.upperBound(Histogram.bucket(1000)));
+        Assertions.assertEquals(Long.MAX_VALUE, Histogram.upperBound(Histogram.bucket(Long.MAX_VALUE)));
+    }
+
+    @Test
+    void upperBoundIsWithinEighthOfValue() {
+        for (long value = 1; value > 0 && value < Long.MAX_VALUE / 3; value = value * 3 + 1) {
+            final long upperBound = Histogram.upperBound(Histogram.bucket(value));
+            Assertions.assertTrue(upperBound >= value, "upper bound " + upperBound + " of " + value);
+            Assertions.assertTrue(upperBound - value <= value / 8, "upper bound " + upperBound + " of " + value);
+        }
+    }
+
+    @Test
+    void percentilesAndCount() {
+        final var histogram = new Histogram(4);
+        Assertions.assertEquals(0, histogram.valueAtPercentile(50));
+        for (int value = 1; value <= 100; value++) {
+            histogram.record(value);
+        }
+        histogram.record(-5);
+        Assertions.assertEquals(101, histogram.count());
+        Assertions.assertEquals(0, histogram.valueAtPercentile(0));
+        // 50 falls into [48, 51]
+        Assertions.assertEquals(51, histogram.valueAtPercentile(50));
+        // 100 falls into [96, 103]
+        Assertions.assertEquals(103, histogram.valueAtPercentile(100));
+    }
+}
@@ -0,0 +1,36 @@
+package dev.slesh.vertx.aerospike.metrics;
+
+import com.aerospike.client.Key;
+import com.aerospike.client.async.NettyEventLoops;
+import dev.slesh.vertx.aerospike.eventloop.KeyAffinityEventLoop;
+import io.netty.channel.nio.NioEventLoopGroup;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class MeteredEventLoopSelectorTest {
+    private final NioEventLoopGroup group = new NioEventLoopGroup(2);
+    private final NettyEventLoops eventLoops = new NettyEventLoops(group);
+
+    @AfterEach
+    void tearDown() {
+        group.shutdownGracefully();
+    }
+
+    @Test
+    void countsSelectionsPerEventLoop() {
+        final var metrics = new HistogramMetrics(eventLoops.getSize());
+        final var selector = new MeteredEventLoopSelector(new KeyAffinityEventLoop(eventLoops), metrics);
+        for (int i = 0; i < 4; i++) {
+            selector.select();
+        }
+        Assertions.assertEquals(2, metrics.eventLoopCommands(0));
+        Assertions.assertEquals(2, metrics.eventLoopCommands(1));
+
+        final var key = new Key("ns", "set", "key");
+        final int keyLoop = selector.select(key).getIndex();
+        selector.select(key);
+        Assertions.assertEquals(4, metrics.eventLoopCommands(keyLoop));
+        Assertions.assertEquals(2, metrics.eventLoopCommands(1 - keyLoop));
+    }
+}
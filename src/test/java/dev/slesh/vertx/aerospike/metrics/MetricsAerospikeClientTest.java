@@ -0,0 +1,118 @@
+package dev.slesh.vertx.aerospike.metrics;
+
+import com.aerospike.client.AerospikeException;
+import com.aerospike.client.Bin;
+import com.aerospike.client.Key;
+import com.aerospike.client.ResultCode;
+import com.aerospike.client.policy.BatchPolicy;
+import com.aerospike.client.policy.Policy;
+import com.aerospike.client.policy.WritePolicy;
+import dev.slesh.vertx.aerospike.client.CommandType;
+import dev.slesh.vertx.aerospike.client.DelegatingAerospikeClient;
+import dev.slesh.vertx.aerospike.client.StubAerospikeClient;
+import dev.slesh.vertx.aerospike.client.VertxAerospikeClient;
+import dev.slesh.vertx.aerospike.client.result.DeleteValue;
+import dev.slesh.vertx.aerospike.client.result.ExistsArrayValue;
+import dev.slesh.vertx.aerospike.client.result.ReadValue;
+import dev.slesh.vertx.aerospike.eventloop.EventLoopSelector;
+import dev.slesh.vertx.aerospike.future.ContextPromiseSelector;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+class MetricsAerospikeClientTest {
+    private final Key key = new Key("ns", "set", "key");
+    private final HistogramMetrics metrics = new HistogramMetrics(1);
+    private final Promise<ReadValue> pendingRead = Promise.promise();
+    private final Promise<Key> pendingWrite = Promise.promise();
+    private final MetricsAerospikeClient client = new MetricsAerospikeClient(new DelegatingAerospikeClient(
+            new VertxAerospikeClient(StubAerospikeClient.create((method, args) -> {
+                throw new UnsupportedOperationException(method);
+            }), unused(), new ContextPromiseSelector())) {
+        @Override
+        public Future<ReadValue> get(final Policy policy, final Key key) {
+            return pendingRead.future();
+        }
+
+        @Override
+        public Future<Key> put(final WritePolicy policy, final Key key, final Bin... bins) {
+            return pendingWrite.future();
+        }
+
+        @Override
+        public Future<Key> add(final WritePolicy policy, final Key key, final Bin... bins) {
+            return Future.failedFuture(new AerospikeException(1000));
+        }
+
+        @Override
+        public Future<DeleteValue> delete(final WritePolicy policy, final Key key) {
+            return Future.failedFuture(new IllegalStateException("not aerospike"));
+        }
+
+        @Override
+        public Future<Key> touch(final WritePolicy policy, final Key key) {
+            throw new AerospikeException(ResultCode.PARAMETER_ERROR);
+        }
+
+        @Override
+        public Future<ExistsArrayValue> exists(final BatchPolicy policy, final Key[] keys) {
+            return Future.succeededFuture(new ExistsArrayValue(keys, new boolean[keys.length]));
+        }
+    }, metrics);
+
+    @Test
+    void tracksInFlightUntilSuccess() {
+        final var read = client.get(null, key);
+        Assertions.assertEquals(1, metrics.inFlight(CommandType.GET));
+        pendingRead.complete(new ReadValue(key, null));
+        Assertions.assertTrue(read.succeeded());
+        Assertions.assertEquals(0, metrics.inFlight(CommandType.GET));
+        Assertions.assertEquals(1, metrics.latency(CommandType.GET).count());
+        Assertions.assertEquals(Map.of(), metrics.errors(CommandType.GET));
+    }
+
+    @Test
+    void tracksInFlightUntilFailure() {
+        client.put(null, key, new Bin("bin", 1));
+        Assertions.assertEquals(1, metrics.inFlight(CommandType.PUT));
+        pendingWrite.fail(new AerospikeException(ResultCode.GENERATION_ERROR));
+        Assertions.assertEquals(0, metrics.inFlight(CommandType.PUT));
+        Assertions.assertEquals(1, metrics.latency(CommandType.PUT).count());
+        Assertions.assertEquals(Map.of(ResultCode.GENERATION_ERROR, 1L), metrics.errors(CommandType.PUT));
+    }
+
+    @Test
+    void countsSynchronousFailure() {
+        Assertions.assertThrows(AerospikeException.class, () -> client.touch(null, key));
+        Assertions.assertThrows(AerospikeException.class, () -> client.touch(null, key));
+        Assertions.assertEquals(0, metrics.inFlight(CommandType.TOUCH));
+        Assertions.assertEquals(2, metrics.latency(CommandType.TOUCH).count());
+        Assertions.assertEquals(Map.of(ResultCode.PARAMETER_ERROR, 2L), metrics.errors(CommandType.TOUCH));
+    }
+
+    @Test
+    void countsErrorsByResultCode() {
+        client.delete(null, key);
+        client.add(null, key, new Bin("bin", 1));
+        Assertions.assertEquals(Map.of(ResultCode.CLIENT_ERROR, 1L), metrics.errors(CommandType.DELETE));
+        Assertions.assertEquals(Map.of(HistogramMetrics.OTHER_RESULT_CODE, 1L), metrics.errors(CommandType.ADD));
+    }
+
+    @Test
+    void recordsBatchSizeOfBatchesOnly() {
+        client.exists(null, new Key[]{key, key, key});
+        client.get(null, key);
+        Assertions.assertEquals(1, metrics.batchSize(CommandType.BATCH_EXISTS).count());
+        Assertions.assertEquals(3, metrics.batchSize(CommandType.BATCH_EXISTS).valueAtPercentile(100));
+        Assertions.assertEquals(0, metrics.batchSize(CommandType.GET).count());
+    }
+
+    private static EventLoopSelector unused() {
+        return () -> {
+            throw new UnsupportedOperationException("select");
+        };
+    }
+}
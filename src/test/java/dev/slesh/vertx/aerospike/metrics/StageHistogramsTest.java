@@ -0,0 +1,52 @@
+package dev.slesh.vertx.aerospike.metrics;
+
+import com.aerospike.client.Key;
+import com.aerospike.client.async.EventLoop;
+import com.aerospike.client.async.NettyEventLoops;
+import com.aerospike.client.listener.RecordListener;
+import dev.slesh.vertx.aerospike.client.StubAerospikeClient;
+import dev.slesh.vertx.aerospike.client.VertxAerospikeClient;
+import dev.slesh.vertx.aerospike.eventloop.NextEventLoopSelector;
+import dev.slesh.vertx.aerospike.future.ContextPromiseSelector;
+import dev.slesh.vertx.aerospike.limiter.CommandLimiter;
+import io.vertx.core.Vertx;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(VertxExtension.class)
+class StageHistogramsTest {
+    private final Key key = new Key("ns", "set", "key");
+
+    @Test
+    void timesCommandsOfEventLoopContexts(final Vertx vertx, final VertxTestContext context) {
+        final var eventLoops = new NettyEventLoops(vertx.nettyEventLoopGroup());
+        final var stages = new StageHistograms(eventLoops.getSize(), 1);
+        final var client = new VertxAerospikeClient(
+                StubAerospikeClient.create((method, args) ->
+                        ((EventLoop) args[0]).execute(() -> ((RecordListener) args[1]).onSuccess(key, null))),
+                new NextEventLoopSelector(eventLoops),
+                new ContextPromiseSelector(),
+                CommandLimiter.UNLIMITED,
+                stages);
+        // not on a context, there is no handoff to time
+        client.get(key).onComplete(context.succeeding(outside -> vertx.runOnContext(v -> client.get(key)
+                .onComplete(context.succeeding(inside -> vertx.runOnContext(later -> context.verify(() -> {
+                    long sampled = 0;
+                    for (int i = 0; i < eventLoops.getSize(); i++) {
+                        sampled += stages.handoff(i).count();
+                        Assertions.assertEquals(stages.handoff(i).count(), stages.server(i).count());
+                    }
+                    Assertions.assertEquals(1, sampled);
+                    context.completeNow();
+                })))))));
+    }
+
+    @Test
+    void rejectsInvalidSampleRatio() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new StageHistograms(1, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new StageHistograms(1, 1.5));
+    }
+}